@@ -0,0 +1,73 @@
+package org.atividade.benchmarks;
+
+import org.atividade.SistemaCarbono;
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.indices.ArvoreLocalizada;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas espaciais sobre árvores espalhadas aleatoriamente pelo território brasileiro.
+ * Para 50M árvores use -p totalArvores=50000000 e heap compatível (ex.: -jvmArgs -Xmx8g).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndiceEspacialBenchmark {
+    private static final int ARVORES_POR_LOTE = 10_000;
+
+    @Param({"1000000"})
+    public int totalArvores;
+
+    @Param({"5", "50"})
+    public double raioKm;
+
+    private SistemaCarbono sistema;
+    private SplittableRandom aleatorio;
+
+    @Setup
+    public void preparar() {
+        sistema = new SistemaCarbono();
+        aleatorio = new SplittableRandom(42);
+        UUID lote = null;
+        for (int i = 0; i < totalArvores; i++) {
+            if (i % ARVORES_POR_LOTE == 0) {
+                LoteCreditoCarbono l = sistema.criarLote("GEO-" + i);
+                lote = l.getId();
+            }
+            sistema.registrarArvore(lote, new ArvoreGeradoraCredito("Ipê", latitude(), longitude()));
+        }
+    }
+
+    private double latitude() {
+        return -33 + aleatorio.nextDouble() * 38;
+    }
+
+    private double longitude() {
+        return -73 + aleatorio.nextDouble() * 39;
+    }
+
+    @Benchmark
+    public List<ArvoreLocalizada> buscarNoRaio() {
+        return sistema.buscarArvoresNoRaio(latitude(), longitude(), raioKm);
+    }
+
+    @Benchmark
+    public List<ArvoreLocalizada> buscarNaArea() {
+        double lat = latitude(), lon = longitude();
+        double d = raioKm / 111.32;
+        return sistema.buscarArvoresNaArea(Math.max(-90, lat - d), Math.min(90, lat + d), lon - d, lon + d);
+    }
+}
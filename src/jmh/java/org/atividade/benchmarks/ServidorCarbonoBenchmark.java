@@ -0,0 +1,137 @@
+package org.atividade.benchmarks;
+
+import org.atividade.SistemaCarbono;
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.Proprietario;
+import org.atividade.servidor.ServidorCarbono;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gerador de carga local para o ServidorCarbono: 64 clientes concorrentes
+ * (threads do JMH) falando HTTP de verdade com o servidor na mesma máquina.
+ *
+ * Parâmetros:
+ * - threadsServidor: tamanho do pool de atendimento do servidor
+ *
+ * venderComVersao lê as participações e vende com a versão lida; com
+ * clientes disputando os mesmos lotes parte das vendas volta 409, o que
+ * também é medido (é o caminho rápido de rejeição).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+@Fork(jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class ServidorCarbonoBenchmark {
+    private static final int LOTES = 256;
+    private static final Pattern DONO = Pattern.compile("\"versao\":(\\d+).*?\"proprietario\":\"([0-9a-f-]+)\"");
+
+    @Param({"8", "64"})
+    public int threadsServidor;
+
+    private ServidorCarbono servidor;
+    private HttpClient cliente;
+    private String base;
+    private UUID[] lotes;
+    private UUID[] proprietarios;
+    private final AtomicLong sequencia = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        SistemaCarbono sistema = new SistemaCarbono();
+        proprietarios = new UUID[2];
+        for (int i = 0; i < proprietarios.length; i++) {
+            Proprietario p = new PessoaFisica("Proprietário " + i, "PF-" + i);
+            sistema.cadastrarProprietario(p);
+            proprietarios[i] = p.getId();
+        }
+        lotes = new UUID[LOTES];
+        for (int i = 0; i < LOTES; i++) {
+            LoteCreditoCarbono lote = sistema.criarLote("LOTE-" + i);
+            for (int a = 0; a < 20; a++) {
+                sistema.registrarArvore(lote.getId(), new ArvoreGeradoraCredito("Ipê", -10 + a * 1e-4, -37));
+            }
+            sistema.definirParticipacoesIniciais(lote.getId(), Map.of(proprietarios[0], 1000));
+            lotes[i] = lote.getId();
+        }
+
+        servidor = ServidorCarbono.iniciar(sistema, 0, threadsServidor);
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        base = "http://localhost:" + servidor.getPorta();
+    }
+
+    @TearDown(Level.Trial)
+    public void parar() {
+        servidor.close();
+    }
+
+    @Benchmark
+    public int cadastrarProprietario() throws Exception {
+        long n = sequencia.incrementAndGet();
+        return post("/proprietarios", "{\"tipo\":\"PF\",\"nome\":\"Cliente " + n + "\",\"documento\":\"CARGA-" + n + "\"}");
+    }
+
+    @Benchmark
+    public int consultarParticipacoes() throws Exception {
+        return get("/lotes/" + loteAleatorio() + "/participacoes").statusCode();
+    }
+
+    @Benchmark
+    public int venderComVersao() throws Exception {
+        UUID lote = loteAleatorio();
+        Matcher m = DONO.matcher(get("/lotes/" + lote + "/participacoes").body());
+        if (!m.find()) throw new IllegalStateException("Resposta inesperada.");
+        UUID dono = UUID.fromString(m.group(2));
+        UUID comprador = dono.equals(proprietarios[0]) ? proprietarios[1] : proprietarios[0];
+        return post("/lotes/" + lote + "/vendas", "{\"vendedores\":[\"" + dono + "\"],\"comprador\":\"" + comprador
+                + "\",\"valor\":\"1500.00\",\"versao\":" + m.group(1) + "}");
+    }
+
+    @Benchmark
+    public int relatorio() throws Exception {
+        return get("/lotes/" + loteAleatorio() + "/relatorio?formato=json").statusCode();
+    }
+
+    private UUID loteAleatorio() {
+        return lotes[ThreadLocalRandom.current().nextInt(LOTES)];
+    }
+
+    private HttpResponse<String> get(String caminho) throws Exception {
+        return cliente.send(HttpRequest.newBuilder(URI.create(base + caminho)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private int post(String caminho, String json) throws Exception {
+        HttpRequest r = HttpRequest.newBuilder(URI.create(base + caminho))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return cliente.send(r, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,127 @@
+package org.atividade.benchmarks;
+
+import org.atividade.SistemaCarbono;
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.Proprietario;
+import org.atividade.relatorios.FormatoRelatorio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos quentes do SistemaCarbono com registro pré-carregado.
+ *
+ * Parâmetros:
+ * - tamanhoRegistro: proprietários e lotes já cadastrados
+ * - profundidadeHistorico: vendas já feitas em cada lote usado nas medições
+ * - arvoresPorLote: árvores registradas em cada lote usado nas medições
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SistemaCarbonoBenchmark {
+    private static final int LOTES_MEDIDOS = 64;
+    private static final BigDecimal VALOR = new BigDecimal("1500.00");
+
+    @Param({"1000", "100000"})
+    public int tamanhoRegistro;
+
+    @Param({"0", "1000"})
+    public int profundidadeHistorico;
+
+    @Param({"10", "1000"})
+    public int arvoresPorLote;
+
+    private SistemaCarbono sistema;
+    private UUID[] proprietarios;
+    private UUID[] lotesMedidos;
+    private int[] donoAtual; // índice em proprietarios do dono atual de cada lote medido
+    private long sequencia;
+    private int proximoLote;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        sistema = new SistemaCarbono();
+        proprietarios = new UUID[tamanhoRegistro];
+        for (int i = 0; i < tamanhoRegistro; i++) {
+            Proprietario p = new PessoaFisica("Proprietário " + i, "PF-" + i);
+            sistema.cadastrarProprietario(p);
+            proprietarios[i] = p.getId();
+        }
+
+        for (int i = LOTES_MEDIDOS; i < tamanhoRegistro; i++) {
+            sistema.criarLote("LOTE-" + i);
+        }
+
+        lotesMedidos = new UUID[LOTES_MEDIDOS];
+        donoAtual = new int[LOTES_MEDIDOS];
+        for (int i = 0; i < LOTES_MEDIDOS; i++) {
+            LoteCreditoCarbono lote = sistema.criarLote("MEDIDO-" + i);
+            lotesMedidos[i] = lote.getId();
+            for (int a = 0; a < arvoresPorLote; a++) {
+                sistema.registrarArvore(lote.getId(),
+                        new ArvoreGeradoraCredito("Ipê", -10 + (a % 1000) * 1e-4, -37 + (a / 1000) * 1e-4));
+            }
+            sistema.definirParticipacoesIniciais(lote.getId(), Map.of(proprietarios[0], 1000));
+            for (int v = 0; v < profundidadeHistorico; v++) {
+                vender(i);
+            }
+        }
+
+        sequencia = 0;
+        proximoLote = 0;
+    }
+
+    private void vender(int i) {
+        int vendedor = donoAtual[i];
+        int comprador = (vendedor + 1) % 2;
+        sistema.venderLote(lotesMedidos[i], List.of(proprietarios[vendedor]), proprietarios[comprador], VALOR);
+        donoAtual[i] = comprador;
+    }
+
+    @Benchmark
+    public UUID cadastrarProprietario() {
+        Proprietario p = new PessoaFisica("Novo", "NOVO-" + (sequencia++));
+        sistema.cadastrarProprietario(p);
+        return p.getId();
+    }
+
+    @Benchmark
+    public LoteCreditoCarbono criarLote() {
+        return sistema.criarLote("NOVO-LOTE-" + (sequencia++));
+    }
+
+    @Benchmark
+    public void venderLote() {
+        vender(proximoLote);
+        proximoLote = (proximoLote + 1) % LOTES_MEDIDOS;
+    }
+
+    @Benchmark
+    public List<Proprietario> listarProprietarios() {
+        return sistema.listarProprietarios();
+    }
+
+    @Benchmark
+    public void imprimirRelatorioLote() throws IOException {
+        // Mesmo caminho de imprimirRelatorioLote, sem o custo do console.
+        sistema.escreverRelatorioLote(lotesMedidos[proximoLote], FormatoRelatorio.TEXTO, Writer.nullWriter());
+        proximoLote = (proximoLote + 1) % LOTES_MEDIDOS;
+    }
+}
@@ -2,11 +2,19 @@ package org.atividade;
 
 import org.atividade.entities.*;
 import org.atividade.exceptions.RegraNegocioException;
+import org.atividade.importacao.ImportadorCsv;
+import org.atividade.importacao.ResultadoImportacao;
+import org.atividade.servidor.ServidorCarbono;
+import org.atividade.utilities.StatusLote;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.HashSet;
@@ -107,6 +115,7 @@ public class Main {
         System.out.println("Dados de exemplo já carregados (PF/PJ + 1 lote).");
 
         // ===== LOOP DO MENU =====
+        ServidorCarbono servidor = null;
         while (true) {
             try {
                 printMenu();
@@ -122,7 +131,11 @@ public class Main {
                     case 7 -> definirParticipacoesIniciais(sc, sistema);
                     case 8 -> venderLote(sc, sistema);
                     case 9 -> imprimirRelatorio(sc, sistema);
+                    case 10 -> alterarStatusLote(sc, sistema);
+                    case 11 -> importarCsv(sc, sistema);
+                    case 12 -> servidor = alternarServidor(sc, sistema, servidor);
                     case 0 -> {
+                        if (servidor != null) servidor.close();
                         System.out.println("Saindo... ✅");
                         sc.close();
                         return;
@@ -154,6 +167,9 @@ public class Main {
         System.out.println("7) Definir proprietários iniciais do lote (1..3, soma=1000)");
         System.out.println("8) Vender lote (vendedores = proprietários atuais)");
         System.out.println("9) Imprimir relatório do lote");
+        System.out.println("10) Alterar status do lote (bloquear/desbloquear/cancelar)");
+        System.out.println("11) Importar arquivo CSV (proprietários, lotes ou árvores)");
+        System.out.println("12) Iniciar/parar servidor HTTP");
         System.out.println("0) Sair");
         System.out.println("----------------------------");
     }
@@ -327,6 +343,70 @@ public class Main {
         sistema.imprimirRelatorioLote(idLote);
     }
 
+    private static void alterarStatusLote(Scanner sc, SistemaCarbono sistema) {
+        System.out.println("=== ALTERAR STATUS DO LOTE ===");
+        UUID idLote = escolherLote(sc, sistema);
+
+        StatusLote[] opcoes = StatusLote.values();
+        for (int i = 0; i < opcoes.length; i++) {
+            System.out.println((i + 1) + ") " + opcoes[i]);
+        }
+        int idx = lerInt(sc, "Novo status: ") - 1;
+        if (idx < 0 || idx >= opcoes.length) throw new RegraNegocioException("Status inválido.");
+
+        sistema.alterarStatusLote(idLote, opcoes[idx]);
+        System.out.println("Status alterado para " + opcoes[idx] + ".");
+    }
+
+    private static void importarCsv(Scanner sc, SistemaCarbono sistema) throws IOException {
+        System.out.println("=== IMPORTAR CSV ===");
+        System.out.println("1) Proprietários (tipo,nome,documento)");
+        System.out.println("2) Lotes (codigo)");
+        System.out.println("3) Árvores (codigoLote,especie,latitude,longitude)");
+        int tipo = lerInt(sc, "Tipo de arquivo: ");
+        if (tipo < 1 || tipo > 3) throw new RegraNegocioException("Tipo inválido.");
+
+        Path arquivo = Path.of(lerLinha(sc, "Caminho do arquivo: "));
+        String sep = lerLinha(sc, "Separador (Enter = vírgula): ");
+        ImportadorCsv importador = new ImportadorCsv(sistema, sep.isEmpty() ? ',' : sep.charAt(0),
+                Runtime.getRuntime().availableProcessors());
+
+        ResultadoImportacao r = switch (tipo) {
+            case 1 -> importador.importarProprietarios(arquivo);
+            case 2 -> importador.importarLotes(arquivo);
+            default -> importador.importarArvores(arquivo);
+        };
+
+        System.out.println("Linhas lidas: " + r.getLinhasLidas() + " | Importadas: " + r.getImportadas()
+                + " | Erros: " + r.getTotalErros() + " | Tempo: " + r.getDuracaoMillis() + " ms");
+        r.getErros().stream().limit(20).forEach(e -> System.out.println(" - " + e));
+        if (r.getTotalErros() > 20) System.out.println(" - ...");
+    }
+
+    /**
+     * Inicia o servidor HTTP sobre o mesmo sistema do console ou, se já estiver rodando, para.
+     */
+    private static ServidorCarbono alternarServidor(Scanner sc, SistemaCarbono sistema, ServidorCarbono atual)
+            throws IOException {
+        if (atual != null) {
+            atual.close();
+            System.out.println("Servidor parado. ✅");
+            return null;
+        }
+        System.out.println("=== SERVIDOR HTTP ===");
+        String host = lerLinha(sc, "Endereço (vazio = só esta máquina; 0.0.0.0 = todas as interfaces): ");
+        int porta = lerInt(sc, "Porta (0 = qualquer livre): ");
+        ServidorCarbono servidor = ServidorCarbono.iniciar(sistema,
+                host.isEmpty() ? InetAddress.getLoopbackAddress() : InetAddress.getByName(host), porta,
+                Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+        System.out.println("Servidor ouvindo em http://" + servidor.getHost().getHostAddress() + ":"
+                + servidor.getPorta() + "/ ✅");
+        if (!Boolean.getBoolean("sun.net.httpserver.nodelay")) {
+            System.out.println("⚠️ Sem -Dsun.net.httpserver.nodelay=true cada resposta pode atrasar ~40 ms.");
+        }
+        return servidor;
+    }
+
     // =========================
     // ===== SELETORES =========
     // =========================
@@ -336,7 +416,18 @@ public class Main {
         if (lotes.isEmpty()) throw new RegraNegocioException("Não há lotes cadastrados.");
 
         listarLotes(sistema);
-        int idx = lerInt(sc, "Escolha o número do lote: ") - 1;
+        String escolha = lerLinha(sc, "Escolha o número ou o código do lote: ");
+
+        // Código exato primeiro: lotes com código numérico (ex.: "2024") continuam acessíveis.
+        Optional<LoteCreditoCarbono> porCodigo = sistema.buscarLotePorCodigo(escolha);
+        if (porCodigo.isPresent()) return porCodigo.get().getId();
+
+        int idx;
+        try {
+            idx = Integer.parseInt(escolha) - 1;
+        } catch (NumberFormatException e) {
+            throw new RegraNegocioException("Lote não encontrado: " + escolha);
+        }
 
         if (idx < 0 || idx >= lotes.size()) throw new RegraNegocioException("Lote inválido.");
         return lotes.get(idx).getId();
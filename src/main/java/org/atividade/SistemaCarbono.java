@@ -1,62 +1,703 @@
 package org.atividade;
 
+import org.atividade.armazenamento.ArvoresColunares;
+import org.atividade.armazenamento.DicionarioEspecies;
+import org.atividade.armazenamento.Historico;
+import org.atividade.armazenamento.HistoricoEmMemoria;
+import org.atividade.armazenamento.HistoricoLote;
 import org.atividade.entities.*;
+import org.atividade.eventos.ArvoreRegistrada;
+import org.atividade.eventos.AssinanteEventos;
+import org.atividade.eventos.Assinatura;
+import org.atividade.eventos.LoteCriado;
+import org.atividade.eventos.ParticipacoesDefinidas;
+import org.atividade.eventos.PoliticaBackpressure;
+import org.atividade.eventos.ProprietarioCadastrado;
+import org.atividade.eventos.PublicadorEventos;
+import org.atividade.eventos.StatusLoteAlterado;
+import org.atividade.eventos.VendaEfetivada;
+import org.atividade.exceptions.AlteracoesStatusRejeitadasException;
+import org.atividade.exceptions.JournalInutilizadoException;
 import org.atividade.exceptions.RegraNegocioException;
+import org.atividade.exceptions.VendasRejeitadasException;
+import org.atividade.exceptions.VersaoLoteDesatualizadaException;
+import org.atividade.exportacao.CorteLote;
+import org.atividade.exportacao.ExportadorColunar;
+import org.atividade.exportacao.FonteExportacao;
+import org.atividade.exportacao.ResultadoExportacao;
+import org.atividade.indices.AgregadoTransacoes;
+import org.atividade.indices.ArvoreLocalizada;
+import org.atividade.indices.CarteiraProprietario;
+import org.atividade.indices.FiltroTransacoes;
+import org.atividade.indices.GranularidadeTempo;
+import org.atividade.indices.IndiceEspacial;
+import org.atividade.indices.IndiceOrdenado;
+import org.atividade.indices.IndiceTemporalTransacoes;
+import org.atividade.indices.LinhaDoTempoPropriedade;
+import org.atividade.indices.Pagina;
+import org.atividade.indices.ParticipacoesVersionadas;
+import org.atividade.metricas.Histograma;
+import org.atividade.metricas.InstantaneoMetricas;
+import org.atividade.metricas.MetricasCarbono;
+import org.atividade.metricas.Operacao;
+import org.atividade.persistencia.ArmazenamentoCarbono;
+import org.atividade.persistencia.JournalOperacoes;
+import org.atividade.persistencia.RegistroOperacoes;
+import org.atividade.persistencia.ReprodutorJournal;
+import org.atividade.persistencia.VisitanteEstado;
+import org.atividade.relatorios.FonteRelatorioLote;
+import org.atividade.relatorios.FormatoRelatorio;
+import org.atividade.relatorios.RelatorioLote;
 import org.atividade.utilities.StatusLote;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Núcleo do sistema de créditos de carbono.
+ *
+ * Seguro para uso concorrente: os mapas são concorrentes e todo o estado
+ * por lote (árvores, participações, transações) só é lido ou alterado sob
+ * o lock da listra do lote. Operações em lotes diferentes rodam em paralelo;
+ * operações no mesmo lote são serializadas.
+ *
+ * Persistência opcional: criado com {@link #recuperar(JournalOperacoes)} ou
+ * {@link #recuperar(ArmazenamentoCarbono)}, cada operação que altera o estado é
+ * gravada no journal depois de validada e antes de ser aplicada em memória.
+ *
+ * O histórico de participações e transações fica num {@link Historico}: por
+ * padrão no heap; com um HistoricoMapeado, em arquivos mapeados, e só as
+ * participações atuais (até 3 por lote) continuam como objetos no heap.
+ */
 public final class SistemaCarbono {
-    private final Map<UUID, Proprietario> proprietarios = new HashMap<>();
-    private final Map<UUID, LoteCreditoCarbono> lotes = new HashMap<>();
-    private final Map<UUID, List<ArvoreGeradoraCredito>> arvoresPorLote = new HashMap<>();
+    private static final ParticipacaoLote[] SEM_PARTICIPACOES = new ParticipacaoLote[0];
+    private static final int LISTRAS_LOCK = 64; // potência de 2
+    private static final long QUALQUER_VERSAO = 0; // versões começam em 1
+    private static final int LOTES_MAIOR_HISTORICO = 10; // lotes listados em coletarMetricas
+    private static final int ARVORES_POR_REGISTRO = 10_000; // mantém o registro do journal bem abaixo do limite
+    private static final int ORDENS_POR_BLOCO = 100_000; // um registro do journal; até 143 bytes por venda
+    private static final int LOTES_POR_ALTERACAO_STATUS = 1_000_000; // um registro do journal; 16 bytes por lote
+
+    private final Map<UUID, Proprietario> proprietarios = new ConcurrentHashMap<>();
+    private final Map<UUID, LoteCreditoCarbono> lotes = new ConcurrentHashMap<>();
+    // Árvores em colunas primitivas por lote (ids em long, espécie via dicionário).
+    private final Map<UUID, ArvoresColunares> arvoresPorLote = new ConcurrentHashMap<>();
+    private final DicionarioEspecies especies = new DicionarioEspecies();
+    // Participações e transações de todos os lotes; os índices abaixo guardam referências para ele.
+    private final Historico historico;
     // Copropriedade simultânea (até 3). Histórico via dataFim.
-    private final Map<UUID, List<ParticipacaoLote>> participacoesPorLote = new HashMap<>();
-    private final Map<UUID, List<TransacaoCompraVenda>> transacoesPorLote = new HashMap<>();
+    private final Map<UUID, HistoricoLote<ParticipacaoLote>> participacoesPorLote = new ConcurrentHashMap<>();
+    // Visão materializada das participações ativas (no máximo 3 por lote).
+    // O array é substituído por inteiro a cada alteração, nunca modificado no lugar.
+    private final Map<UUID, ParticipacaoLote[]> participacoesAtuaisPorLote = new ConcurrentHashMap<>();
+    private final Map<UUID, HistoricoLote<TransacaoCompraVenda>> transacoesPorLote = new ConcurrentHashMap<>();
+    // Gerações de proprietários de cada lote, para consultas "quem era dono em T".
+    private final Map<UUID, LinhaDoTempoPropriedade> propriedadePorLote = new ConcurrentHashMap<>();
+    // Nº de alterações aplicadas em cada lote (criação, árvores, participações, vendas).
+    private final Map<UUID, AtomicLong> sequenciaPorLote = new ConcurrentHashMap<>();
+    private final PublicadorEventos eventos = new PublicadorEventos();
+    private final MetricasCarbono metricas = new MetricasCarbono();
+    // Índice secundário: documento normalizado (CPF/CNPJ) -> proprietário.
+    private final Map<String, Proprietario> proprietariosPorDocumento = new ConcurrentHashMap<>();
+    // Índice secundário: código do lote (sem diferenciar maiúsculas) -> lote.
+    private final Map<String, LoteCreditoCarbono> lotesPorCodigo = new ConcurrentHashMap<>();
+    // Listagens ordenadas mantidas na inserção (nome do proprietário, código do lote).
+    private final IndiceOrdenado<Proprietario> proprietariosPorNome = new IndiceOrdenado<>(Proprietario::getNome);
+    private final IndiceOrdenado<LoteCreditoCarbono> lotesOrdenados = new IndiceOrdenado<>(LoteCreditoCarbono::getCodigoLote);
+    // Lotes de cada status, por código (só lido depois de montado).
+    private final Map<StatusLote, IndiceOrdenado<LoteCreditoCarbono>> lotesPorStatus = criarIndicesStatus();
+    // Índice por proprietário: participações atuais, total de créditos e histórico.
+    private final Map<UUID, CarteiraProprietario> carteiras = new ConcurrentHashMap<>();
+    // Todas as transações, de todos os lotes, por data.
+    private final IndiceTemporalTransacoes transacoesPorData;
+    // Índice espacial (grade lat/lon) sobre todas as árvores, para rastreabilidade por área.
+    private final IndiceEspacial indiceEspacial =
+            new IndiceEspacial((idLote, posicao) -> arvoresPorLote.get(idLote).get(posicao));
+
+    private final ReentrantLock[] locksLote = new ReentrantLock[LISTRAS_LOCK];
+    private final RegistroOperacoes journal; // null = somente memória
+
+    public SistemaCarbono() {
+        this(null, new HistoricoEmMemoria());
+    }
+
+    /**
+     * Sistema em memória com o histórico no depósito informado (vazio), por
+     * exemplo um HistoricoMapeado. O depósito continua pertencendo ao
+     * chamador (que deve fechá-lo depois de parar de usar o sistema).
+     */
+    public SistemaCarbono(Historico historico) {
+        this(null, Objects.requireNonNull(historico));
+    }
+
+    private SistemaCarbono(RegistroOperacoes journal, Historico historico) {
+        this.journal = journal;
+        this.historico = historico;
+        this.transacoesPorData = new IndiceTemporalTransacoes(historico::transacao);
+        for (int i = 0; i < LISTRAS_LOCK; i++) {
+            locksLote[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Reconstrói o estado reproduzindo o journal e passa a gravar nele as
+     * próximas operações. O journal continua pertencendo ao chamador (que deve fechá-lo).
+     */
+    public static SistemaCarbono recuperar(JournalOperacoes journal) throws IOException {
+        return recuperar(journal, new HistoricoEmMemoria());
+    }
+
+    /**
+     * Como {@link #recuperar(JournalOperacoes)}, com o histórico no depósito
+     * informado (vazio), que também continua pertencendo ao chamador.
+     */
+    public static SistemaCarbono recuperar(JournalOperacoes journal, Historico historico) throws IOException {
+        SistemaCarbono sistema = new SistemaCarbono(Objects.requireNonNull(journal), Objects.requireNonNull(historico));
+        journal.reproduzir(sistema.new Reprodutor());
+        return sistema;
+    }
+
+    /**
+     * Reconstrói o estado a partir do snapshot mais recente do diretório e dos
+     * segmentos de journal posteriores a ele. O armazenamento continua
+     * pertencendo ao chamador (que deve fechá-lo).
+     */
+    public static SistemaCarbono recuperar(ArmazenamentoCarbono armazenamento) throws IOException {
+        return recuperar(armazenamento, new HistoricoEmMemoria());
+    }
+
+    /**
+     * Como {@link #recuperar(ArmazenamentoCarbono)}, com o histórico no
+     * depósito informado (vazio), que também continua pertencendo ao chamador.
+     */
+    public static SistemaCarbono recuperar(ArmazenamentoCarbono armazenamento, Historico historico) throws IOException {
+        SistemaCarbono sistema = new SistemaCarbono(Objects.requireNonNull(armazenamento), Objects.requireNonNull(historico));
+        armazenamento.recuperar(sistema.new Reprodutor());
+        return sistema;
+    }
+
+    /**
+     * Gera um snapshot e apaga os segmentos de journal cobertos por ele.
+     * O snapshot é montado a partir dos arquivos já fechados, numa cópia
+     * separada do estado, então as operações continuam durante a compactação
+     * (ao custo de memória temporária para essa cópia; o histórico dela vai
+     * para um depósito temporário do mesmo tipo, descartado no fim).
+     *
+     * @return sequência do snapshot gerado
+     */
+    public synchronized long compactarJournal() throws IOException {
+        if (!(journal instanceof ArmazenamentoCarbono armazenamento)) {
+            throw new IllegalStateException("Compactação exige um ArmazenamentoCarbono (snapshot + journal segmentado).");
+        }
+
+        long sequencia = armazenamento.rotacionar();
+        try (Historico temporario = historico.temporario()) {
+            SistemaCarbono copia = new SistemaCarbono(null, temporario);
+            armazenamento.reproduzirAte(sequencia, copia.new Reprodutor());
+            armazenamento.gravarSnapshot(sequencia, copia::exportarEstado);
+        }
+        armazenamento.removerAnteriores(sequencia);
+        return sequencia;
+    }
+
+    /**
+     * Percorre todo o estado: primeiro os proprietários, depois cada lote com
+     * suas árvores e históricos. Cada lote é visitado sob o seu lock, então é
+     * consistente individualmente; lotes diferentes podem refletir instantes diferentes.
+     */
+    public void exportarEstado(VisitanteEstado visitante) {
+        for (Proprietario p : proprietarios.values()) {
+            visitante.proprietario(p);
+        }
+        for (LoteCreditoCarbono lote : lotes.values()) {
+            UUID idLote = lote.getId();
+            ReentrantLock lock = lockDoLote(idLote);
+            lock.lock();
+            try {
+                visitante.lote(lote,
+                        sequenciaPorLote.get(idLote).get(),
+                        Collections.unmodifiableList(arvoresPorLote.get(idLote)),
+                        Collections.unmodifiableList(participacoesPorLote.get(idLote)),
+                        Collections.unmodifiableList(transacoesPorLote.get(idLote)));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Exporta o estado para arquivos colunares em diretorio (ver ExportadorColunar),
+     * substituindo exportações anteriores.
+     *
+     * O corte é tirado com todas as listras travadas, mas só pelo tempo de
+     * anotar o tamanho dos históricos de cada lote; a gravação roda depois,
+     * com as operações liberadas, e lê só os itens que existiam no corte.
+     * Diferente de exportarEstado, o resultado é consistente entre lotes.
+     */
+    public ResultadoExportacao exportarColunar(Path diretorio) throws IOException {
+        Objects.requireNonNull(diretorio);
+
+        List<ReentrantLock> locks = travarTodos();
+        List<Proprietario> corteProprietarios;
+        List<CorteLote> corteLotes = new ArrayList<>(lotes.size());
+        try {
+            // Lotes só entram em "lotes" sob o lock: com todas as listras, o conjunto está parado.
+            for (LoteCreditoCarbono lote : lotesOrdenados.listar()) {
+                UUID id = lote.getId();
+                Set<UUID> atuais = new HashSet<>();
+                for (ParticipacaoLote p : participacoesAtuaisPorLote.get(id)) atuais.add(p.getId());
+                corteLotes.add(new CorteLote(lote, lote.getStatus(), sequenciaPorLote.get(id).get(),
+                        arvoresPorLote.get(id).size(), participacoesPorLote.get(id).size(),
+                        transacoesPorLote.get(id).size(), atuais));
+            }
+            // Proprietários referenciados pelo corte já estão no mapa; novos depois dele não fazem mal.
+            corteProprietarios = proprietariosPorNome.listar();
+        } finally {
+            destravar(locks);
+        }
+
+        return ExportadorColunar.exportar(new FonteCorte(corteProprietarios, corteLotes), diretorio);
+    }
+
+    /**
+     * Lê do estado vivo só o prefixo de cada histórico que existia no corte
+     * (os históricos são append-only): as árvores são copiadas sob o lock do
+     * lote; participações e transações usam o prefixo de HistoricoLote, sem cópia.
+     */
+    private final class FonteCorte implements FonteExportacao {
+        private final List<Proprietario> proprietarios;
+        private final List<CorteLote> lotes;
+
+        FonteCorte(List<Proprietario> proprietarios, List<CorteLote> lotes) {
+            this.proprietarios = proprietarios;
+            this.lotes = lotes;
+        }
+
+        @Override
+        public List<Proprietario> proprietarios() {
+            return proprietarios;
+        }
+
+        @Override
+        public List<CorteLote> lotes() {
+            return lotes;
+        }
+
+        @Override
+        public List<ArvoreGeradoraCredito> arvores(CorteLote corte) {
+            UUID id = corte.getLote().getId();
+            ReentrantLock lock = lockDoLote(id);
+            lock.lock();
+            try {
+                return new ArrayList<>(arvoresPorLote.get(id).subList(0, corte.getArvores()));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public List<ParticipacaoLote> participacoes(CorteLote corte) {
+            return participacoesPorLote.get(corte.getLote().getId()).prefixo(corte.getParticipacoes());
+        }
+
+        @Override
+        public List<TransacaoCompraVenda> transacoes(CorteLote corte) {
+            return transacoesPorLote.get(corte.getLote().getId()).prefixo(corte.getTransacoes());
+        }
+    }
 
     public void cadastrarProprietario(Proprietario p) {
-        Objects.requireNonNull(p);
+        long inicio = System.nanoTime();
+        try {
+            cadastrar(p);
+            metricas.concluida(Operacao.CADASTRAR_PROPRIETARIO, inicio);
+        } catch (RegraNegocioException | IllegalArgumentException e) {
+            metricas.rejeitada(Operacao.CADASTRAR_PROPRIETARIO, inicio, e);
+            throw e;
+        }
+    }
 
-        boolean docDuplicado = proprietarios.values().stream()
-                .anyMatch(x -> x.getDocumento().equalsIgnoreCase(p.getDocumento()));
+    private void cadastrar(Proprietario p) {
+        Objects.requireNonNull(p);
 
-        if (docDuplicado) {
+        String chave = Proprietario.normalizarDocumento(p.getDocumento());
+        if (chave.isEmpty()) {
+            // Só pontuação ("---", "./."): todos virariam a mesma chave vazia.
+            throw new RegraNegocioException("Documento sem letras ou dígitos: " + p.getDocumento());
+        }
+        if (proprietariosPorDocumento.putIfAbsent(chave, p) != null) {
             throw new RegraNegocioException("Já existe proprietário com este documento: " + p.getDocumento());
         }
 
+        if (journal != null) {
+            try {
+                journal.registrarProprietario(p);
+            } catch (JournalInutilizadoException e) {
+                throw e; // o registro pode voltar na recuperação: o documento continua reservado
+            } catch (RuntimeException e) {
+                proprietariosPorDocumento.remove(chave, p);
+                throw e;
+            }
+        }
+
         proprietarios.put(p.getId(), p);
+        proprietariosPorNome.adicionar(p);
+        if (eventos.temAssinantes()) eventos.publicar(new ProprietarioCadastrado(p));
+    }
+
+    /**
+     * Busca um proprietário pelo CPF/CNPJ, ignorando pontuação e caixa
+     * ("123.456.789-00" e "12345678900" são o mesmo documento).
+     */
+    public Optional<Proprietario> buscarProprietarioPorDocumento(String documento) {
+        if (documento == null || documento.isBlank()) return Optional.empty();
+        return Optional.ofNullable(proprietariosPorDocumento.get(Proprietario.normalizarDocumento(documento)));
     }
 
     public LoteCreditoCarbono criarLote(String codigoLote) {
-        boolean codigoDuplicado = lotes.values().stream()
-                .anyMatch(l -> l.getCodigoLote().equalsIgnoreCase(codigoLote));
+        long inicio = System.nanoTime();
+        try {
+            LoteCreditoCarbono lote = criar(codigoLote);
+            metricas.concluida(Operacao.CRIAR_LOTE, inicio);
+            return lote;
+        } catch (RegraNegocioException | IllegalArgumentException e) {
+            metricas.rejeitada(Operacao.CRIAR_LOTE, inicio, e);
+            throw e;
+        }
+    }
+
+    private LoteCreditoCarbono criar(String codigoLote) {
+        LoteCreditoCarbono lote = new LoteCreditoCarbono(codigoLote);
 
-        if (codigoDuplicado) {
+        String chave = chaveCodigoLote(lote.getCodigoLote());
+        if (lotesPorCodigo.putIfAbsent(chave, lote) != null) {
             throw new RegraNegocioException("Já existe lote com código: " + codigoLote);
         }
 
-        LoteCreditoCarbono lote = new LoteCreditoCarbono(codigoLote);
+        if (journal != null) {
+            try {
+                journal.registrarLote(lote);
+            } catch (JournalInutilizadoException e) {
+                throw e; // o registro pode voltar na recuperação: o código continua reservado
+            } catch (RuntimeException e) {
+                lotesPorCodigo.remove(chave, lote);
+                throw e;
+            }
+        }
+
+        // Com o lock, nenhum evento do lote novo sai antes do LoteCriado.
+        ReentrantLock lock = lockDoLote(lote.getId());
+        lock.lock();
+        try {
+            long seq = aplicarLote(lote);
+            if (eventos.temAssinantes()) eventos.enfileirar(new LoteCriado(lote, seq));
+        } finally {
+            lock.unlock();
+            eventos.distribuir();
+        }
+        return lote;
+    }
+
+    private long aplicarLote(LoteCreditoCarbono lote) {
+        // Estruturas por lote são criadas antes de o lote ficar visível em "lotes".
+        arvoresPorLote.put(lote.getId(), new ArvoresColunares(especies));
+        participacoesPorLote.put(lote.getId(), new HistoricoLote<>(historico::participacao));
+        participacoesAtuaisPorLote.put(lote.getId(), SEM_PARTICIPACOES);
+        transacoesPorLote.put(lote.getId(), new HistoricoLote<>(historico::transacao));
+        propriedadePorLote.put(lote.getId(), new LinhaDoTempoPropriedade(historico::participacao));
+        sequenciaPorLote.put(lote.getId(), new AtomicLong(1));
+
         lotes.put(lote.getId(), lote);
+        lotesOrdenados.adicionar(lote);
+        lotesPorStatus.get(lote.getStatus()).adicionar(lote);
+        return 1;
+    }
 
-        arvoresPorLote.put(lote.getId(), new ArrayList<>());
-        participacoesPorLote.put(lote.getId(), new ArrayList<>());
-        transacoesPorLote.put(lote.getId(), new ArrayList<>());
+    private static Map<StatusLote, IndiceOrdenado<LoteCreditoCarbono>> criarIndicesStatus() {
+        Map<StatusLote, IndiceOrdenado<LoteCreditoCarbono>> indices = new EnumMap<>(StatusLote.class);
+        for (StatusLote s : StatusLote.values()) {
+            indices.put(s, new IndiceOrdenado<>(LoteCreditoCarbono::getCodigoLote));
+        }
+        return indices;
+    }
 
-        return lote;
+    /**
+     * Muda o status de um lote.
+     * Regras (ver StatusLote.podeMudarPara):
+     * - DISPONIVEL e BLOQUEADO alternam entre si
+     * - ambos podem ir para CANCELADO, que é definitivo
+     * - pedir o status atual não faz nada
+     */
+    public void alterarStatusLote(UUID idLote, StatusLote novoStatus) {
+        long inicio = System.nanoTime();
+        try {
+            alterarStatus(idLote, novoStatus);
+            metricas.concluida(Operacao.ALTERAR_STATUS, inicio);
+        } catch (RegraNegocioException | IllegalArgumentException e) {
+            metricas.rejeitada(Operacao.ALTERAR_STATUS, inicio, e);
+            throw e;
+        }
+    }
+
+    private void alterarStatus(UUID idLote, StatusLote novoStatus) {
+        LoteCreditoCarbono lote = getLoteOrThrow(idLote);
+        Objects.requireNonNull(novoStatus, "novoStatus");
+
+        ReentrantLock lock = lockDoLote(idLote);
+        lock.lock();
+        try {
+            if (lote.getStatus() == novoStatus) return;
+            validarTransicao(lote, novoStatus);
+
+            if (journal != null) journal.registrarStatus(List.of(idLote), novoStatus);
+            aplicarStatusPublicando(lote, novoStatus);
+        } finally {
+            lock.unlock();
+            eventos.distribuir();
+        }
+    }
+
+    /**
+     * Muda o status de vários lotes de uma vez, tudo ou nada: todas as
+     * transições são validadas antes de qualquer alteração e, havendo
+     * erros, todos são reportados em AlteracoesStatusRejeitadasException.
+     * Lotes que já estão no status pedido são ignorados. No máximo
+     * LOTES_POR_ALTERACAO_STATUS lotes por chamada, já que a alteração vai
+     * para o journal como um único registro.
+     *
+     * @return quantidade de lotes que mudaram de status
+     */
+    public int alterarStatusLotes(Collection<UUID> idsLotes, StatusLote novoStatus) {
+        long inicio = System.nanoTime();
+        try {
+            int alterados = alterarStatusEmBloco(idsLotes, novoStatus);
+            metricas.concluida(Operacao.ALTERAR_STATUS, inicio);
+            return alterados;
+        } catch (RegraNegocioException | IllegalArgumentException e) {
+            metricas.rejeitada(Operacao.ALTERAR_STATUS, inicio, e);
+            throw e;
+        }
+    }
+
+    private int alterarStatusEmBloco(Collection<UUID> idsLotes, StatusLote novoStatus) {
+        Objects.requireNonNull(novoStatus, "novoStatus");
+        if (idsLotes == null || idsLotes.isEmpty()) {
+            throw new RegraNegocioException("Informe ao menos 1 lote.");
+        }
+
+        Set<UUID> ids = new LinkedHashSet<>(idsLotes);
+        if (ids.size() > LOTES_POR_ALTERACAO_STATUS) {
+            throw new RegraNegocioException("No máximo " + LOTES_POR_ALTERACAO_STATUS
+                    + " lotes por alteração de status (informados: " + ids.size() + ").");
+        }
+        List<ReentrantLock> locks = travarLotes(ids);
+        try {
+            Map<UUID, RegraNegocioException> erros = new LinkedHashMap<>();
+            List<LoteCreditoCarbono> alterar = new ArrayList<>(ids.size());
+            for (UUID id : ids) {
+                try {
+                    LoteCreditoCarbono lote = getLoteOrThrow(id);
+                    if (lote.getStatus() == novoStatus) continue;
+                    validarTransicao(lote, novoStatus);
+                    alterar.add(lote);
+                } catch (RegraNegocioException ex) {
+                    erros.put(id, ex);
+                }
+            }
+
+            if (!erros.isEmpty()) {
+                throw new AlteracoesStatusRejeitadasException(erros);
+            }
+            if (alterar.isEmpty()) return 0;
+
+            if (journal != null) {
+                List<UUID> idsAlterados = new ArrayList<>(alterar.size());
+                for (LoteCreditoCarbono lote : alterar) idsAlterados.add(lote.getId());
+                journal.registrarStatus(idsAlterados, novoStatus);
+            }
+            for (LoteCreditoCarbono lote : alterar) {
+                aplicarStatusPublicando(lote, novoStatus);
+            }
+            return alterar.size();
+        } finally {
+            destravar(locks);
+            eventos.distribuir();
+        }
+    }
+
+    private static void validarTransicao(LoteCreditoCarbono lote, StatusLote novoStatus) {
+        if (!lote.getStatus().podeMudarPara(novoStatus)) {
+            throw new RegraNegocioException("Transição de status inválida: lote " + lote.getCodigoLote()
+                    + ", " + lote.getStatus() + " -> " + novoStatus + ".");
+        }
+    }
+
+    private void aplicarStatusPublicando(LoteCreditoCarbono lote, StatusLote novoStatus) {
+        StatusLote anterior = lote.getStatus();
+        long seq = aplicarStatus(lote, novoStatus);
+        if (eventos.temAssinantes()) {
+            eventos.enfileirar(new StatusLoteAlterado(lote.getId(), seq, anterior, novoStatus));
+        }
+    }
+
+    /**
+     * Deve ser chamada com o lock do lote. O lote entra no índice do novo
+     * status antes de sair do anterior (nunca fica fora de ambos).
+     */
+    private long aplicarStatus(LoteCreditoCarbono lote, StatusLote novoStatus) {
+        StatusLote anterior = lote.getStatus();
+        lote.setStatus(novoStatus);
+        lotesPorStatus.get(novoStatus).adicionar(lote);
+        lotesPorStatus.get(anterior).remover(lote);
+        return sequenciaPorLote.get(lote.getId()).incrementAndGet();
+    }
+
+    /**
+     * Lotes com o status informado, em ordem de código.
+     */
+    public List<LoteCreditoCarbono> listarLotesPorStatus(StatusLote status) {
+        return lotesPorStatus.get(Objects.requireNonNull(status)).listar();
+    }
+
+    /**
+     * Lotes com o status informado, uma página por vez (em ordem de código).
+     *
+     * @param depoisDe cursor devolvido pela página anterior (null para a primeira)
+     */
+    public Pagina<LoteCreditoCarbono> listarLotesPorStatus(StatusLote status, UUID depoisDe, int limite) {
+        return lotesPorStatus.get(Objects.requireNonNull(status)).pagina(depoisDe, limite);
+    }
+
+    public int contarLotesPorStatus(StatusLote status) {
+        return lotesPorStatus.get(Objects.requireNonNull(status)).tamanho();
     }
 
     public void registrarArvore(UUID idLote, ArvoreGeradoraCredito arvore) {
+        long inicio = System.nanoTime();
+        try {
+            registrar(idLote, arvore);
+            metricas.concluida(Operacao.REGISTRAR_ARVORE, inicio);
+        } catch (RegraNegocioException | IllegalArgumentException e) {
+            metricas.rejeitada(Operacao.REGISTRAR_ARVORE, inicio, e);
+            throw e;
+        }
+    }
+
+    private void registrar(UUID idLote, ArvoreGeradoraCredito arvore) {
         LoteCreditoCarbono lote = getLoteOrThrow(idLote);
         Objects.requireNonNull(arvore);
 
-        if (lote.getStatus() != StatusLote.DISPONIVEL) {
-            throw new RegraNegocioException("Não é possível registrar árvore em lote com status " + lote.getStatus());
+        ReentrantLock lock = lockDoLote(idLote);
+        lock.lock();
+        try {
+            if (lote.getStatus() != StatusLote.DISPONIVEL) {
+                throw new RegraNegocioException("Não é possível registrar árvore em lote com status " + lote.getStatus());
+            }
+
+            if (journal != null) journal.registrarArvore(idLote, arvore);
+            long seq = aplicarArvore(idLote, arvore);
+            if (eventos.temAssinantes()) eventos.enfileirar(new ArvoreRegistrada(idLote, seq, arvore));
+        } finally {
+            lock.unlock();
+            eventos.distribuir();
+        }
+    }
+
+    /**
+     * Registra várias árvores no mesmo lote com um único lock e poucos
+     * registros no journal (um a cada ARVORES_POR_REGISTRO). Mesmas regras de
+     * registrarArvore; a validação é feita antes de qualquer gravação.
+     */
+    public void registrarArvores(UUID idLote, List<ArvoreGeradoraCredito> arvores) {
+        long inicio = System.nanoTime();
+        try {
+            registrarEmBloco(idLote, arvores);
+            metricas.concluida(Operacao.REGISTRAR_ARVORES, inicio);
+        } catch (RegraNegocioException | IllegalArgumentException e) {
+            metricas.rejeitada(Operacao.REGISTRAR_ARVORES, inicio, e);
+            throw e;
+        }
+    }
+
+    private void registrarEmBloco(UUID idLote, List<ArvoreGeradoraCredito> arvores) {
+        LoteCreditoCarbono lote = getLoteOrThrow(idLote);
+        Objects.requireNonNull(arvores);
+        for (ArvoreGeradoraCredito a : arvores) Objects.requireNonNull(a);
+        if (arvores.isEmpty()) return;
+
+        ReentrantLock lock = lockDoLote(idLote);
+        lock.lock();
+        try {
+            if (lote.getStatus() != StatusLote.DISPONIVEL) {
+                throw new RegraNegocioException("Não é possível registrar árvore em lote com status " + lote.getStatus());
+            }
+
+            boolean publicar = eventos.temAssinantes();
+            for (int inicio = 0; inicio < arvores.size(); inicio += ARVORES_POR_REGISTRO) {
+                List<ArvoreGeradoraCredito> parte = arvores.subList(inicio, Math.min(arvores.size(), inicio + ARVORES_POR_REGISTRO));
+                if (journal != null) journal.registrarArvores(idLote, parte);
+                for (ArvoreGeradoraCredito a : parte) {
+                    long seq = aplicarArvore(idLote, a);
+                    if (publicar) eventos.enfileirar(new ArvoreRegistrada(idLote, seq, a));
+                }
+            }
+        } finally {
+            lock.unlock();
+            eventos.distribuir();
         }
+    }
+
+    private long aplicarArvore(UUID idLote, ArvoreGeradoraCredito arvore) {
+        int posicao = arvoresPorLote.get(idLote).adicionar(arvore);
+        indiceEspacial.adicionar(idLote, posicao, arvore.getLatitude(), arvore.getLongitude());
+        return sequenciaPorLote.get(idLote).incrementAndGet();
+    }
+
+    /**
+     * Árvores dentro do retângulo informado (limites inclusivos), com o lote de cada uma.
+     * Se lonMin &gt; lonMax a área atravessa o antimeridiano.
+     */
+    public List<ArvoreLocalizada> buscarArvoresNaArea(double latMin, double latMax, double lonMin, double lonMax) {
+        return indiceEspacial.buscarNaCaixa(latMin, latMax, lonMin, lonMax);
+    }
+
+    /**
+     * Árvores a no máximo raioKm do ponto, com o lote de cada uma.
+     */
+    public List<ArvoreLocalizada> buscarArvoresNoRaio(double latitude, double longitude, double raioKm) {
+        return indiceEspacial.buscarNoRaio(latitude, longitude, raioKm);
+    }
 
-        arvoresPorLote.get(idLote).add(arvore);
+    /**
+     * Árvores dentro do polígono (vértices em ordem), com o lote de cada uma.
+     */
+    public List<ArvoreLocalizada> buscarArvoresNoPoligono(double[] latitudes, double[] longitudes) {
+        return indiceEspacial.buscarNoPoligono(latitudes, longitudes);
+    }
+
+    /**
+     * Lotes distintos que contêm as árvores informadas (ex.: resultado de uma busca espacial).
+     */
+    public List<LoteCreditoCarbono> lotesDasArvores(Collection<ArvoreLocalizada> arvores) {
+        Map<UUID, LoteCreditoCarbono> resultado = new LinkedHashMap<>();
+        for (ArvoreLocalizada a : arvores) {
+            resultado.computeIfAbsent(a.getIdLote(), lotes::get);
+        }
+        return List.copyOf(resultado.values());
     }
 
     /**
@@ -68,6 +709,17 @@ public final class SistemaCarbono {
      * - só pode ser feito se não houver participações atuais ainda
      */
     public void definirParticipacoesIniciais(UUID idLote, Map<UUID, Integer> proprietarioParaCreditos) {
+        long inicio = System.nanoTime();
+        try {
+            definirParticipacoes(idLote, proprietarioParaCreditos);
+            metricas.concluida(Operacao.DEFINIR_PARTICIPACOES, inicio);
+        } catch (RegraNegocioException | IllegalArgumentException e) {
+            metricas.rejeitada(Operacao.DEFINIR_PARTICIPACOES, inicio, e);
+            throw e;
+        }
+    }
+
+    private void definirParticipacoes(UUID idLote, Map<UUID, Integer> proprietarioParaCreditos) {
         getLoteOrThrow(idLote);
 
         if (proprietarioParaCreditos == null || proprietarioParaCreditos.isEmpty()) {
@@ -76,9 +728,6 @@ public final class SistemaCarbono {
         if (proprietarioParaCreditos.size() > 3) {
             throw new RegraNegocioException("No máximo 3 proprietários simultâneos.");
         }
-        if (!getParticipacoesAtuais(idLote).isEmpty()) {
-            throw new RegraNegocioException("O lote já possui proprietários atuais definidos.");
-        }
 
         int soma = 0;
         for (Map.Entry<UUID, Integer> e : proprietarioParaCreditos.entrySet()) {
@@ -96,13 +745,57 @@ public final class SistemaCarbono {
             throw new RegraNegocioException("A soma das participações deve ser exatamente 1000. Soma atual = " + soma);
         }
 
-        LocalDateTime agora = LocalDateTime.now();
-        List<ParticipacaoLote> lista = participacoesPorLote.get(idLote);
-        for (Map.Entry<UUID, Integer> e : proprietarioParaCreditos.entrySet()) {
-            lista.add(new ParticipacaoLote(idLote, e.getKey(), e.getValue(), agora));
+        ReentrantLock lock = lockDoLote(idLote);
+        lock.lock();
+        try {
+            if (!getParticipacoesAtuais(idLote).isEmpty()) {
+                throw new RegraNegocioException("O lote já possui proprietários atuais definidos.");
+            }
+
+            LocalDateTime agora = LocalDateTime.now();
+            ParticipacaoLote[] novasAtuais = new ParticipacaoLote[proprietarioParaCreditos.size()];
+            int i = 0;
+            for (Map.Entry<UUID, Integer> e : proprietarioParaCreditos.entrySet()) {
+                novasAtuais[i++] = new ParticipacaoLote(idLote, e.getKey(), e.getValue(), agora);
+            }
+
+            if (journal != null) journal.registrarParticipacoes(idLote, Arrays.asList(novasAtuais));
+            long seq = aplicarParticipacoesIniciais(idLote, novasAtuais);
+            if (eventos.temAssinantes()) {
+                eventos.enfileirar(new ParticipacoesDefinidas(idLote, seq, Arrays.asList(novasAtuais)));
+            }
+        } finally {
+            lock.unlock();
+            eventos.distribuir();
         }
     }
 
+    private long aplicarParticipacoesIniciais(UUID idLote, ParticipacaoLote[] novasAtuais) {
+        int[] referencias = new int[novasAtuais.length];
+        for (int i = 0; i < novasAtuais.length; i++) {
+            referencias[i] = guardarParticipacao(novasAtuais[i]);
+        }
+        participacoesAtuaisPorLote.put(idLote, novasAtuais);
+        propriedadePorLote.get(idLote).adicionar(novasAtuais[0].getInicioMicros(), referencias);
+        return sequenciaPorLote.get(idLote).incrementAndGet();
+    }
+
+    /**
+     * Insere a participação no Historico, no histórico do lote e na carteira do proprietário.
+     */
+    private int guardarParticipacao(ParticipacaoLote p) {
+        int referencia = historico.adicionarParticipacao(p);
+        participacoesPorLote.get(p.getIdLote()).adicionar(referencia);
+        carteira(p.getIdProprietario()).adicionar(p, referencia);
+        return referencia;
+    }
+
+    private void guardarTransacao(TransacaoCompraVenda t) {
+        int referencia = historico.adicionarTransacao(t);
+        transacoesPorLote.get(t.getIdLote()).adicionar(referencia);
+        transacoesPorData.adicionar(t, referencia);
+    }
+
     /**
      * Venda do lote inteiro (1000 créditos).
      * Regras:
@@ -111,12 +804,230 @@ public final class SistemaCarbono {
      * - após venda: encerra participações atuais e cria 1 participação nova (comprador = 1000)
      */
     public void venderLote(UUID idLote, List<UUID> idsVendedores, UUID idComprador, BigDecimal valor) {
+        vender(idLote, QUALQUER_VERSAO, idsVendedores, idComprador, valor);
+    }
+
+    /**
+     * Venda condicionada à versão do lote (ver getSequenciaLote e
+     * listarParticipacoesAtuaisVersionadas): só é efetivada se nenhuma outra
+     * alteração foi aplicada ao lote desde a leitura. Uma versão já superada
+     * é rejeitada sem esperar o lock do lote.
+     *
+     * @return nova versão do lote
+     * @throws VersaoLoteDesatualizadaException se o lote está noutra versão
+     */
+    public long venderLote(UUID idLote, long versaoEsperada, List<UUID> idsVendedores, UUID idComprador, BigDecimal valor) {
+        if (versaoEsperada <= 0) {
+            throw new IllegalArgumentException("Versão esperada inválida: " + versaoEsperada);
+        }
+        return vender(idLote, versaoEsperada, idsVendedores, idComprador, valor);
+    }
+
+    private long vender(UUID idLote, long versaoEsperada, List<UUID> idsVendedores, UUID idComprador, BigDecimal valor) {
+        long inicio = System.nanoTime();
+        try {
+            long versao = venderSeNaVersao(idLote, versaoEsperada, idsVendedores, idComprador, valor);
+            metricas.concluida(Operacao.VENDER_LOTE, inicio);
+            return versao;
+        } catch (RegraNegocioException | IllegalArgumentException e) {
+            metricas.rejeitada(Operacao.VENDER_LOTE, inicio, e);
+            throw e;
+        }
+    }
+
+    private long venderSeNaVersao(UUID idLote, long versaoEsperada, List<UUID> idsVendedores, UUID idComprador,
+                                  BigDecimal valor) {
         LoteCreditoCarbono lote = getLoteOrThrow(idLote);
+        validarPartesVenda(idsVendedores, idComprador);
+        TransacaoCompraVenda.centavos(valor); // valida antes do lock
 
-        if (lote.getStatus() != StatusLote.DISPONIVEL) {
-            throw new RegraNegocioException("Lote não está disponível para venda (status=" + lote.getStatus() + ").");
+        AtomicLong versao = sequenciaPorLote.get(idLote);
+        exigirVersao(idLote, versaoEsperada, versao);
+
+        // Verificação e troca dos proprietários atuais são atômicas por lote:
+        // duas vendas concorrentes do mesmo lote não podem ambas passar na checagem.
+        ReentrantLock lock = lockDoLote(idLote);
+        lock.lock();
+        try {
+            exigirVersao(idLote, versaoEsperada, versao);
+            List<ParticipacaoLote> atuais = getParticipacoesAtuais(idLote);
+            Set<UUID> setInformados = validarVendaContraAtuais(lote, atuais, idsVendedores, idComprador);
+
+            LocalDateTime agora = LocalDateTime.now();
+
+            TransacaoCompraVenda t = new TransacaoCompraVenda(
+                    idLote, new ArrayList<>(setInformados), idComprador, valor, agora
+            );
+            ParticipacaoLote nova = new ParticipacaoLote(idLote, idComprador, 1000, agora);
+
+            if (journal != null) journal.registrarVendas(List.of(t), List.of(nova));
+            long seq = aplicarVenda(t, atuais, nova);
+            if (eventos.temAssinantes()) eventos.enfileirar(new VendaEfetivada(seq, t, atuais, nova));
+            return seq;
+        } finally {
+            lock.unlock();
+            eventos.distribuir();
+        }
+    }
+
+    private static void exigirVersao(UUID idLote, long versaoEsperada, AtomicLong versao) {
+        if (versaoEsperada == QUALQUER_VERSAO) return;
+        long atual = versao.get();
+        if (atual != versaoEsperada) {
+            throw new VersaoLoteDesatualizadaException(idLote, versaoEsperada, atual);
+        }
+    }
+
+    /**
+     * Liquidação em bloco: aplica várias vendas de uma vez, tudo ou nada.
+     * Regras:
+     * - cada ordem segue as mesmas regras de venderLote
+     * - ordens do mesmo lote são aplicadas em sequência (o comprador de uma
+     *   ordem pode ser o vendedor da seguinte)
+     * - todas as ordens são validadas antes de qualquer alteração; havendo
+     *   erros, todos são reportados juntos em VendasRejeitadasException e
+     *   nada é efetivado
+     * - todas as transações e participações do bloco recebem o mesmo instante
+     * - no máximo ORDENS_POR_BLOCO ordens, já que o bloco vai para o journal
+     *   como um único registro
+     */
+    public List<TransacaoCompraVenda> venderLotes(List<OrdemVenda> ordens) {
+        long inicio = System.nanoTime();
+        try {
+            List<TransacaoCompraVenda> transacoes = venderEmBloco(ordens);
+            metricas.concluida(Operacao.VENDER_LOTES, inicio);
+            return transacoes;
+        } catch (RegraNegocioException | IllegalArgumentException e) {
+            metricas.rejeitada(Operacao.VENDER_LOTES, inicio, e);
+            throw e;
+        }
+    }
+
+    private List<TransacaoCompraVenda> venderEmBloco(List<OrdemVenda> ordens) {
+        if (ordens == null || ordens.isEmpty()) {
+            throw new RegraNegocioException("Informe ao menos 1 ordem de venda.");
+        }
+        if (ordens.size() > ORDENS_POR_BLOCO) {
+            throw new RegraNegocioException("No máximo " + ORDENS_POR_BLOCO + " ordens por bloco (informadas: "
+                    + ordens.size() + ").");
+        }
+
+        Set<UUID> idsLotes = new HashSet<>();
+        for (OrdemVenda o : ordens) {
+            idsLotes.add(Objects.requireNonNull(o, "ordem").getIdLote());
+        }
+
+        List<ReentrantLock> locks = travarLotes(idsLotes);
+        try {
+            LocalDateTime agora = LocalDateTime.now();
+            Map<Integer, RegraNegocioException> erros = new HashMap<>();
+
+            // Fase 1: valida e monta os registros sobre uma projeção dos proprietários atuais.
+            Map<UUID, List<ParticipacaoLote>> atuaisProjetados = new HashMap<>();
+            List<TransacaoCompraVenda> transacoes = new ArrayList<>(ordens.size());
+            List<List<ParticipacaoLote>> encerradasPorOrdem = new ArrayList<>(ordens.size());
+            List<ParticipacaoLote> novas = new ArrayList<>(ordens.size());
+
+            for (int i = 0; i < ordens.size(); i++) {
+                OrdemVenda o = ordens.get(i);
+                try {
+                    LoteCreditoCarbono lote = getLoteOrThrow(o.getIdLote());
+                    validarPartesVenda(o.getIdsVendedores(), o.getIdComprador());
+
+                    List<ParticipacaoLote> atuais = atuaisProjetados.computeIfAbsent(
+                            lote.getId(), this::getParticipacoesAtuais);
+                    Set<UUID> setInformados = validarVendaContraAtuais(
+                            lote, atuais, o.getIdsVendedores(), o.getIdComprador());
+
+                    ParticipacaoLote nova = new ParticipacaoLote(lote.getId(), o.getIdComprador(), 1000, agora);
+                    transacoes.add(new TransacaoCompraVenda(
+                            lote.getId(), new ArrayList<>(setInformados), o.getIdComprador(), o.getValor(), agora));
+                    encerradasPorOrdem.add(atuais);
+                    novas.add(nova);
+                    atuaisProjetados.put(lote.getId(), List.of(nova));
+                } catch (RegraNegocioException ex) {
+                    erros.put(i, ex);
+                }
+            }
+
+            if (!erros.isEmpty()) {
+                throw new VendasRejeitadasException(erros);
+            }
+
+            // Fase 2: grava o bloco inteiro como um registro e efetiva.
+            // Nada aqui pode falhar por regra de negócio.
+            if (journal != null) journal.registrarVendas(transacoes, novas);
+            boolean publicar = eventos.temAssinantes();
+            for (int i = 0; i < transacoes.size(); i++) {
+                long seq = aplicarVenda(transacoes.get(i), encerradasPorOrdem.get(i), novas.get(i));
+                if (publicar) {
+                    eventos.enfileirar(new VendaEfetivada(seq, transacoes.get(i), encerradasPorOrdem.get(i), novas.get(i)));
+                }
+            }
+
+            return List.copyOf(transacoes);
+        } finally {
+            destravar(locks);
+            eventos.distribuir();
         }
+    }
+
+    /**
+     * Efetiva uma venda já validada. Deve ser chamada com o lock do lote.
+     */
+    private long aplicarVenda(TransacaoCompraVenda t, List<ParticipacaoLote> atuais, ParticipacaoLote nova) {
+        UUID idLote = t.getIdLote();
+        guardarTransacao(t);
+
+        // As atuais são sempre as últimas do histórico do lote.
+        HistoricoLote<ParticipacaoLote> doLote = participacoesPorLote.get(idLote);
+        int primeiraAtual = doLote.size() - atuais.size();
+        for (int i = 0; i < atuais.size(); i++) {
+            ParticipacaoLote p = atuais.get(i);
+            p.encerrar(t.getDataMicros());
+            historico.encerrarParticipacao(doLote.referencia(primeiraAtual + i), t.getDataMicros());
+            carteira(p.getIdProprietario()).encerrar(p);
+        }
+
+        int referencia = guardarParticipacao(nova);
+        participacoesAtuaisPorLote.put(idLote, new ParticipacaoLote[]{nova});
+        propriedadePorLote.get(idLote).adicionar(nova.getInicioMicros(), referencia);
+        return sequenciaPorLote.get(idLote).incrementAndGet();
+    }
+
+    private CarteiraProprietario carteira(UUID idProprietario) {
+        return carteiras.computeIfAbsent(idProprietario, id -> new CarteiraProprietario(historico::participacao));
+    }
+
+    /**
+     * Participações atuais do proprietário (um item por lote que ele possui hoje).
+     */
+    public List<ParticipacaoLote> listarParticipacoesAtuaisDoProprietario(UUID idProprietario) {
+        getProprietarioOrThrow(idProprietario);
+        CarteiraProprietario c = carteiras.get(idProprietario);
+        return (c == null) ? List.of() : c.atuais();
+    }
+
+    /**
+     * Soma dos créditos que o proprietário possui hoje, em todos os lotes.
+     */
+    public long totalCreditosDoProprietario(UUID idProprietario) {
+        getProprietarioOrThrow(idProprietario);
+        CarteiraProprietario c = carteiras.get(idProprietario);
+        return (c == null) ? 0 : c.totalCreditos();
+    }
+
+    /**
+     * Página do histórico de participações do proprietário (atuais e encerradas),
+     * da mais recente para a mais antiga.
+     */
+    public List<ParticipacaoLote> listarHistoricoDoProprietario(UUID idProprietario, int inicio, int limite) {
+        getProprietarioOrThrow(idProprietario);
+        CarteiraProprietario c = carteiras.get(idProprietario);
+        return (c == null) ? List.of() : c.historico(inicio, limite);
+    }
 
+    private void validarPartesVenda(List<UUID> idsVendedores, UUID idComprador) {
         if (idsVendedores == null || idsVendedores.isEmpty()) {
             throw new RegraNegocioException("Informe ao menos 1 vendedor.");
         }
@@ -126,8 +1037,32 @@ public final class SistemaCarbono {
 
         getProprietarioOrThrow(idComprador);
         for (UUID v : idsVendedores) getProprietarioOrThrow(v);
+    }
+
+    /**
+     * Regras de venda que dependem do estado do lote (proprietários atuais),
+     * medidas em VALIDAR_VENDA. Deve ser chamada com o lock do lote.
+     * Retorna o conjunto de vendedores informados.
+     */
+    private Set<UUID> validarVendaContraAtuais(LoteCreditoCarbono lote, List<ParticipacaoLote> atuais,
+                                               List<UUID> idsVendedores, UUID idComprador) {
+        long inicio = System.nanoTime();
+        boolean aprovada = false;
+        try {
+            Set<UUID> vendedores = checarVendaContraAtuais(lote, atuais, idsVendedores, idComprador);
+            aprovada = true;
+            return vendedores;
+        } finally {
+            metricas.etapa(Operacao.VALIDAR_VENDA, inicio, aprovada);
+        }
+    }
+
+    private Set<UUID> checarVendaContraAtuais(LoteCreditoCarbono lote, List<ParticipacaoLote> atuais,
+                                               List<UUID> idsVendedores, UUID idComprador) {
+        if (lote.getStatus() != StatusLote.DISPONIVEL) {
+            throw new RegraNegocioException("Lote não está disponível para venda (status=" + lote.getStatus() + ").");
+        }
 
-        List<ParticipacaoLote> atuais = getParticipacoesAtuais(idLote);
         if (atuais.isEmpty()) {
             throw new RegraNegocioException("O lote não possui proprietários atuais definidos.");
         }
@@ -149,86 +1084,149 @@ public final class SistemaCarbono {
         if (setInformados.contains(idComprador)) {
             throw new RegraNegocioException("O comprador não pode ser um dos proprietários atuais (vendedores).");
         }
+        return setInformados;
+    }
 
-        LocalDateTime agora = LocalDateTime.now();
+    public void imprimirRelatorioLote(UUID idLote) {
+        Writer console = new OutputStreamWriter(System.out, Charset.defaultCharset());
+        try {
+            escreverRelatorioLote(idLote, FormatoRelatorio.TEXTO, console);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        transacoesPorLote.get(idLote).add(new TransacaoCompraVenda(
-                idLote, new ArrayList<>(setInformados), idComprador, valor, agora
-        ));
+    /**
+     * Escreve o relatório completo do lote em streaming no destino (que não é fechado).
+     * Sob o lock do lote só é tirado o corte (status, tamanhos dos históricos e
+     * cópia das participações atuais); a escrita, que pode ser lenta (ex.:
+     * cliente HTTP remoto), acontece depois de liberado o lock.
+     */
+    public void escreverRelatorioLote(UUID idLote, FormatoRelatorio formato, Writer destino) throws IOException {
+        long inicio = System.nanoTime();
+        LoteCreditoCarbono lote;
+        try {
+            lote = getLoteOrThrow(idLote);
+        } catch (RegraNegocioException | IllegalArgumentException e) {
+            metricas.rejeitada(Operacao.RELATORIO_LOTE, inicio, e);
+            throw e;
+        }
+        Objects.requireNonNull(formato);
+        Objects.requireNonNull(destino);
 
-        for (ParticipacaoLote p : atuais) {
-            p.encerrar(agora);
+        FonteLote fonte;
+        ReentrantLock lock = lockDoLote(idLote);
+        lock.lock();
+        try {
+            // Participações atuais são as únicas que ainda podem mudar (encerradas numa venda): copiadas.
+            Map<UUID, ParticipacaoLote> atuais = new LinkedHashMap<>();
+            for (ParticipacaoLote p : getParticipacoesAtuais(idLote)) {
+                atuais.put(p.getId(), new ParticipacaoLote(p.getId(), p.getIdLote(), p.getIdProprietario(),
+                        p.getQuantidadeCreditos(), p.getInicioMicros(), ParticipacaoLote.SEM_FIM));
+            }
+            HistoricoLote<ParticipacaoLote> historico = participacoesPorLote.get(idLote);
+            HistoricoLote<TransacaoCompraVenda> transacoes = transacoesPorLote.get(idLote);
+            fonte = new FonteLote(lote, lote.getStatus(),
+                    arvoresPorLote.get(idLote).prefixo(arvoresPorLote.get(idLote).size()),
+                    atuais, historico.prefixo(historico.size()), transacoes.prefixo(transacoes.size()));
+        } finally {
+            lock.unlock();
         }
 
-        participacoesPorLote.get(idLote).add(new ParticipacaoLote(idLote, idComprador, 1000, agora));
+        RelatorioLote.escrever(fonte, formato, destino);
+        metricas.concluida(Operacao.RELATORIO_LOTE, inicio);
     }
 
-    public void imprimirRelatorioLote(UUID idLote) {
-        LoteCreditoCarbono lote = getLoteOrThrow(idLote);
+    /**
+     * Variante binária de {@link #escreverRelatorioLote(UUID, FormatoRelatorio, Writer)}, em UTF-8.
+     */
+    public void escreverRelatorioLote(UUID idLote, FormatoRelatorio formato, OutputStream destino) throws IOException {
+        escreverRelatorioLote(idLote, formato, new OutputStreamWriter(destino, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Corte de um lote para o relatório, legível sem o lock: prefixos dos
+     * históricos append-only (sem cópia) e cópias das participações que eram
+     * atuais no corte, que substituem as originais no histórico.
+     */
+    private final class FonteLote implements FonteRelatorioLote {
+        private final LoteCreditoCarbono lote;
+        private final StatusLote status;
+        private final List<ArvoreGeradoraCredito> arvores;
+        private final Map<UUID, ParticipacaoLote> atuais;
+        private final List<ParticipacaoLote> historico;
+        private final List<TransacaoCompraVenda> transacoes;
 
-        System.out.println("Lote: " + lote.getCodigoLote());
-        System.out.println("Créditos: " + lote.getTotalCredito());
-        System.out.println("Status: " + lote.getStatus());
+        FonteLote(LoteCreditoCarbono lote, StatusLote status, List<ArvoreGeradoraCredito> arvores,
+                  Map<UUID, ParticipacaoLote> atuais, List<ParticipacaoLote> historico,
+                  List<TransacaoCompraVenda> transacoes) {
+            this.lote = lote;
+            this.status = status;
+            this.arvores = arvores;
+            this.atuais = atuais;
+            this.historico = historico;
+            this.transacoes = transacoes;
+        }
 
-        System.out.println("\n--- Árvores (rastreabilidade) ---");
-        List<ArvoreGeradoraCredito> arvores = arvoresPorLote.get(idLote);
-        if (arvores.isEmpty()) {
-            System.out.println("(nenhuma árvore registrada)");
-        } else {
-            for (ArvoreGeradoraCredito a : arvores) {
-                System.out.println(" - " + a);
-            }
+        @Override
+        public LoteCreditoCarbono lote() {
+            return lote;
         }
 
-        System.out.println("\n--- Proprietários atuais (copropriedade) ---");
-        List<ParticipacaoLote> atuais = getParticipacoesAtuais(idLote);
-        if (atuais.isEmpty()) {
-            System.out.println("(nenhum proprietário atual definido)");
-        } else {
-            for (ParticipacaoLote p : atuais) {
-                Proprietario dono = proprietarios.get(p.getIdProprietario());
-                System.out.println(" - " + dono + " | Créditos: " + p.getQuantidadeCreditos()
-                        + " | Início: " + p.getDataInicio());
-            }
-            int soma = atuais.stream().mapToInt(ParticipacaoLote::getQuantidadeCreditos).sum();
-            System.out.println("Soma atual: " + soma + " (deve ser 1000)");
-        }
-
-        System.out.println("\n--- Histórico de participações ---");
-        List<ParticipacaoLote> hist = participacoesPorLote.get(idLote);
-        if (hist.isEmpty()) {
-            System.out.println("(sem histórico)");
-        } else {
-            hist.stream()
-                    .sorted(Comparator.comparing(ParticipacaoLote::getDataInicio))
-                    .forEach(p -> {
-                        Proprietario dono = proprietarios.get(p.getIdProprietario());
-                        String fim = (p.getDataFim() == null) ? "ATUAL" : p.getDataFim().toString();
-                        System.out.println(" - " + dono.getNome()
-                                + " | Créditos: " + p.getQuantidadeCreditos()
-                                + " | Início: " + p.getDataInicio()
-                                + " | Fim: " + fim);
-                    });
-        }
-
-        System.out.println("\n--- Transações (histórico de compra/venda) ---");
-        List<TransacaoCompraVenda> trans = transacoesPorLote.get(idLote);
-        if (trans.isEmpty()) {
-            System.out.println("(nenhuma transação)");
-        } else {
-            for (TransacaoCompraVenda t : trans) {
-                String vendedores = t.getIdsVendedores().stream()
-                        .map(id -> proprietarios.get(id).getNome())
-                        .collect(Collectors.joining(", "));
-                Proprietario comp = proprietarios.get(t.getIdComprador());
-                System.out.println(" - " + t.getDataTransacao()
-                        + " | Vendedores: " + vendedores
-                        + " -> Comprador: " + comp.getNome()
-                        + " | Valor: R$ " + t.getValor());
-            }
+        @Override
+        public StatusLote status() {
+            return status;
+        }
+
+        @Override
+        public List<ArvoreGeradoraCredito> arvores() {
+            return arvores;
+        }
+
+        @Override
+        public List<ParticipacaoLote> participacoesAtuais() {
+            return List.copyOf(atuais.values());
+        }
+
+        @Override
+        public List<ParticipacaoLote> historicoParticipacoes() {
+            return new AbstractList<>() {
+                @Override
+                public ParticipacaoLote get(int i) {
+                    ParticipacaoLote p = historico.get(i);
+                    return atuais.getOrDefault(p.getId(), p);
+                }
+
+                @Override
+                public int size() {
+                    return historico.size();
+                }
+            };
+        }
+
+        @Override
+        public List<TransacaoCompraVenda> transacoes() {
+            return transacoes;
+        }
+
+        @Override
+        public Proprietario proprietario(UUID id) {
+            return proprietarios.get(id);
         }
     }
 
+    /**
+     * Busca um lote pelo código, sem diferenciar maiúsculas/minúsculas.
+     */
+    public Optional<LoteCreditoCarbono> buscarLotePorCodigo(String codigoLote) {
+        if (codigoLote == null || codigoLote.isBlank()) return Optional.empty();
+        return Optional.ofNullable(lotesPorCodigo.get(chaveCodigoLote(codigoLote)));
+    }
+
+    private static String chaveCodigoLote(String codigoLote) {
+        return codigoLote.trim().toUpperCase(Locale.ROOT);
+    }
+
     private LoteCreditoCarbono getLoteOrThrow(UUID id) {
         LoteCreditoCarbono lote = lotes.get(id);
         if (lote == null) throw new RegraNegocioException("Lote não encontrado: " + id);
@@ -241,26 +1239,309 @@ public final class SistemaCarbono {
         return p;
     }
 
+    private ReentrantLock lockDoLote(UUID idLote) {
+        return locksLote[listraDoLote(idLote)];
+    }
+
+    private static int listraDoLote(UUID idLote) {
+        int h = idLote.hashCode();
+        return (h ^ (h >>> 16)) & (LISTRAS_LOCK - 1);
+    }
+
+    /**
+     * Trava as listras de vários lotes sempre na mesma ordem (índice da listra),
+     * evitando deadlock entre blocos concorrentes.
+     */
+    private List<ReentrantLock> travarLotes(Collection<UUID> idsLotes) {
+        TreeSet<Integer> listras = new TreeSet<>();
+        for (UUID id : idsLotes) listras.add(listraDoLote(id));
+
+        List<ReentrantLock> travados = new ArrayList<>(listras.size());
+        for (int listra : listras) {
+            ReentrantLock lock = locksLote[listra];
+            lock.lock();
+            travados.add(lock);
+        }
+        return travados;
+    }
+
+    private List<ReentrantLock> travarTodos() {
+        List<ReentrantLock> travados = new ArrayList<>(locksLote.length);
+        for (ReentrantLock lock : locksLote) {
+            lock.lock();
+            travados.add(lock);
+        }
+        return travados;
+    }
+
+    private static void destravar(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
     private List<ParticipacaoLote> getParticipacoesAtuais(UUID idLote) {
-        return participacoesPorLote.get(idLote).stream()
-                .filter(ParticipacaoLote::isAtual)
-                .toList();
+        return List.of(participacoesAtuaisPorLote.get(idLote));
+    }
+
+    /**
+     * Assina os eventos de todas as alterações feitas a partir de agora (a
+     * reprodução do journal na inicialização não gera eventos). Cada
+     * assinatura tem buffer e thread próprios; feche-a para cancelar.
+     */
+    public Assinatura assinarEventos(AssinanteEventos assinante, int capacidade, PoliticaBackpressure politica) {
+        return eventos.assinar(assinante, capacidade, politica);
+    }
+
+    /**
+     * Sequência do último evento do lote (nº de alterações aplicadas a ele).
+     * Serve também de versão do lote: só cresce, e cresce a cada alteração.
+     */
+    public long getSequenciaLote(UUID idLote) {
+        getLoteOrThrow(idLote);
+        return sequenciaPorLote.get(idLote).get();
+    }
+
+    /**
+     * Métricas acumuladas desde a criação do sistema (a reprodução do journal
+     * não conta) e tamanhos atuais do registro. Os contadores e tamanhos são
+     * lidos sem os locks dos lotes, então a coleta não atrasa as operações; o
+     * custo, proporcional ao número de lotes, fica com quem coleta.
+     */
+    public InstantaneoMetricas coletarMetricas() {
+        Histograma arvores = new Histograma();
+        Histograma participacoes = new Histograma();
+        Histograma transacoes = new Histograma();
+        long totalArvores = 0, totalParticipacoes = 0, totalTransacoes = 0;
+        PriorityQueue<Map.Entry<UUID, Integer>> maiores = new PriorityQueue<>(Map.Entry.comparingByValue());
+
+        for (UUID id : lotes.keySet()) {
+            int a = arvoresPorLote.get(id).size();
+            int p = participacoesPorLote.get(id).size();
+            int t = transacoesPorLote.get(id).size();
+            arvores.registrar(a);
+            participacoes.registrar(p);
+            transacoes.registrar(t);
+            totalArvores += a;
+            totalParticipacoes += p;
+            totalTransacoes += t;
+            if (t > 0 && (maiores.size() < LOTES_MAIOR_HISTORICO || t > maiores.peek().getValue())) {
+                maiores.add(Map.entry(id, t));
+                if (maiores.size() > LOTES_MAIOR_HISTORICO) maiores.poll();
+            }
+        }
+
+        Map<String, Long> medidores = new LinkedHashMap<>();
+        medidores.put("proprietarios", (long) proprietarios.size());
+        medidores.put("lotes", (long) lotes.size());
+        for (StatusLote st : StatusLote.values()) {
+            medidores.put("lotes_" + st.name().toLowerCase(Locale.ROOT), (long) lotesPorStatus.get(st).tamanho());
+        }
+        medidores.put("arvores", totalArvores);
+        medidores.put("participacoes", totalParticipacoes);
+        medidores.put("transacoes", totalTransacoes);
+        medidores.put("especies", (long) especies.tamanho());
+
+        List<Map.Entry<UUID, Integer>> ordenados = new ArrayList<>(maiores);
+        ordenados.sort(Map.Entry.<UUID, Integer>comparingByValue().reversed());
+        Map<UUID, Integer> lotesComMaisTransacoes = new LinkedHashMap<>();
+        for (Map.Entry<UUID, Integer> e : ordenados) lotesComMaisTransacoes.put(e.getKey(), e.getValue());
+
+        return new InstantaneoMetricas(metricas.resumirOperacoes(), metricas.resumirRejeicoes(), medidores,
+                arvores.resumir(), participacoes.resumir(), transacoes.resumir(), lotesComMaisTransacoes);
     }
 
     public List<Proprietario> listarProprietarios() {
-        return proprietarios.values().stream()
-                .sorted(Comparator.comparing(Proprietario::getNome))
-                .toList();
+        return proprietariosPorNome.listar();
     }
 
     public List<LoteCreditoCarbono> listarLotes() {
-        return lotes.values().stream()
-                .sorted(Comparator.comparing(LoteCreditoCarbono::getCodigoLote))
-                .toList();
+        return lotesOrdenados.listar();
+    }
+
+    /**
+     * Proprietários em ordem de nome, uma página por vez.
+     *
+     * @param depoisDe cursor devolvido pela página anterior (null para a primeira)
+     */
+    public Pagina<Proprietario> listarProprietarios(UUID depoisDe, int limite) {
+        return proprietariosPorNome.pagina(depoisDe, limite);
+    }
+
+    public Pagina<Proprietario> buscarProprietariosPorNome(String prefixo, UUID depoisDe, int limite) {
+        return proprietariosPorNome.buscarPorPrefixo(prefixo, depoisDe, limite);
+    }
+
+    /**
+     * Lotes em ordem de código, uma página por vez.
+     *
+     * @param depoisDe cursor devolvido pela página anterior (null para a primeira)
+     */
+    public Pagina<LoteCreditoCarbono> listarLotes(UUID depoisDe, int limite) {
+        return lotesOrdenados.pagina(depoisDe, limite);
+    }
+
+    public Pagina<LoteCreditoCarbono> buscarLotesPorCodigo(String prefixo, UUID depoisDe, int limite) {
+        return lotesOrdenados.buscarPorPrefixo(prefixo, depoisDe, limite);
+    }
+
+    /**
+     * Transações de todos os lotes com data em [inicio, fim), em ordem de data.
+     * O stream é preguiçoso; consuma-o (ou feche) sem guardar referências longas.
+     */
+    public Stream<TransacaoCompraVenda> buscarTransacoes(LocalDateTime inicio, LocalDateTime fim,
+                                                         FiltroTransacoes filtro) {
+        validarIntervalo(inicio, fim);
+        return transacoesPorData.buscar(inicio, fim, Objects.requireNonNull(filtro));
+    }
+
+    /**
+     * Quantidade, soma, mínimo e máximo do valor das transações em [inicio, fim),
+     * por período (hora, dia ou mês).
+     */
+    public List<AgregadoTransacoes> agregarTransacoes(LocalDateTime inicio, LocalDateTime fim,
+                                                      FiltroTransacoes filtro, GranularidadeTempo granularidade) {
+        validarIntervalo(inicio, fim);
+        return transacoesPorData.agregar(inicio, fim, Objects.requireNonNull(filtro), Objects.requireNonNull(granularidade));
+    }
+
+    public AgregadoTransacoes resumirTransacoes(LocalDateTime inicio, LocalDateTime fim, FiltroTransacoes filtro) {
+        validarIntervalo(inicio, fim);
+        return transacoesPorData.resumir(inicio, fim, Objects.requireNonNull(filtro));
+    }
+
+    private static void validarIntervalo(LocalDateTime inicio, LocalDateTime fim) {
+        Objects.requireNonNull(inicio, "inicio");
+        Objects.requireNonNull(fim, "fim");
+        if (!inicio.isBefore(fim)) {
+            throw new IllegalArgumentException("Intervalo inválido: início deve ser anterior ao fim.");
+        }
     }
 
     public List<ParticipacaoLote> listarParticipacoesAtuais(UUID idLote) {
         getLoteOrThrow(idLote);
         return List.copyOf(getParticipacoesAtuais(idLote));
     }
-}
\ No newline at end of file
+
+    /**
+     * Participações atuais com a versão do lote em que valem, lidas sem lock.
+     * As alterações trocam as participações antes de avançar a versão, então
+     * a leitura é repetida até a versão ficar igual antes e depois; no pior
+     * caso a versão devolvida fica um passo atrás e a venda condicionada a
+     * ela é rejeitada como desatualizada, nunca aceita indevidamente.
+     */
+    public ParticipacoesVersionadas listarParticipacoesAtuaisVersionadas(UUID idLote) {
+        getLoteOrThrow(idLote);
+        AtomicLong versao = sequenciaPorLote.get(idLote);
+        while (true) {
+            long antes = versao.get();
+            ParticipacaoLote[] atuais = participacoesAtuaisPorLote.get(idLote);
+            if (versao.get() == antes) {
+                return new ParticipacoesVersionadas(antes, Arrays.asList(atuais));
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Participações vigentes no lote no instante informado (vazio se o lote
+     * ainda não tinha proprietários). Busca binária, sem lock.
+     */
+    public List<ParticipacaoLote> listarParticipacoesEm(UUID idLote, LocalDateTime instante) {
+        getLoteOrThrow(idLote);
+        return propriedadePorLote.get(idLote).em(Objects.requireNonNull(instante, "instante"));
+    }
+
+    /**
+     * Mesma consulta para vários lotes no mesmo instante, na ordem informada.
+     */
+    public Map<UUID, List<ParticipacaoLote>> listarParticipacoesEm(Collection<UUID> idsLotes, LocalDateTime instante) {
+        Objects.requireNonNull(instante, "instante");
+        Map<UUID, List<ParticipacaoLote>> resultado = new LinkedHashMap<>(Math.max(16, idsLotes.size() * 2));
+        for (UUID idLote : idsLotes) {
+            getLoteOrThrow(idLote);
+            resultado.put(idLote, propriedadePorLote.get(idLote).em(instante));
+        }
+        return resultado;
+    }
+
+    /**
+     * Aplica snapshot e operações lidas do journal sem revalidar nem gravar de novo.
+     * Roda antes de o sistema ficar visível para outras threads.
+     */
+    private final class Reprodutor implements ReprodutorJournal, VisitanteEstado {
+        @Override
+        public void proprietario(Proprietario p) {
+            proprietarioCadastrado(p);
+        }
+
+        @Override
+        public void lote(LoteCreditoCarbono lote,
+                         long sequencia,
+                         List<ArvoreGeradoraCredito> arvores,
+                         List<ParticipacaoLote> participacoes,
+                         List<TransacaoCompraVenda> transacoes) {
+            loteCriado(lote);
+            UUID idLote = lote.getId();
+            for (ArvoreGeradoraCredito a : arvores) {
+                aplicarArvore(idLote, a);
+            }
+            int[] referencias = new int[participacoes.size()];
+            for (int i = 0; i < referencias.length; i++) {
+                referencias[i] = guardarParticipacao(participacoes.get(i));
+            }
+            propriedadePorLote.get(idLote).adicionarHistorico(participacoes, referencias, 1000);
+            for (TransacaoCompraVenda t : transacoes) {
+                guardarTransacao(t);
+            }
+            participacoesAtuaisPorLote.put(idLote, participacoes.stream()
+                    .filter(ParticipacaoLote::isAtual)
+                    .toArray(ParticipacaoLote[]::new));
+            if (sequencia > 0) {
+                sequenciaPorLote.get(idLote).set(sequencia);
+            } else {
+                // Snapshot antigo: cada geração de proprietários corresponde a uma
+                // alteração (participações iniciais ou venda); mudanças de status não são contadas.
+                sequenciaPorLote.get(idLote).addAndGet(propriedadePorLote.get(idLote).quantidadeGeracoes());
+            }
+        }
+
+        @Override
+        public void proprietarioCadastrado(Proprietario p) {
+            proprietariosPorDocumento.put(Proprietario.normalizarDocumento(p.getDocumento()), p);
+            proprietarios.put(p.getId(), p);
+            proprietariosPorNome.adicionar(p);
+        }
+
+        @Override
+        public void loteCriado(LoteCreditoCarbono lote) {
+            lotesPorCodigo.put(chaveCodigoLote(lote.getCodigoLote()), lote);
+            aplicarLote(lote);
+        }
+
+        @Override
+        public void arvoreRegistrada(UUID idLote, ArvoreGeradoraCredito arvore) {
+            aplicarArvore(idLote, arvore);
+        }
+
+        @Override
+        public void participacoesDefinidas(UUID idLote, List<ParticipacaoLote> participacoes) {
+            aplicarParticipacoesIniciais(idLote, participacoes.toArray(new ParticipacaoLote[0]));
+        }
+
+        @Override
+        public void vendasEfetivadas(List<TransacaoCompraVenda> transacoes, List<ParticipacaoLote> novasParticipacoes) {
+            for (int i = 0; i < transacoes.size(); i++) {
+                TransacaoCompraVenda t = transacoes.get(i);
+                aplicarVenda(t, getParticipacoesAtuais(t.getIdLote()), novasParticipacoes.get(i));
+            }
+        }
+
+        @Override
+        public void statusAlterado(List<UUID> idsLotes, StatusLote novoStatus) {
+            for (UUID idLote : idsLotes) {
+                aplicarStatus(lotes.get(idLote), novoStatus);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.atividade.armazenamento;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * Armazenamento colunar das árvores de um lote: ids como pares de long,
+ * coordenadas em double[] e espécie como código do dicionário. Cerca de
+ * 36 bytes por árvore, contra ~130 de um ArvoreGeradoraCredito com seu
+ * UUID e String próprios.
+ *
+ * Como List, {@link #get(int)} monta um ArvoreGeradoraCredito de curta duração
+ * a partir das colunas; os acessores por posição evitam até essa alocação.
+ * Leitura e escrita são sincronizadas, então a lista pode ser lida por outras
+ * threads (ex.: índice espacial) enquanto o lote recebe novas árvores.
+ */
+public final class ArvoresColunares extends AbstractList<ArvoreGeradoraCredito> implements RandomAccess {
+    private static final int CAPACIDADE_INICIAL = 8;
+
+    private final DicionarioEspecies especies;
+    private long[] idsMsb = new long[CAPACIDADE_INICIAL];
+    private long[] idsLsb = new long[CAPACIDADE_INICIAL];
+    private double[] latitudes = new double[CAPACIDADE_INICIAL];
+    private double[] longitudes = new double[CAPACIDADE_INICIAL];
+    private int[] codigosEspecie = new int[CAPACIDADE_INICIAL];
+    private int tamanho;
+
+    public ArvoresColunares(DicionarioEspecies especies) {
+        this.especies = especies;
+    }
+
+    /**
+     * @return posição da árvore neste lote
+     */
+    public synchronized int adicionar(ArvoreGeradoraCredito arvore) {
+        if (tamanho == latitudes.length) {
+            int nova = tamanho + (tamanho >> 1);
+            idsMsb = Arrays.copyOf(idsMsb, nova);
+            idsLsb = Arrays.copyOf(idsLsb, nova);
+            latitudes = Arrays.copyOf(latitudes, nova);
+            longitudes = Arrays.copyOf(longitudes, nova);
+            codigosEspecie = Arrays.copyOf(codigosEspecie, nova);
+        }
+        UUID id = arvore.getId();
+        idsMsb[tamanho] = id.getMostSignificantBits();
+        idsLsb[tamanho] = id.getLeastSignificantBits();
+        latitudes[tamanho] = arvore.getLatitude();
+        longitudes[tamanho] = arvore.getLongitude();
+        codigosEspecie[tamanho] = especies.codigo(arvore.getEspecie());
+        modCount++;
+        return tamanho++;
+    }
+
+    @Override
+    public boolean add(ArvoreGeradoraCredito arvore) {
+        adicionar(arvore);
+        return true;
+    }
+
+    @Override
+    public synchronized ArvoreGeradoraCredito get(int i) {
+        checarIndice(i);
+        return new ArvoreGeradoraCredito(new UUID(idsMsb[i], idsLsb[i]),
+                especies.nome(codigosEspecie[i]), latitudes[i], longitudes[i]);
+    }
+
+    @Override
+    public synchronized int size() {
+        return tamanho;
+    }
+
+    public synchronized UUID getId(int i) {
+        checarIndice(i);
+        return new UUID(idsMsb[i], idsLsb[i]);
+    }
+
+    public synchronized String getEspecie(int i) {
+        checarIndice(i);
+        return especies.nome(codigosEspecie[i]);
+    }
+
+    public synchronized double getLatitude(int i) {
+        checarIndice(i);
+        return latitudes[i];
+    }
+
+    public synchronized double getLongitude(int i) {
+        checarIndice(i);
+        return longitudes[i];
+    }
+
+    /**
+     * As {@code tamanho} primeiras árvores, somente leitura. Posições já
+     * gravadas não mudam, então árvores adicionadas depois não aparecem no
+     * prefixo e a visão pode ser lida sem o lock do lote.
+     */
+    public synchronized List<ArvoreGeradoraCredito> prefixo(int tamanho) {
+        if (tamanho < 0 || tamanho > this.tamanho) {
+            throw new IndexOutOfBoundsException("Prefixo " + tamanho + " maior que " + this.tamanho + " árvores.");
+        }
+        return new Prefixo(tamanho);
+    }
+
+    private final class Prefixo extends AbstractList<ArvoreGeradoraCredito> implements RandomAccess {
+        private final int tamanho;
+
+        Prefixo(int tamanho) {
+            this.tamanho = tamanho;
+        }
+
+        @Override
+        public ArvoreGeradoraCredito get(int i) {
+            if (i < 0 || i >= tamanho) {
+                throw new IndexOutOfBoundsException("Índice " + i + " fora de 0.." + (tamanho - 1));
+            }
+            return ArvoresColunares.this.get(i);
+        }
+
+        @Override
+        public int size() {
+            return tamanho;
+        }
+    }
+
+    /**
+     * Bytes ocupados pelas colunas (capacidade alocada, sem cabeçalhos de array).
+     */
+    public synchronized long bytesColunas() {
+        return (long) latitudes.length * (8 + 8 + 8 + 8 + 4);
+    }
+
+    private void checarIndice(int i) {
+        if (i < 0 || i >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice " + i + " fora de 0.." + (tamanho - 1));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.atividade.armazenamento;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dicionário de nomes de espécie: cada nome distinto é guardado uma única vez
+ * e as árvores referenciam apenas o código inteiro.
+ */
+public final class DicionarioEspecies {
+    private final Map<String, Integer> codigos = new ConcurrentHashMap<>();
+    private volatile String[] nomes = new String[16];
+    private int tamanho;
+
+    public int codigo(String especie) {
+        Integer codigo = codigos.get(especie);
+        if (codigo != null) return codigo;
+        return registrar(especie);
+    }
+
+    public String nome(int codigo) {
+        String[] atual = nomes;
+        if (codigo < 0 || codigo >= atual.length || atual[codigo] == null) {
+            throw new IllegalArgumentException("Código de espécie desconhecido: " + codigo);
+        }
+        return atual[codigo];
+    }
+
+    public synchronized int tamanho() {
+        return tamanho;
+    }
+
+    private synchronized int registrar(String especie) {
+        Integer existente = codigos.get(especie);
+        if (existente != null) return existente;
+
+        String[] atual = nomes;
+        if (tamanho == atual.length) {
+            atual = Arrays.copyOf(atual, tamanho * 2);
+        }
+        atual[tamanho] = especie;
+        nomes = atual; // publica o nome antes do código
+        codigos.put(especie, tamanho);
+        return tamanho++;
+    }
+}
@@ -0,0 +1,43 @@
+package org.atividade.armazenamento;
+
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.TransacaoCompraVenda;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Depósito append-only do histórico de participações e transações de todos
+ * os lotes. Cada item recebe uma referência int (sua posição no depósito) e
+ * os índices guardam só essas referências; o objeto é obtido de volta com
+ * participacao()/transacao().
+ *
+ * Implementações: HistoricoEmMemoria (os próprios objetos, no heap) e
+ * HistoricoMapeado (registros de tamanho fixo em arquivos mapeados).
+ *
+ * Inserções podem vir de threads diferentes ao mesmo tempo. Uma referência
+ * só pode ser lida depois de publicada por quem a inseriu (lock do lote,
+ * índice sincronizado ou campo volatile).
+ */
+public interface Historico extends Closeable {
+
+    int adicionarParticipacao(ParticipacaoLote p);
+
+    /**
+     * Grava o fim de uma participação já inserida. O chamador encerra também
+     * o objeto que mantém no heap (ver HistoricoEmMemoria).
+     */
+    void encerrarParticipacao(int referencia, long fimMicros);
+
+    ParticipacaoLote participacao(int referencia);
+
+    int adicionarTransacao(TransacaoCompraVenda t);
+
+    TransacaoCompraVenda transacao(int referencia);
+
+    /**
+     * Depósito vazio do mesmo tipo, para uma cópia passageira do estado
+     * (ex.: compactação do journal). Fechá-lo descarta o conteúdo.
+     */
+    Historico temporario() throws IOException;
+}
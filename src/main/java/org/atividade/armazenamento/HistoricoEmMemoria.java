@@ -0,0 +1,98 @@
+package org.atividade.armazenamento;
+
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.TransacaoCompraVenda;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Histórico no heap (o padrão): guarda os próprios objetos, em páginas de
+ * 4096 posições, e participacao()/transacao() devolvem a mesma instância
+ * que foi inserida.
+ */
+public final class HistoricoEmMemoria implements Historico {
+    private final Paginas<ParticipacaoLote> participacoes = new Paginas<>();
+    private final Paginas<TransacaoCompraVenda> transacoes = new Paginas<>();
+
+    @Override
+    public int adicionarParticipacao(ParticipacaoLote p) {
+        return participacoes.adicionar(p);
+    }
+
+    /**
+     * O objeto guardado é o mesmo que o chamador encerra; só encerra aqui se
+     * ele ainda não o fez.
+     */
+    @Override
+    public void encerrarParticipacao(int referencia, long fimMicros) {
+        ParticipacaoLote p = participacoes.get(referencia);
+        if (p.isAtual()) p.encerrar(fimMicros);
+    }
+
+    @Override
+    public ParticipacaoLote participacao(int referencia) {
+        return participacoes.get(referencia);
+    }
+
+    @Override
+    public int adicionarTransacao(TransacaoCompraVenda t) {
+        return transacoes.adicionar(t);
+    }
+
+    @Override
+    public TransacaoCompraVenda transacao(int referencia) {
+        return transacoes.get(referencia);
+    }
+
+    @Override
+    public Historico temporario() {
+        return new HistoricoEmMemoria();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * A posição é reservada com um incremento atômico e a página criada sob
+     * lock só quando falta; a gravação na posição não disputa com ninguém.
+     */
+    private static final class Paginas<T> {
+        private static final int BITS_PAGINA = 12;
+        private static final int MASCARA = (1 << BITS_PAGINA) - 1;
+
+        private final AtomicInteger proxima = new AtomicInteger();
+        private volatile Object[][] paginas = new Object[16][];
+
+        int adicionar(T item) {
+            int referencia = proxima.getAndIncrement();
+            if (referencia < 0) {
+                throw new IllegalStateException("Histórico cheio (" + Integer.MAX_VALUE + " itens).");
+            }
+            pagina(referencia >>> BITS_PAGINA)[referencia & MASCARA] = item;
+            return referencia;
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(int referencia) {
+            return (T) paginas[referencia >>> BITS_PAGINA][referencia & MASCARA];
+        }
+
+        private Object[] pagina(int indice) {
+            Object[][] atual = paginas;
+            if (indice < atual.length && atual[indice] != null) return atual[indice];
+            synchronized (this) {
+                atual = paginas;
+                if (indice >= atual.length) {
+                    atual = Arrays.copyOf(atual, Math.max(atual.length * 2, indice + 1));
+                }
+                for (int i = 0; i <= indice; i++) {
+                    if (atual[i] == null) atual[i] = new Object[1 << BITS_PAGINA];
+                }
+                paginas = atual;
+                return atual[indice];
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.atividade.armazenamento;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * Histórico de um lote (participações ou transações) como referências para
+ * o Historico, na ordem de inserção: 4 bytes por item no heap.
+ *
+ * Como List, {@link #get(int)} devolve o item resolvido no Historico (com o
+ * HistoricoMapeado, um objeto montado a partir do registro). A lista só
+ * cresce; leitura e escrita são sincronizadas, como em ArvoresColunares.
+ */
+public final class HistoricoLote<T> extends AbstractList<T> implements RandomAccess {
+    private static final int CAPACIDADE_INICIAL = 4;
+
+    private final IntFunction<T> resolvedor;
+    private final boolean somenteLeitura;
+    private int[] referencias;
+    private int tamanho;
+
+    public HistoricoLote(IntFunction<T> resolvedor) {
+        this(resolvedor, new int[CAPACIDADE_INICIAL], 0, false);
+    }
+
+    private HistoricoLote(IntFunction<T> resolvedor, int[] referencias, int tamanho, boolean somenteLeitura) {
+        this.resolvedor = resolvedor;
+        this.referencias = referencias;
+        this.tamanho = tamanho;
+        this.somenteLeitura = somenteLeitura;
+    }
+
+    public synchronized void adicionar(int referencia) {
+        if (somenteLeitura) throw new UnsupportedOperationException("Prefixo somente leitura.");
+        if (tamanho == referencias.length) {
+            referencias = Arrays.copyOf(referencias, tamanho + Math.max(CAPACIDADE_INICIAL, tamanho >> 1));
+        }
+        referencias[tamanho++] = referencia;
+        modCount++;
+    }
+
+    @Override
+    public synchronized T get(int i) {
+        return resolvedor.apply(referencia(i));
+    }
+
+    @Override
+    public synchronized int size() {
+        return tamanho;
+    }
+
+    public synchronized int referencia(int i) {
+        if (i < 0 || i >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice " + i + " fora de 0.." + (tamanho - 1));
+        }
+        return referencias[i];
+    }
+
+    /**
+     * Os {@code tamanho} primeiros itens, somente leitura. Não copia as
+     * referências: inserções posteriores nesta lista não aparecem no prefixo.
+     */
+    public synchronized HistoricoLote<T> prefixo(int tamanho) {
+        if (tamanho < 0 || tamanho > this.tamanho) {
+            throw new IndexOutOfBoundsException("Prefixo " + tamanho + " maior que " + this.tamanho + " itens.");
+        }
+        return new HistoricoLote<>(resolvedor, referencias, tamanho, true);
+    }
+}
@@ -0,0 +1,228 @@
+package org.atividade.armazenamento;
+
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.TransacaoCompraVenda;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Histórico fora do heap: participações e transações em registros de tamanho
+ * fixo, em dois arquivos mapeados em memória (participacoes.dat e
+ * transacoes.dat). O heap guarda só as referências int nos índices; cada
+ * leitura monta um objeto de curta duração a partir do registro.
+ *
+ * Registro de participação (72 bytes):
+ * [id][lote][proprietário][int créditos][int 0][long início][long fim]
+ * Registro de transação (128 bytes):
+ * [id][lote][comprador][3 x vendedor][int nº vendedores][int 0]
+ * [long valor em centavos][long data]
+ * UUIDs ocupam 16 bytes; datas são microssegundos (EpocaMicros), com
+ * ParticipacaoLote.SEM_FIM para "sem fim". São os mesmos primitivos que as
+ * entidades guardam, então gravar e ler não converte nada.
+ *
+ * Os arquivos são mapeados em regiões de 2^20 registros, criadas conforme o
+ * histórico cresce (o arquivo é esparso até ser escrito). Não é
+ * persistência: abrir() recria os arquivos vazios e o conteúdo é
+ * reconstruído a partir do snapshot/journal, como o resto do estado.
+ */
+public final class HistoricoMapeado implements Historico {
+    private static final String ARQUIVO_PARTICIPACOES = "participacoes.dat";
+    private static final String ARQUIVO_TRANSACOES = "transacoes.dat";
+    private static final int BITS_REGIAO = 20;
+    private static final int MASCARA = (1 << BITS_REGIAO) - 1;
+    private static final int BYTES_PARTICIPACAO = 72;
+    private static final int BYTES_TRANSACAO = 128;
+    private static final int MAXIMO_VENDEDORES = 3;
+
+    private final Path diretorio;
+    private final boolean temporario;
+    private final Arquivo participacoes;
+    private final Arquivo transacoes;
+
+    private HistoricoMapeado(Path diretorio, boolean temporario) throws IOException {
+        this.diretorio = diretorio;
+        this.temporario = temporario;
+        this.participacoes = new Arquivo(diretorio.resolve(ARQUIVO_PARTICIPACOES), BYTES_PARTICIPACAO);
+        Arquivo t;
+        try {
+            t = new Arquivo(diretorio.resolve(ARQUIVO_TRANSACOES), BYTES_TRANSACAO);
+        } catch (IOException | RuntimeException e) {
+            participacoes.close();
+            throw e;
+        }
+        this.transacoes = t;
+    }
+
+    /**
+     * Cria (ou esvazia) os arquivos do histórico no diretório.
+     */
+    public static HistoricoMapeado abrir(Path diretorio) throws IOException {
+        return new HistoricoMapeado(Files.createDirectories(diretorio), false);
+    }
+
+    @Override
+    public int adicionarParticipacao(ParticipacaoLote p) {
+        int referencia = participacoes.reservar();
+        MappedByteBuffer b = participacoes.regiao(referencia);
+        int pos = participacoes.posicao(referencia);
+        pos = uuid(b, pos, p.getId());
+        pos = uuid(b, pos, p.getIdLote());
+        pos = uuid(b, pos, p.getIdProprietario());
+        b.putInt(pos, p.getQuantidadeCreditos());
+        b.putInt(pos + 4, 0);
+        b.putLong(pos + 8, p.getInicioMicros());
+        b.putLong(pos + 16, p.getFimMicros());
+        return referencia;
+    }
+
+    @Override
+    public void encerrarParticipacao(int referencia, long fimMicros) {
+        participacoes.regiao(referencia).putLong(participacoes.posicao(referencia) + 64, fimMicros);
+    }
+
+    @Override
+    public ParticipacaoLote participacao(int referencia) {
+        MappedByteBuffer b = participacoes.regiao(referencia);
+        int pos = participacoes.posicao(referencia);
+        return new ParticipacaoLote(uuid(b, pos), uuid(b, pos + 16), uuid(b, pos + 32),
+                b.getInt(pos + 48), b.getLong(pos + 56), b.getLong(pos + 64));
+    }
+
+    @Override
+    public int adicionarTransacao(TransacaoCompraVenda t) {
+        List<UUID> vendedores = t.getIdsVendedores();
+        if (vendedores.size() > MAXIMO_VENDEDORES) {
+            throw new IllegalArgumentException("No máximo " + MAXIMO_VENDEDORES + " vendedores por transação.");
+        }
+
+        int referencia = transacoes.reservar();
+        MappedByteBuffer b = transacoes.regiao(referencia);
+        int pos = transacoes.posicao(referencia);
+        pos = uuid(b, pos, t.getId());
+        pos = uuid(b, pos, t.getIdLote());
+        pos = uuid(b, pos, t.getIdComprador());
+        for (int i = 0; i < MAXIMO_VENDEDORES; i++) {
+            pos = uuid(b, pos, i < vendedores.size() ? vendedores.get(i) : null);
+        }
+        b.putInt(pos, vendedores.size());
+        b.putInt(pos + 4, 0);
+        b.putLong(pos + 8, t.getValorCentavos());
+        b.putLong(pos + 16, t.getDataMicros());
+        return referencia;
+    }
+
+    @Override
+    public TransacaoCompraVenda transacao(int referencia) {
+        MappedByteBuffer b = transacoes.regiao(referencia);
+        int pos = transacoes.posicao(referencia);
+        int quantidade = b.getInt(pos + 96);
+        UUID[] vendedores = new UUID[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            vendedores[i] = uuid(b, pos + 48 + 16 * i);
+        }
+        return new TransacaoCompraVenda(uuid(b, pos), uuid(b, pos + 16), Arrays.asList(vendedores),
+                uuid(b, pos + 32), b.getLong(pos + 104), b.getLong(pos + 112));
+    }
+
+    @Override
+    public Historico temporario() throws IOException {
+        return new HistoricoMapeado(Files.createTempDirectory(diretorio, "temporario-"), true);
+    }
+
+    /**
+     * Fecha os arquivos (os mapeamentos são liberados pelo GC). Num histórico
+     * temporário, apaga também os arquivos e o diretório.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            participacoes.close();
+        } finally {
+            transacoes.close();
+        }
+        if (temporario) {
+            Files.deleteIfExists(diretorio.resolve(ARQUIVO_PARTICIPACOES));
+            Files.deleteIfExists(diretorio.resolve(ARQUIVO_TRANSACOES));
+            Files.deleteIfExists(diretorio);
+        }
+    }
+
+    private static int uuid(MappedByteBuffer b, int pos, UUID id) {
+        b.putLong(pos, id == null ? 0 : id.getMostSignificantBits());
+        b.putLong(pos + 8, id == null ? 0 : id.getLeastSignificantBits());
+        return pos + 16;
+    }
+
+    private static UUID uuid(MappedByteBuffer b, int pos) {
+        return new UUID(b.getLong(pos), b.getLong(pos + 8));
+    }
+
+    /**
+     * Um arquivo de registros de tamanho fixo. A posição é reservada com um
+     * incremento atômico; só o mapeamento de uma região nova passa por lock.
+     * Leituras e gravações usam os métodos absolutos do buffer, que não
+     * mexem na posição compartilhada.
+     */
+    private static final class Arquivo {
+        private final FileChannel canal;
+        private final int bytesRegistro;
+        private final AtomicInteger proximo = new AtomicInteger();
+        private volatile MappedByteBuffer[] regioes = new MappedByteBuffer[0];
+
+        Arquivo(Path caminho, int bytesRegistro) throws IOException {
+            this.canal = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.bytesRegistro = bytesRegistro;
+        }
+
+        int reservar() {
+            int referencia = proximo.getAndIncrement();
+            if (referencia < 0) {
+                throw new IllegalStateException("Histórico cheio (" + Integer.MAX_VALUE + " registros).");
+            }
+            return referencia;
+        }
+
+        int posicao(int referencia) {
+            return (referencia & MASCARA) * bytesRegistro;
+        }
+
+        MappedByteBuffer regiao(int referencia) {
+            int indice = referencia >>> BITS_REGIAO;
+            MappedByteBuffer[] atual = regioes;
+            if (indice < atual.length) return atual[indice];
+            return mapear(indice);
+        }
+
+        private synchronized MappedByteBuffer mapear(int indice) {
+            MappedByteBuffer[] atual = regioes;
+            if (indice < atual.length) return atual[indice];
+            List<MappedByteBuffer> novas = new ArrayList<>(Arrays.asList(atual));
+            long bytesRegiao = (long) bytesRegistro << BITS_REGIAO;
+            try {
+                for (int i = atual.length; i <= indice; i++) {
+                    novas.add(canal.map(FileChannel.MapMode.READ_WRITE, i * bytesRegiao, bytesRegiao));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao mapear o histórico.", e);
+            }
+            regioes = novas.toArray(new MappedByteBuffer[0]);
+            return regioes[indice];
+        }
+
+        void close() throws IOException {
+            canal.close();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.atividade.entities;
 
 import org.atividade.utilities.Identificavel;
 
+import java.util.Objects;
 import java.util.UUID;
 
 public final class ArvoreGeradoraCredito implements Identificavel {
@@ -11,16 +12,24 @@ public final class ArvoreGeradoraCredito implements Identificavel {
     private final double longitude;
 
     public ArvoreGeradoraCredito(String especie, double latitude, double longitude) {
+        this(Identificavel.novoId(), especie, latitude, longitude);
+    }
+
+    /**
+     * Reconstrói a árvore com identificador já conhecido (ex.: reprodução do journal).
+     */
+    public ArvoreGeradoraCredito(UUID id, String especie, double latitude, double longitude) {
         if (especie == null || especie.isBlank()) {
             throw new IllegalArgumentException("Espécie não pode ser vazia.");
         }
-        if (latitude < -90 || latitude > 90) {
+        // Double.isFinite primeiro: NaN passa por qualquer comparação de faixa.
+        if (!Double.isFinite(latitude) || latitude < -90 || latitude > 90) {
             throw new IllegalArgumentException("Latitude inválida: " + latitude);
         }
-        if (longitude < -180 || longitude > 180) {
+        if (!Double.isFinite(longitude) || longitude < -180 || longitude > 180) {
             throw new IllegalArgumentException("Longitude inválida: " + longitude);
         }
-        this.id = UUID.randomUUID();
+        this.id = Objects.requireNonNull(id, "id");
         this.especie = especie.trim();
         this.latitude = latitude;
         this.longitude = longitude;
@@ -3,19 +3,27 @@ package org.atividade.entities;
 import org.atividade.utilities.Identificavel;
 import org.atividade.utilities.StatusLote;
 
+import java.util.Objects;
 import java.util.UUID;
 
 public final class LoteCreditoCarbono implements Identificavel {
     private final UUID id;
     private final String codigoLote;
     private final int totalCredito; // regra fixa 1000
-    private StatusLote status;
+    private volatile StatusLote status;
 
     public LoteCreditoCarbono(String codigoLote) {
+        this(Identificavel.novoId(), codigoLote);
+    }
+
+    /**
+     * Reconstrói o lote com identificador já conhecido (ex.: reprodução do journal).
+     */
+    public LoteCreditoCarbono(UUID id, String codigoLote) {
         if (codigoLote == null || codigoLote.isBlank()) {
             throw new IllegalArgumentException("Código do lote não pode ser vazio.");
         }
-        this.id = UUID.randomUUID();
+        this.id = Objects.requireNonNull(id, "id");
         this.codigoLote = codigoLote.trim();
         this.totalCredito = 1000;
         this.status = StatusLote.DISPONIVEL;
@@ -0,0 +1,32 @@
+package org.atividade.entities;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Pedido de venda de um lote inteiro, usado na liquidação em bloco
+ * (SistemaCarbono.venderLotes). As regras de negócio são validadas pelo
+ * SistemaCarbono; aqui só se garante que os dados básicos estão presentes.
+ */
+public final class OrdemVenda {
+    private final UUID idLote;
+    private final List<UUID> idsVendedores;
+    private final UUID idComprador;
+    private final BigDecimal valor;
+
+    public OrdemVenda(UUID idLote, List<UUID> idsVendedores, UUID idComprador, BigDecimal valor) {
+        this.idLote = Objects.requireNonNull(idLote, "idLote");
+        this.idComprador = Objects.requireNonNull(idComprador, "idComprador");
+        this.idsVendedores = (idsVendedores == null) ? List.of() : List.copyOf(idsVendedores);
+
+        TransacaoCompraVenda.centavos(valor); // mesma validação da transação, antes de entrar no lote de ordens
+        this.valor = valor;
+    }
+
+    public UUID getIdLote() { return idLote; }
+    public List<UUID> getIdsVendedores() { return idsVendedores; }
+    public UUID getIdComprador() { return idComprador; }
+    public BigDecimal getValor() { return valor; }
+}
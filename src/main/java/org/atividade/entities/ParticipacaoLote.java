@@ -1,6 +1,7 @@
 package org.atividade.entities;
 
 import org.atividade.exceptions.RegraNegocioException;
+import org.atividade.utilities.EpocaMicros;
 import org.atividade.utilities.Identificavel;
 
 import java.time.LocalDateTime;
@@ -13,17 +14,43 @@ import java.util.UUID;
  * Regras do domínio (aplicadas pelo SistemaCarbono):
  * - Um lote possui 1..3 proprietários simultâneos (participações ativas).
  * - A soma das participações ativas deve ser exatamente 1000 créditos.
+ *
+ * As datas são guardadas como microssegundos (EpocaMicros), o que descarta
+ * frações menores; getDataInicio()/getDataFim() convertem a cada chamada.
+ * Para ordenar ou comparar, prefira getInicioMicros()/getFimMicros().
  */
 public final class ParticipacaoLote implements Identificavel {
+    /** Valor de getFimMicros() enquanto a participação é atual. */
+    public static final long SEM_FIM = Long.MIN_VALUE;
+
     private final UUID id;
     private final UUID idLote;
     private final UUID idProprietario;
     private final int quantidadeCreditos;
-    private final LocalDateTime dataInicio;
-    private LocalDateTime dataFim; // null = atual
+    private final long inicioMicros;
+    private long fimMicros; // SEM_FIM = atual
 
     public ParticipacaoLote(UUID idLote, UUID idProprietario, int quantidadeCreditos, LocalDateTime dataInicio) {
-        this.id = UUID.randomUUID();
+        this(Identificavel.novoId(), idLote, idProprietario, quantidadeCreditos, dataInicio);
+    }
+
+    /**
+     * Reconstrói a participação com identificador já conhecido (ex.: reprodução do journal).
+     */
+    public ParticipacaoLote(UUID id, UUID idLote, UUID idProprietario, int quantidadeCreditos, LocalDateTime dataInicio) {
+        this(id, idLote, idProprietario, quantidadeCreditos,
+                EpocaMicros.micros(Objects.requireNonNull(dataInicio, "dataInicio")), SEM_FIM);
+    }
+
+    /**
+     * Reconstrói a participação a partir das datas em microssegundos
+     * (ex.: registro do HistoricoMapeado).
+     *
+     * @param fimMicros SEM_FIM se a participação é atual
+     */
+    public ParticipacaoLote(UUID id, UUID idLote, UUID idProprietario, int quantidadeCreditos,
+                            long inicioMicros, long fimMicros) {
+        this.id = Objects.requireNonNull(id, "id");
         this.idLote = Objects.requireNonNull(idLote, "idLote");
         this.idProprietario = Objects.requireNonNull(idProprietario, "idProprietario");
 
@@ -31,7 +58,8 @@ public final class ParticipacaoLote implements Identificavel {
             throw new IllegalArgumentException("quantidadeCreditos deve ser > 0.");
         }
         this.quantidadeCreditos = quantidadeCreditos;
-        this.dataInicio = Objects.requireNonNull(dataInicio, "dataInicio");
+        this.inicioMicros = inicioMicros;
+        this.fimMicros = fimMicros;
     }
 
     @Override
@@ -52,21 +80,39 @@ public final class ParticipacaoLote implements Identificavel {
     }
 
     public LocalDateTime getDataInicio() {
-        return dataInicio;
+        return EpocaMicros.dataHora(inicioMicros);
     }
 
+    /**
+     * @return null se a participação é atual
+     */
     public LocalDateTime getDataFim() {
-        return dataFim;
+        return isAtual() ? null : EpocaMicros.dataHora(fimMicros);
+    }
+
+    public long getInicioMicros() {
+        return inicioMicros;
+    }
+
+    public long getFimMicros() {
+        return fimMicros;
     }
 
     public boolean isAtual() {
-        return dataFim == null;
+        return fimMicros == SEM_FIM;
     }
 
     public void encerrar(LocalDateTime dataFim) {
-        if (this.dataFim != null) {
+        encerrar(EpocaMicros.micros(Objects.requireNonNull(dataFim, "dataFim")));
+    }
+
+    public void encerrar(long fimMicros) {
+        if (!isAtual()) {
             throw new RegraNegocioException("Participação já encerrada.");
         }
-        this.dataFim = Objects.requireNonNull(dataFim, "dataFim");
+        if (fimMicros == SEM_FIM) {
+            throw new IllegalArgumentException("Data de fim inválida.");
+        }
+        this.fimMicros = fimMicros;
     }
 }
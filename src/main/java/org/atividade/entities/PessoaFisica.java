@@ -1,10 +1,21 @@
 package org.atividade.entities;
 
+import org.atividade.utilities.Identificavel;
+
+import java.util.UUID;
+
 public final class PessoaFisica extends Proprietario {
     private final String cpf;
 
     public PessoaFisica(String nome, String cpf) {
-        super(nome);
+        this(Identificavel.novoId(), nome, cpf);
+    }
+
+    /**
+     * Reconstrói o proprietário com identificador já conhecido (ex.: reprodução do journal).
+     */
+    public PessoaFisica(UUID id, String nome, String cpf) {
+        super(id, nome);
         if (cpf == null || cpf.isBlank()) {
             throw new IllegalArgumentException("CPF não pode ser vazio.");
         }
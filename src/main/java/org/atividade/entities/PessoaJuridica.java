@@ -1,10 +1,21 @@
 package org.atividade.entities;
 
+import org.atividade.utilities.Identificavel;
+
+import java.util.UUID;
+
 public final class PessoaJuridica extends Proprietario {
     private final String cnpj;
 
     public PessoaJuridica(String nome, String cnpj) {
-        super(nome);
+        this(Identificavel.novoId(), nome, cnpj);
+    }
+
+    /**
+     * Reconstrói o proprietário com identificador já conhecido (ex.: reprodução do journal).
+     */
+    public PessoaJuridica(UUID id, String nome, String cnpj) {
+        super(id, nome);
         if (cnpj == null || cnpj.isBlank()) {
             throw new IllegalArgumentException("CNPJ não pode ser vazio.");
         }
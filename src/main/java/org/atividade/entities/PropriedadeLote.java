@@ -16,7 +16,7 @@ public final class PropriedadeLote implements Identificavel {
     private LocalDateTime dataFim; // null = atual
 
     public PropriedadeLote(UUID idLote, UUID idProprietario, int ordemProprietario, LocalDateTime dataInicio) {
-        this.id = UUID.randomUUID();
+        this.id = Identificavel.novoId();
         this.idLote = Objects.requireNonNull(idLote);
         this.idProprietario = Objects.requireNonNull(idProprietario);
 
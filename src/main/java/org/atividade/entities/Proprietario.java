@@ -2,6 +2,7 @@ package org.atividade.entities;
 
 import org.atividade.utilities.Identificavel;
 
+import java.util.Locale;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -10,10 +11,14 @@ public abstract class Proprietario implements Identificavel {
     private final String nome;
 
     protected Proprietario(String nome) {
+        this(Identificavel.novoId(), nome);
+    }
+
+    protected Proprietario(UUID id, String nome) {
         if (nome == null || nome.isBlank()) {
             throw new IllegalArgumentException("Nome do proprietário não pode ser vazio.");
         }
-        this.id = UUID.randomUUID();
+        this.id = Objects.requireNonNull(id, "id");
         this.nome = nome.trim();
     }
 
@@ -25,6 +30,19 @@ public abstract class Proprietario implements Identificavel {
     public abstract String getDocumento();
     public abstract String getTipo(); // PF ou PJ
 
+    /**
+     * Normaliza um documento (CPF/CNPJ) para comparação: remove pontuação,
+     * espaços e converte para maiúsculas.
+     */
+    public static String normalizarDocumento(String documento) {
+        StringBuilder sb = new StringBuilder(documento.length());
+        for (int i = 0; i < documento.length(); i++) {
+            char c = documento.charAt(i);
+            if (Character.isLetterOrDigit(c)) sb.append(c);
+        }
+        return sb.toString().toUpperCase(Locale.ROOT);
+    }
+
     @Override
     public String toString() {
         return getTipo() + " | " + nome + " | Doc: " + getDocumento();
@@ -1,9 +1,11 @@
 package org.atividade.entities;
 
 import org.atividade.exceptions.RegraNegocioException;
+import org.atividade.utilities.EpocaMicros;
 import org.atividade.utilities.Identificavel;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -12,20 +14,55 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Venda de um lote. Valor e data ficam em primitivos: centavos (escala fixa
+ * de 2 casas) e microssegundos (EpocaMicros); getValor()/getDataTransacao()
+ * convertem a cada chamada. Somas, comparações e ordenação devem usar
+ * getValorCentavos()/getDataMicros().
+ */
 public final class TransacaoCompraVenda implements Identificavel {
+    public static final int ESCALA_VALOR = 2;
+    private static final int DIGITOS_INTEIROS_MAXIMOS = 17; // Long.MAX_VALUE centavos = 92233720368547758,07
+
     private final UUID id;
     private final UUID idLote;
     private final List<UUID> idsVendedores; // 1..3 (proprietários simultâneos)
     private final UUID idComprador;
-    private final BigDecimal valor;
-    private final LocalDateTime dataTransacao;
+    private final long valorCentavos;
+    private final long dataMicros;
 
     public TransacaoCompraVenda(UUID idLote,
                                 List<UUID> idsVendedores,
                                 UUID idComprador,
                                 BigDecimal valor,
                                 LocalDateTime dataTransacao) {
-        this.id = UUID.randomUUID();
+        this(Identificavel.novoId(), idLote, idsVendedores, idComprador, valor, dataTransacao);
+    }
+
+    /**
+     * Reconstrói a transação com identificador já conhecido (ex.: reprodução do journal).
+     */
+    public TransacaoCompraVenda(UUID id,
+                                UUID idLote,
+                                List<UUID> idsVendedores,
+                                UUID idComprador,
+                                BigDecimal valor,
+                                LocalDateTime dataTransacao) {
+        this(id, idLote, idsVendedores, idComprador, centavos(valor),
+                EpocaMicros.micros(Objects.requireNonNull(dataTransacao)));
+    }
+
+    /**
+     * Reconstrói a transação a partir do valor em centavos e da data em
+     * microssegundos (ex.: registro do HistoricoMapeado).
+     */
+    public TransacaoCompraVenda(UUID id,
+                                UUID idLote,
+                                List<UUID> idsVendedores,
+                                UUID idComprador,
+                                long valorCentavos,
+                                long dataMicros) {
+        this.id = Objects.requireNonNull(id, "id");
         this.idLote = Objects.requireNonNull(idLote);
         this.idComprador = Objects.requireNonNull(idComprador);
 
@@ -44,13 +81,41 @@ public final class TransacaoCompraVenda implements Identificavel {
         if (set.contains(idComprador)) {
             throw new RegraNegocioException("Comprador não pode ser um dos vendedores.");
         }
-        if (valor == null || valor.compareTo(BigDecimal.ZERO) < 0) {
+        if (valorCentavos < 0) {
             throw new IllegalArgumentException("Valor inválido.");
         }
 
         this.idsVendedores = List.copyOf(new ArrayList<>(idsVendedores));
-        this.valor = valor;
-        this.dataTransacao = Objects.requireNonNull(dataTransacao);
+        this.valorCentavos = valorCentavos;
+        this.dataMicros = dataMicros;
+    }
+
+    /**
+     * Valor em centavos. Recusa valores com mais de 2 casas decimais (não
+     * arredonda dinheiro) ou que não cabem em long.
+     */
+    public static long centavos(BigDecimal valor) {
+        if (valor == null || valor.signum() < 0) {
+            throw new IllegalArgumentException("Valor inválido.");
+        }
+        if (valor.signum() == 0) return 0;
+        // Recusa pela quantidade de dígitos antes do setScale: com expoentes enormes
+        // (1e10000000, 1e-10000000) ele calcularia potências de 10 com milhões de dígitos.
+        // Um valor não nulo com k dígitos não é múltiplo de 10^k, então não perde só zeros.
+        long digitosInteiros = (long) valor.precision() - valor.scale();
+        long casasAMais = (long) valor.scale() - ESCALA_VALOR;
+        if (digitosInteiros > DIGITOS_INTEIROS_MAXIMOS || casasAMais >= valor.precision()) {
+            throw valorInvalido(valor);
+        }
+        try {
+            return valor.setScale(ESCALA_VALOR, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw valorInvalido(valor);
+        }
+    }
+
+    private static IllegalArgumentException valorInvalido(BigDecimal valor) {
+        return new IllegalArgumentException("Valor inválido (até " + ESCALA_VALOR + " casas decimais): " + valor);
     }
 
     @Override
@@ -59,6 +124,8 @@ public final class TransacaoCompraVenda implements Identificavel {
     public UUID getIdLote() { return idLote; }
     public List<UUID> getIdsVendedores() { return idsVendedores; }
     public UUID getIdComprador() { return idComprador; }
-    public BigDecimal getValor() { return valor; }
-    public LocalDateTime getDataTransacao() { return dataTransacao; }
+    public BigDecimal getValor() { return BigDecimal.valueOf(valorCentavos, ESCALA_VALOR); }
+    public LocalDateTime getDataTransacao() { return EpocaMicros.dataHora(dataMicros); }
+    public long getValorCentavos() { return valorCentavos; }
+    public long getDataMicros() { return dataMicros; }
 }
\ No newline at end of file
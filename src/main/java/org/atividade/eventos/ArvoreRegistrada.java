@@ -0,0 +1,17 @@
+package org.atividade.eventos;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+
+import java.util.Objects;
+import java.util.UUID;
+
+public final class ArvoreRegistrada extends EventoDominio {
+    private final ArvoreGeradoraCredito arvore;
+
+    public ArvoreRegistrada(UUID idLote, long sequenciaLote, ArvoreGeradoraCredito arvore) {
+        super(exigirLote(idLote), sequenciaLote);
+        this.arvore = Objects.requireNonNull(arvore);
+    }
+
+    public ArvoreGeradoraCredito getArvore() { return arvore; }
+}
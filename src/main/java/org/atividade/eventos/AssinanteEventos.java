@@ -0,0 +1,10 @@
+package org.atividade.eventos;
+
+/**
+ * Consumidor de eventos. Chamado sempre pela mesma thread da assinatura,
+ * na ordem de publicação.
+ */
+@FunctionalInterface
+public interface AssinanteEventos {
+    void receber(EventoDominio evento);
+}
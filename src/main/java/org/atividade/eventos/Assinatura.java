@@ -0,0 +1,154 @@
+package org.atividade.eventos;
+
+import java.io.Closeable;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Um assinante com seu próprio buffer limitado e sua thread de entrega.
+ * Assinantes lentos só afetam o próprio buffer, conforme a política escolhida.
+ *
+ * oferecer() roda na thread que distribui (PublicadorEventos.distribuir(),
+ * fora do lock do lote) e não usa lock: a vaga no buffer é reservada por CAS
+ * no contador {@code tamanho} e o evento entra numa ConcurrentLinkedQueue. A
+ * thread de entrega só é acordada (unpark) quando está parada esperando
+ * eventos.
+ */
+public final class Assinatura implements Closeable {
+    private static final AtomicInteger CONTADOR = new AtomicInteger();
+    // Espera de quem publica com BLOQUEAR enquanto o buffer está cheio.
+    private static final long ESPERA_BLOQUEIO_NANOS = 100_000;
+    private static final ThreadLocal<Boolean> EM_ENTREGA = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final AssinanteEventos assinante;
+    private final PoliticaBackpressure politica;
+    private final PublicadorEventos publicador;
+
+    private final int capacidade;
+    private final ConcurrentLinkedQueue<EventoDominio> fila = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger tamanho = new AtomicInteger(); // vagas reservadas (>= eventos na fila)
+    private volatile boolean aguardando; // thread de entrega parada, esperando eventos
+    private volatile boolean encerrada;
+
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final Thread entregador;
+
+    Assinatura(PublicadorEventos publicador, AssinanteEventos assinante, int capacidade, PoliticaBackpressure politica) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("capacidade deve ser > 0.");
+        }
+        this.publicador = publicador;
+        this.assinante = Objects.requireNonNull(assinante);
+        this.politica = Objects.requireNonNull(politica);
+        this.capacidade = capacidade;
+
+        this.entregador = new Thread(this::entregar, "eventos-assinante-" + CONTADOR.incrementAndGet());
+        this.entregador.setDaemon(true);
+        this.entregador.start();
+    }
+
+    public PoliticaBackpressure getPolitica() { return politica; }
+
+    /** Eventos que este assinante perdeu por buffer cheio. */
+    public long getDescartados() { return descartados.get(); }
+
+    /** Exceções lançadas pelo assinante (o evento é considerado entregue). */
+    public long getFalhas() { return falhas.get(); }
+
+    public int getPendentes() {
+        return tamanho.get();
+    }
+
+    void oferecer(EventoDominio evento) {
+        if (encerrada) return;
+        while (!reservarVaga()) {
+            switch (politica) {
+                case DESCARTAR_NOVO -> {
+                    descartados.incrementAndGet();
+                    return;
+                }
+                case DESCARTAR_MAIS_ANTIGO -> {
+                    // Fila vazia aqui = vagas reservadas por quem ainda não inseriu: tenta de novo.
+                    if (fila.poll() != null) {
+                        tamanho.decrementAndGet();
+                        descartados.incrementAndGet();
+                    }
+                }
+                case BLOQUEAR -> {
+                    if (encerrada) return;
+                    if (Thread.currentThread() == entregador) {
+                        // Só esta thread esvazia o buffer: esperar aqui nunca terminaria.
+                        tamanho.incrementAndGet();
+                        fila.offer(evento);
+                        return;
+                    }
+                    LockSupport.parkNanos(this, ESPERA_BLOQUEIO_NANOS);
+                }
+            }
+        }
+        fila.offer(evento);
+        if (aguardando) LockSupport.unpark(entregador);
+    }
+
+    private boolean reservarVaga() {
+        while (true) {
+            int atual = tamanho.get();
+            if (atual >= capacidade) return false;
+            if (tamanho.compareAndSet(atual, atual + 1)) return true;
+        }
+    }
+
+    /** Se a thread atual é a thread de entrega de alguma assinatura. */
+    static boolean naThreadDeEntrega() {
+        return EM_ENTREGA.get();
+    }
+
+    private void entregar() {
+        EM_ENTREGA.set(Boolean.TRUE);
+        while (true) {
+            EventoDominio evento = fila.poll();
+            if (evento == null) {
+                if (encerrada) {
+                    // Vaga reservada com a fila vazia: um publicador está inserindo, espera por ele.
+                    if (tamanho.get() == 0) return;
+                    Thread.onSpinWait();
+                    continue;
+                } else {
+                    // Publica "aguardando" antes de conferir a fila: quem inserir depois vê a flag e acorda.
+                    aguardando = true;
+                    if (fila.isEmpty() && !encerrada) LockSupport.park(this);
+                    aguardando = false;
+                    continue;
+                }
+            }
+            tamanho.decrementAndGet();
+
+            try {
+                assinante.receber(evento);
+            } catch (RuntimeException e) {
+                falhas.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Cancela a assinatura. Eventos já no buffer ainda são entregues.
+     */
+    @Override
+    public void close() {
+        publicador.remover(this);
+        encerrada = true;
+        LockSupport.unpark(entregador);
+    }
+
+    /**
+     * Espera a thread de entrega terminar (depois de close).
+     */
+    public void aguardarTermino() throws InterruptedException {
+        entregador.join();
+    }
+}
@@ -0,0 +1,39 @@
+package org.atividade.eventos;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Evento emitido pelo SistemaCarbono depois de cada alteração aplicada.
+ *
+ * Eventos de lote trazem a sequência do lote: 1 na criação e +1 a cada
+ * alteração (árvore, participações iniciais, venda, status), sem lacunas e na
+ * mesma ordem em que foram aplicadas. A sequência é reconstruída pelo journal
+ * e gravada no snapshot, por isso continua de onde parou depois de reiniciar.
+ * Eventos de proprietário não têm lote (idLote null, sequência 0).
+ */
+public abstract class EventoDominio {
+    private final UUID idLote;
+    private final long sequenciaLote;
+    private final LocalDateTime dataEvento;
+
+    protected EventoDominio(UUID idLote, long sequenciaLote) {
+        this.idLote = idLote;
+        this.sequenciaLote = sequenciaLote;
+        this.dataEvento = LocalDateTime.now();
+    }
+
+    public UUID getIdLote() { return idLote; }
+    public long getSequenciaLote() { return sequenciaLote; }
+    public LocalDateTime getDataEvento() { return dataEvento; }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{lote=" + idLote + ", seq=" + sequenciaLote + "}";
+    }
+
+    static UUID exigirLote(UUID idLote) {
+        return Objects.requireNonNull(idLote, "idLote");
+    }
+}
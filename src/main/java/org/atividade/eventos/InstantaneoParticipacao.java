@@ -0,0 +1,51 @@
+package org.atividade.eventos;
+
+import org.atividade.entities.ParticipacaoLote;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cópia imutável de uma ParticipacaoLote no momento do evento. A
+ * participação em si continua mudando (é encerrada numa venda posterior),
+ * e o evento pode ser entregue bem depois; o assinante vê o estado de quando
+ * a alteração foi aplicada.
+ */
+public final class InstantaneoParticipacao {
+    private final UUID id;
+    private final UUID idLote;
+    private final UUID idProprietario;
+    private final int quantidadeCreditos;
+    private final long inicioMicros;
+    private final long fimMicros;
+
+    private InstantaneoParticipacao(ParticipacaoLote p) {
+        this.id = p.getId();
+        this.idLote = p.getIdLote();
+        this.idProprietario = p.getIdProprietario();
+        this.quantidadeCreditos = p.getQuantidadeCreditos();
+        this.inicioMicros = p.getInicioMicros();
+        this.fimMicros = p.getFimMicros();
+    }
+
+    public static InstantaneoParticipacao de(ParticipacaoLote p) {
+        return new InstantaneoParticipacao(p);
+    }
+
+    static List<InstantaneoParticipacao> de(List<ParticipacaoLote> participacoes) {
+        return participacoes.stream().map(InstantaneoParticipacao::new).toList();
+    }
+
+    public UUID getId() { return id; }
+    public UUID getIdLote() { return idLote; }
+    public UUID getIdProprietario() { return idProprietario; }
+    public int getQuantidadeCreditos() { return quantidadeCreditos; }
+    public long getInicioMicros() { return inicioMicros; }
+
+    /**
+     * @return ParticipacaoLote.SEM_FIM se a participação era atual no evento
+     */
+    public long getFimMicros() { return fimMicros; }
+
+    public boolean isAtual() { return fimMicros == ParticipacaoLote.SEM_FIM; }
+}
@@ -0,0 +1,14 @@
+package org.atividade.eventos;
+
+import org.atividade.entities.LoteCreditoCarbono;
+
+public final class LoteCriado extends EventoDominio {
+    private final LoteCreditoCarbono lote;
+
+    public LoteCriado(LoteCreditoCarbono lote, long sequenciaLote) {
+        super(exigirLote(lote.getId()), sequenciaLote);
+        this.lote = lote;
+    }
+
+    public LoteCreditoCarbono getLote() { return lote; }
+}
@@ -0,0 +1,17 @@
+package org.atividade.eventos;
+
+import org.atividade.entities.ParticipacaoLote;
+
+import java.util.List;
+import java.util.UUID;
+
+public final class ParticipacoesDefinidas extends EventoDominio {
+    private final List<InstantaneoParticipacao> participacoes;
+
+    public ParticipacoesDefinidas(UUID idLote, long sequenciaLote, List<ParticipacaoLote> participacoes) {
+        super(exigirLote(idLote), sequenciaLote);
+        this.participacoes = InstantaneoParticipacao.de(participacoes);
+    }
+
+    public List<InstantaneoParticipacao> getParticipacoes() { return participacoes; }
+}
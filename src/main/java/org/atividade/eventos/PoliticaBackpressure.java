@@ -0,0 +1,13 @@
+package org.atividade.eventos;
+
+/**
+ * O que fazer quando o buffer de um assinante está cheio.
+ */
+public enum PoliticaBackpressure {
+    /** Sobrescreve o evento mais antigo ainda não entregue; quem publica nunca espera. */
+    DESCARTAR_MAIS_ANTIGO,
+    /** Descarta o evento novo para este assinante; quem publica nunca espera. */
+    DESCARTAR_NOVO,
+    /** Quem publica espera haver espaço (atrasa a operação, mas já sem o lock do lote). */
+    BLOQUEAR
+}
@@ -0,0 +1,16 @@
+package org.atividade.eventos;
+
+import org.atividade.entities.Proprietario;
+
+import java.util.Objects;
+
+public final class ProprietarioCadastrado extends EventoDominio {
+    private final Proprietario proprietario;
+
+    public ProprietarioCadastrado(Proprietario proprietario) {
+        super(null, 0);
+        this.proprietario = Objects.requireNonNull(proprietario);
+    }
+
+    public Proprietario getProprietario() { return proprietario; }
+}
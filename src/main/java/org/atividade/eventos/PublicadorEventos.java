@@ -0,0 +1,80 @@
+package org.atividade.eventos;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Distribui eventos a vários assinantes, cada um com buffer limitado.
+ *
+ * Quem altera um lote só enfileira o evento (enfileirar(), sem lock e sem
+ * espera) e, depois de soltar o lock do lote, chama distribuir(). Uma thread
+ * por vez passa a fila para os buffers, na ordem em que os eventos entraram,
+ * então a ordem de cada lote é a ordem em que foram aplicados. Assim um
+ * assinante BLOQUEAR lento nunca deixa um lote travado, e o próprio assinante
+ * pode alterar o lote cujo evento está recebendo. Sem assinantes, não custa
+ * nada (o SistemaCarbono nem cria o evento, ver temAssinantes()).
+ */
+public final class PublicadorEventos {
+    // Espera de quem chamou distribuir() enquanto outra thread distribui.
+    private static final long ESPERA_DISTRIBUICAO_NANOS = 100_000;
+
+    private final CopyOnWriteArrayList<Assinatura> assinaturas = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<EventoDominio> pendentes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean distribuindo = new AtomicBoolean();
+
+    public Assinatura assinar(AssinanteEventos assinante, int capacidade, PoliticaBackpressure politica) {
+        Assinatura a = new Assinatura(this, assinante, capacidade, politica);
+        assinaturas.add(a);
+        return a;
+    }
+
+    public boolean temAssinantes() {
+        return !assinaturas.isEmpty();
+    }
+
+    /** Enfileira e distribui; não deve ser chamado com o lock de um lote. */
+    public void publicar(EventoDominio evento) {
+        enfileirar(evento);
+        distribuir();
+    }
+
+    /** Enfileira o evento sem esperar; pode ser chamado com o lock do lote. */
+    public void enfileirar(EventoDominio evento) {
+        pendentes.offer(evento);
+    }
+
+    /**
+     * Passa os eventos enfileirados para os buffers dos assinantes. Com
+     * BLOQUEAR, espera haver espaço; por isso deve ser chamado sem nenhum lock
+     * de lote. Se outra thread já está distribuindo, espera por ela (é essa
+     * espera que segura quem publica mais rápido do que os assinantes leem),
+     * exceto na thread de entrega de um assinante: quem distribui pode estar
+     * esperando justamente esse assinante, que então só deixa o evento na fila.
+     */
+    public void distribuir() {
+        while (!pendentes.isEmpty()) {
+            if (distribuindo.compareAndSet(false, true)) {
+                try {
+                    EventoDominio evento;
+                    while ((evento = pendentes.poll()) != null) {
+                        for (Assinatura a : assinaturas) {
+                            a.oferecer(evento);
+                        }
+                    }
+                } finally {
+                    distribuindo.set(false);
+                }
+            } else if (Assinatura.naThreadDeEntrega()) {
+                return;
+            } else {
+                LockSupport.parkNanos(this, ESPERA_DISTRIBUICAO_NANOS);
+            }
+        }
+    }
+
+    void remover(Assinatura a) {
+        assinaturas.remove(a);
+    }
+}
@@ -0,0 +1,20 @@
+package org.atividade.eventos;
+
+import org.atividade.utilities.StatusLote;
+
+import java.util.Objects;
+import java.util.UUID;
+
+public final class StatusLoteAlterado extends EventoDominio {
+    private final StatusLote anterior;
+    private final StatusLote novo;
+
+    public StatusLoteAlterado(UUID idLote, long sequenciaLote, StatusLote anterior, StatusLote novo) {
+        super(exigirLote(idLote), sequenciaLote);
+        this.anterior = Objects.requireNonNull(anterior);
+        this.novo = Objects.requireNonNull(novo);
+    }
+
+    public StatusLote getAnterior() { return anterior; }
+    public StatusLote getNovo() { return novo; }
+}
@@ -0,0 +1,29 @@
+package org.atividade.eventos;
+
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.TransacaoCompraVenda;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Venda aplicada: a transação, as participações encerradas por ela e a
+ * nova participação do comprador, copiadas como estavam logo após a venda.
+ */
+public final class VendaEfetivada extends EventoDominio {
+    private final TransacaoCompraVenda transacao;
+    private final List<InstantaneoParticipacao> encerradas;
+    private final InstantaneoParticipacao nova;
+
+    public VendaEfetivada(long sequenciaLote, TransacaoCompraVenda transacao,
+                          List<ParticipacaoLote> encerradas, ParticipacaoLote nova) {
+        super(exigirLote(transacao.getIdLote()), sequenciaLote);
+        this.transacao = transacao;
+        this.encerradas = InstantaneoParticipacao.de(encerradas);
+        this.nova = InstantaneoParticipacao.de(Objects.requireNonNull(nova));
+    }
+
+    public TransacaoCompraVenda getTransacao() { return transacao; }
+    public List<InstantaneoParticipacao> getEncerradas() { return encerradas; }
+    public InstantaneoParticipacao getNova() { return nova; }
+}
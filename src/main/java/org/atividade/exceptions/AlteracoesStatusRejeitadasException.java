@@ -0,0 +1,40 @@
+package org.atividade.exceptions;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lançada quando um ou mais lotes de uma alteração de status em bloco não
+ * podem passar para o status pedido. Nenhum lote do bloco é alterado.
+ */
+public class AlteracoesStatusRejeitadasException extends RegraNegocioException {
+    private final Map<UUID, RegraNegocioException> erros;
+
+    public AlteracoesStatusRejeitadasException(Map<UUID, RegraNegocioException> erros) {
+        super(montarMensagem(erros));
+        this.erros = Collections.unmodifiableMap(new LinkedHashMap<>(erros));
+    }
+
+    /**
+     * Erros por id do lote, na ordem em que os lotes foram informados.
+     */
+    public Map<UUID, RegraNegocioException> getErros() {
+        return erros;
+    }
+
+    private static String montarMensagem(Map<UUID, RegraNegocioException> erros) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(erros.size()).append(" lote(s) rejeitado(s); nenhum status foi alterado.");
+        int mostrados = 0;
+        for (Map.Entry<UUID, RegraNegocioException> e : erros.entrySet()) {
+            if (mostrados++ == 20) {
+                sb.append("\n - ...");
+                break;
+            }
+            sb.append("\n - Lote ").append(e.getKey()).append(": ").append(e.getValue().getMessage());
+        }
+        return sb.toString();
+    }
+}
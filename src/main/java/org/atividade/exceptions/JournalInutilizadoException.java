@@ -0,0 +1,17 @@
+package org.atividade.exceptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Lançada quando o journal falha depois de o registro chegar ao arquivo (por
+ * exemplo, no fsync). Não se sabe se o registro está no disco: ele pode voltar
+ * na recuperação, então a operação não deve ser desfeita em memória. O journal
+ * deixa de aceitar gravações até ser reaberto.
+ */
+public class JournalInutilizadoException extends UncheckedIOException {
+
+    public JournalInutilizadoException(String mensagem, IOException causa) {
+        super(mensagem, causa);
+    }
+}
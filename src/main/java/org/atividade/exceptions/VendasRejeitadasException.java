@@ -0,0 +1,34 @@
+package org.atividade.exceptions;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lançada quando uma ou mais ordens de uma venda em bloco violam regras de
+ * negócio. Nenhuma ordem do bloco é efetivada.
+ */
+public class VendasRejeitadasException extends RegraNegocioException {
+    private final Map<Integer, RegraNegocioException> erros;
+
+    public VendasRejeitadasException(Map<Integer, RegraNegocioException> erros) {
+        super(montarMensagem(erros));
+        this.erros = Collections.unmodifiableMap(new TreeMap<>(erros));
+    }
+
+    /**
+     * Erros por posição (índice 0-based) da ordem no bloco.
+     */
+    public Map<Integer, RegraNegocioException> getErros() {
+        return erros;
+    }
+
+    private static String montarMensagem(Map<Integer, RegraNegocioException> erros) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(erros.size()).append(" ordem(ns) de venda rejeitada(s); nenhuma venda foi efetivada.");
+        for (Map.Entry<Integer, RegraNegocioException> e : new TreeMap<>(erros).entrySet()) {
+            sb.append("\n - Ordem #").append(e.getKey()).append(": ").append(e.getValue().getMessage());
+        }
+        return sb.toString();
+    }
+}
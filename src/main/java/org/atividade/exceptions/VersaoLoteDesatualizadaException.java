@@ -0,0 +1,25 @@
+package org.atividade.exceptions;
+
+import java.util.UUID;
+
+/**
+ * Lançada quando uma operação condicionada à versão do lote encontra o lote
+ * numa versão diferente da esperada (outra alteração chegou antes).
+ * Releia o lote e decida de novo com a versão atual.
+ */
+public class VersaoLoteDesatualizadaException extends RegraNegocioException {
+    private final UUID idLote;
+    private final long versaoEsperada;
+    private final long versaoAtual;
+
+    public VersaoLoteDesatualizadaException(UUID idLote, long versaoEsperada, long versaoAtual) {
+        super("Lote " + idLote + " foi alterado: versão esperada " + versaoEsperada + ", atual " + versaoAtual + ".");
+        this.idLote = idLote;
+        this.versaoEsperada = versaoEsperada;
+        this.versaoAtual = versaoAtual;
+    }
+
+    public UUID getIdLote() { return idLote; }
+    public long getVersaoEsperada() { return versaoEsperada; }
+    public long getVersaoAtual() { return versaoAtual; }
+}
@@ -0,0 +1,44 @@
+package org.atividade.exportacao;
+
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.utilities.StatusLote;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Estado de um lote no instante do corte da exportação: o status, a
+ * sequência, quantos itens de cada histórico fazem parte do corte e quais
+ * participações ainda estavam atuais (as demais podem ter sido encerradas depois).
+ */
+public final class CorteLote {
+    private final LoteCreditoCarbono lote;
+    private final StatusLote status;
+    private final long sequencia;
+    private final int arvores;
+    private final int participacoes;
+    private final int transacoes;
+    private final Set<UUID> participacoesAtuais;
+
+    public CorteLote(LoteCreditoCarbono lote, StatusLote status, long sequencia,
+                     int arvores, int participacoes, int transacoes, Set<UUID> participacoesAtuais) {
+        this.lote = lote;
+        this.status = status;
+        this.sequencia = sequencia;
+        this.arvores = arvores;
+        this.participacoes = participacoes;
+        this.transacoes = transacoes;
+        this.participacoesAtuais = Set.copyOf(participacoesAtuais);
+    }
+
+    public LoteCreditoCarbono getLote() { return lote; }
+    public StatusLote getStatus() { return status; }
+    public long getSequencia() { return sequencia; }
+    public int getArvores() { return arvores; }
+    public int getParticipacoes() { return participacoes; }
+    public int getTransacoes() { return transacoes; }
+
+    public boolean isParticipacaoAtual(UUID idParticipacao) {
+        return participacoesAtuais.contains(idParticipacao);
+    }
+}
@@ -0,0 +1,219 @@
+package org.atividade.exportacao;
+
+import org.atividade.utilities.EpocaMicros;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Grava um arquivo colunar em grupos de linhas.
+ *
+ * Formato:
+ * - cabeçalho: [int mágico "CBCL"][int versão][entidade][int nº colunas]
+ *   e, por coluna, [nome][byte TipoColuna.ordinal()]; entidade e nomes são
+ *   [short tamanho][bytes UTF-8]
+ * - grupos: [int nº linhas &gt; 0][int tamanho em bytes de cada coluna]
+ *   seguido dos dados de cada coluna, em ordem (ver TipoColuna)
+ * - rodapé: [int 0][long total de linhas]
+ *
+ * Cada coluna é acumulada num buffer direto; o grupo é gravado com uma
+ * única escrita "gathering" no FileChannel, sem copiar para o heap.
+ * Os valores de uma linha são informados na ordem das colunas e a linha é
+ * encerrada com fimLinha().
+ */
+public final class EscritorColunar implements Closeable {
+    public static final int MAGICO = 0x4342434C; // "CBCL"
+    public static final int VERSAO = 1;
+
+    private static final int LINHAS_POR_GRUPO = 65_536;
+    private static final int BYTES_MAXIMOS_COLUNA = 8 << 20; // grava o grupo antes se alguma coluna passar disso
+
+    private final FileChannel canal;
+    private final TipoColuna[] tipos;
+    private final ByteBuffer[] colunas;
+    private int coluna;
+    private int linhasNoGrupo;
+    private long totalLinhas;
+
+    public EscritorColunar(Path arquivo, String entidade, String[] nomes, TipoColuna[] tipos) throws IOException {
+        if (nomes.length != tipos.length || nomes.length == 0) {
+            throw new IllegalArgumentException("Informe o mesmo número (> 0) de nomes e tipos de coluna.");
+        }
+        this.tipos = tipos.clone();
+        this.colunas = new ByteBuffer[tipos.length];
+        for (int i = 0; i < tipos.length; i++) {
+            colunas[i] = ByteBuffer.allocateDirect(capacidadeInicial(tipos[i]));
+        }
+
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer cabecalho = ByteBuffer.allocate(4096);
+            cabecalho.putInt(MAGICO).putInt(VERSAO);
+            cabecalho = utf(cabecalho, entidade);
+            cabecalho.putInt(tipos.length);
+            for (int i = 0; i < tipos.length; i++) {
+                cabecalho = utf(cabecalho, nomes[i]);
+                cabecalho.put((byte) tipos[i].ordinal());
+            }
+            cabecalho.flip();
+            escreverTudo(cabecalho);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    public long getTotalLinhas() {
+        return totalLinhas + linhasNoGrupo;
+    }
+
+    public EscritorColunar uuid(UUID valor) {
+        ByteBuffer b = proxima(TipoColuna.UUID, 16);
+        b.putLong(valor == null ? 0 : valor.getMostSignificantBits());
+        b.putLong(valor == null ? 0 : valor.getLeastSignificantBits());
+        return this;
+    }
+
+    public EscritorColunar inteiro(int valor) {
+        proxima(TipoColuna.INT, 4).putInt(valor);
+        return this;
+    }
+
+    public EscritorColunar longo(long valor) {
+        proxima(TipoColuna.LONG, 8).putLong(valor);
+        return this;
+    }
+
+    public EscritorColunar real(double valor) {
+        proxima(TipoColuna.DOUBLE, 8).putDouble(valor);
+        return this;
+    }
+
+    public EscritorColunar texto(String valor) {
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        proxima(TipoColuna.TEXTO, 4 + bytes.length).putInt(bytes.length).put(bytes);
+        return this;
+    }
+
+    public EscritorColunar decimal(BigDecimal valor) {
+        byte[] semEscala = valor.unscaledValue().toByteArray();
+        proxima(TipoColuna.DECIMAL, 6 + semEscala.length)
+                .putInt(valor.scale()).putShort((short) semEscala.length).put(semEscala);
+        return this;
+    }
+
+    public EscritorColunar timestamp(LocalDateTime valor) {
+        return timestampMicros(valor == null ? Long.MIN_VALUE : EpocaMicros.micros(valor));
+    }
+
+    /**
+     * @param micros microssegundos (EpocaMicros); Long.MIN_VALUE é nulo
+     */
+    public EscritorColunar timestampMicros(long micros) {
+        proxima(TipoColuna.TIMESTAMP, 8).putLong(micros);
+        return this;
+    }
+
+    public void fimLinha() throws IOException {
+        if (coluna != tipos.length) {
+            throw new IllegalStateException("Linha incompleta: " + coluna + " de " + tipos.length + " colunas.");
+        }
+        coluna = 0;
+        linhasNoGrupo++;
+
+        boolean cheio = linhasNoGrupo == LINHAS_POR_GRUPO;
+        for (int i = 0; i < colunas.length && !cheio; i++) {
+            cheio = colunas[i].position() >= BYTES_MAXIMOS_COLUNA;
+        }
+        if (cheio) gravarGrupo();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (coluna != 0) {
+                throw new IllegalStateException("Última linha incompleta.");
+            }
+            if (linhasNoGrupo > 0) gravarGrupo();
+            ByteBuffer rodape = ByteBuffer.allocate(12).putInt(0).putLong(totalLinhas);
+            rodape.flip();
+            escreverTudo(rodape);
+            canal.force(false);
+        } finally {
+            canal.close();
+        }
+    }
+
+    private ByteBuffer proxima(TipoColuna tipo, int bytes) {
+        if (coluna >= tipos.length || tipos[coluna] != tipo) {
+            throw new IllegalStateException("Coluna " + coluna + " não é do tipo " + tipo + ".");
+        }
+        ByteBuffer b = colunas[coluna];
+        if (b.remaining() < bytes) {
+            ByteBuffer maior = ByteBuffer.allocateDirect(Math.max(b.capacity() * 2, b.position() + bytes));
+            b.flip();
+            maior.put(b);
+            colunas[coluna] = maior;
+            b = maior;
+        }
+        coluna++;
+        return b;
+    }
+
+    private void gravarGrupo() throws IOException {
+        ByteBuffer[] partes = new ByteBuffer[colunas.length + 1];
+        ByteBuffer cabecalho = ByteBuffer.allocateDirect(4 + 4 * colunas.length);
+        cabecalho.putInt(linhasNoGrupo);
+        for (ByteBuffer c : colunas) cabecalho.putInt(c.position());
+        cabecalho.flip();
+
+        partes[0] = cabecalho;
+        for (int i = 0; i < colunas.length; i++) {
+            colunas[i].flip();
+            partes[i + 1] = colunas[i];
+        }
+        long restante = 0;
+        for (ByteBuffer p : partes) restante += p.remaining();
+        while (restante > 0) {
+            restante -= canal.write(partes);
+        }
+
+        for (ByteBuffer c : colunas) c.clear();
+        totalLinhas += linhasNoGrupo;
+        linhasNoGrupo = 0;
+    }
+
+    private void escreverTudo(ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) canal.write(b);
+    }
+
+    private static ByteBuffer utf(ByteBuffer b, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) throw new IllegalArgumentException("Nome longo demais: " + s);
+        if (b.remaining() < 2 + bytes.length + 5) {
+            ByteBuffer maior = ByteBuffer.allocate(b.capacity() * 2 + bytes.length);
+            b.flip();
+            maior.put(b);
+            b = maior;
+        }
+        return b.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static int capacidadeInicial(TipoColuna tipo) {
+        return switch (tipo) {
+            case UUID -> 16 * LINHAS_POR_GRUPO;
+            case INT -> 4 * LINHAS_POR_GRUPO;
+            case LONG, DOUBLE, TIMESTAMP -> 8 * LINHAS_POR_GRUPO;
+            case TEXTO, DECIMAL -> 1 << 20;
+        };
+    }
+}
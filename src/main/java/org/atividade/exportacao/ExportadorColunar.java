@@ -0,0 +1,184 @@
+package org.atividade.exportacao;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.Proprietario;
+import org.atividade.entities.TransacaoCompraVenda;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Exporta um corte do estado para arquivos colunares (um por entidade,
+ * ver EscritorColunar), gravando as entidades em paralelo.
+ *
+ * Arquivos: proprietarios, lotes, arvores, participacoes e transacoes, com
+ * extensão ".cbcl". Cada um é gravado num temporário e renomeado no fim,
+ * então um arquivo presente no diretório está sempre completo.
+ */
+public final class ExportadorColunar {
+    public static final String EXTENSAO = ".cbcl";
+
+    private ExportadorColunar() {
+    }
+
+    public static ResultadoExportacao exportar(FonteExportacao fonte, Path diretorio) throws IOException {
+        long inicio = System.nanoTime();
+        Files.createDirectories(diretorio);
+
+        Map<String, Callable<Long>> tarefas = new LinkedHashMap<>();
+        tarefas.put("proprietarios", () -> proprietarios(fonte, diretorio));
+        tarefas.put("lotes", () -> lotes(fonte, diretorio));
+        tarefas.put("arvores", () -> arvores(fonte, diretorio));
+        tarefas.put("participacoes", () -> participacoes(fonte, diretorio));
+        tarefas.put("transacoes", () -> transacoes(fonte, diretorio));
+
+        ExecutorService pool = Executors.newFixedThreadPool(tarefas.size(), r -> {
+            Thread t = new Thread(r, "exportacao");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            Map<String, Future<Long>> futuros = new LinkedHashMap<>();
+            for (Map.Entry<String, Callable<Long>> e : tarefas.entrySet()) {
+                futuros.put(e.getKey(), pool.submit(e.getValue()));
+            }
+
+            Map<String, Path> arquivos = new LinkedHashMap<>();
+            Map<String, Long> linhas = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<Long>> e : futuros.entrySet()) {
+                linhas.put(e.getKey(), aguardar(e.getValue()));
+                arquivos.put(e.getKey(), diretorio.resolve(e.getKey() + EXTENSAO));
+            }
+            return new ResultadoExportacao(arquivos, linhas, (System.nanoTime() - inicio) / 1_000_000);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long aguardar(Future<Long> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Exportação interrompida.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IOException(e.getCause());
+        }
+    }
+
+    // =========================
+    // ===== ENTIDADES =========
+    // =========================
+
+    private static long proprietarios(FonteExportacao fonte, Path diretorio) throws IOException {
+        return gravar(diretorio, "proprietarios",
+                new String[]{"id", "tipo", "nome", "documento"},
+                new TipoColuna[]{TipoColuna.UUID, TipoColuna.TEXTO, TipoColuna.TEXTO, TipoColuna.TEXTO},
+                out -> {
+                    for (Proprietario p : fonte.proprietarios()) {
+                        out.uuid(p.getId()).texto(p.getTipo()).texto(p.getNome()).texto(p.getDocumento());
+                        out.fimLinha();
+                    }
+                });
+    }
+
+    private static long lotes(FonteExportacao fonte, Path diretorio) throws IOException {
+        return gravar(diretorio, "lotes",
+                new String[]{"id", "codigo", "status", "total_creditos", "sequencia", "arvores"},
+                new TipoColuna[]{TipoColuna.UUID, TipoColuna.TEXTO, TipoColuna.TEXTO,
+                        TipoColuna.INT, TipoColuna.LONG, TipoColuna.INT},
+                out -> {
+                    for (CorteLote c : fonte.lotes()) {
+                        out.uuid(c.getLote().getId()).texto(c.getLote().getCodigoLote()).texto(c.getStatus().name())
+                                .inteiro(c.getLote().getTotalCredito()).longo(c.getSequencia()).inteiro(c.getArvores());
+                        out.fimLinha();
+                    }
+                });
+    }
+
+    private static long arvores(FonteExportacao fonte, Path diretorio) throws IOException {
+        return gravar(diretorio, "arvores",
+                new String[]{"id", "id_lote", "especie", "latitude", "longitude"},
+                new TipoColuna[]{TipoColuna.UUID, TipoColuna.UUID, TipoColuna.TEXTO, TipoColuna.DOUBLE, TipoColuna.DOUBLE},
+                out -> {
+                    for (CorteLote c : fonte.lotes()) {
+                        UUID idLote = c.getLote().getId();
+                        for (ArvoreGeradoraCredito a : fonte.arvores(c)) {
+                            out.uuid(a.getId()).uuid(idLote).texto(a.getEspecie())
+                                    .real(a.getLatitude()).real(a.getLongitude());
+                            out.fimLinha();
+                        }
+                    }
+                });
+    }
+
+    private static long participacoes(FonteExportacao fonte, Path diretorio) throws IOException {
+        return gravar(diretorio, "participacoes",
+                new String[]{"id", "id_lote", "id_proprietario", "creditos", "inicio", "fim"},
+                new TipoColuna[]{TipoColuna.UUID, TipoColuna.UUID, TipoColuna.UUID,
+                        TipoColuna.INT, TipoColuna.TIMESTAMP, TipoColuna.TIMESTAMP},
+                out -> {
+                    for (CorteLote c : fonte.lotes()) {
+                        for (ParticipacaoLote p : fonte.participacoes(c)) {
+                            // Encerrada depois do corte: no corte ainda era atual.
+                            boolean atual = c.isParticipacaoAtual(p.getId());
+                            out.uuid(p.getId()).uuid(p.getIdLote()).uuid(p.getIdProprietario())
+                                    .inteiro(p.getQuantidadeCreditos()).timestampMicros(p.getInicioMicros())
+                                    .timestampMicros(atual ? ParticipacaoLote.SEM_FIM : p.getFimMicros());
+                            out.fimLinha();
+                        }
+                    }
+                });
+    }
+
+    private static long transacoes(FonteExportacao fonte, Path diretorio) throws IOException {
+        return gravar(diretorio, "transacoes",
+                new String[]{"id", "id_lote", "id_comprador", "id_vendedor_1", "id_vendedor_2", "id_vendedor_3", "valor", "data"},
+                new TipoColuna[]{TipoColuna.UUID, TipoColuna.UUID, TipoColuna.UUID, TipoColuna.UUID,
+                        TipoColuna.UUID, TipoColuna.UUID, TipoColuna.DECIMAL, TipoColuna.TIMESTAMP},
+                out -> {
+                    for (CorteLote c : fonte.lotes()) {
+                        for (TransacaoCompraVenda t : fonte.transacoes(c)) {
+                            List<UUID> v = t.getIdsVendedores();
+                            out.uuid(t.getId()).uuid(t.getIdLote()).uuid(t.getIdComprador())
+                                    .uuid(v.get(0)).uuid(v.size() > 1 ? v.get(1) : null).uuid(v.size() > 2 ? v.get(2) : null)
+                                    .decimal(t.getValor()).timestampMicros(t.getDataMicros());
+                            out.fimLinha();
+                        }
+                    }
+                });
+    }
+
+    private static long gravar(Path diretorio, String entidade, String[] nomes, TipoColuna[] tipos,
+                               Preenchimento preenchimento) throws IOException {
+        Path temporario = diretorio.resolve(entidade + EXTENSAO + ".tmp");
+        long linhas;
+        try (EscritorColunar out = new EscritorColunar(temporario, entidade, nomes, tipos)) {
+            preenchimento.preencher(out);
+            linhas = out.getTotalLinhas();
+        }
+        Files.move(temporario, diretorio.resolve(entidade + EXTENSAO),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return linhas;
+    }
+
+    @FunctionalInterface
+    private interface Preenchimento {
+        void preencher(EscritorColunar out) throws IOException;
+    }
+}
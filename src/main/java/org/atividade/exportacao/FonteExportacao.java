@@ -0,0 +1,25 @@
+package org.atividade.exportacao;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.Proprietario;
+import org.atividade.entities.TransacaoCompraVenda;
+
+import java.util.List;
+
+/**
+ * Estado congelado num corte (ver SistemaCarbono.exportarColunar). Os
+ * métodos por lote devolvem só os itens que existiam no corte e podem ser
+ * chamados de threads diferentes ao mesmo tempo.
+ */
+public interface FonteExportacao {
+    List<Proprietario> proprietarios();
+
+    List<CorteLote> lotes();
+
+    List<ArvoreGeradoraCredito> arvores(CorteLote lote);
+
+    List<ParticipacaoLote> participacoes(CorteLote lote);
+
+    List<TransacaoCompraVenda> transacoes(CorteLote lote);
+}
@@ -0,0 +1,30 @@
+package org.atividade.exportacao;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Arquivos gerados por entidade, com a quantidade de linhas de cada um.
+ */
+public final class ResultadoExportacao {
+    private final Map<String, Path> arquivos;
+    private final Map<String, Long> linhas;
+    private final long duracaoMillis;
+
+    ResultadoExportacao(Map<String, Path> arquivos, Map<String, Long> linhas, long duracaoMillis) {
+        this.arquivos = Collections.unmodifiableMap(new LinkedHashMap<>(arquivos));
+        this.linhas = Collections.unmodifiableMap(new LinkedHashMap<>(linhas));
+        this.duracaoMillis = duracaoMillis;
+    }
+
+    public Map<String, Path> getArquivos() { return arquivos; }
+    public Map<String, Long> getLinhas() { return linhas; }
+    public long getDuracaoMillis() { return duracaoMillis; }
+
+    @Override
+    public String toString() {
+        return "ResultadoExportacao{linhas=" + linhas + ", " + duracaoMillis + " ms}";
+    }
+}
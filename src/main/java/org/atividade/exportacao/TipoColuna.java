@@ -0,0 +1,21 @@
+package org.atividade.exportacao;
+
+/**
+ * Tipos de coluna dos arquivos colunares e sua codificação (big-endian).
+ */
+public enum TipoColuna {
+    /** 16 bytes: bits mais e menos significativos. Ausente = 0/0. */
+    UUID,
+    /** 4 bytes. */
+    INT,
+    /** 8 bytes. */
+    LONG,
+    /** 8 bytes IEEE 754. */
+    DOUBLE,
+    /** int com o tamanho + bytes UTF-8. */
+    TEXTO,
+    /** int escala + short tamanho + bytes do valor sem escala (complemento de dois). */
+    DECIMAL,
+    /** 8 bytes: microssegundos desde 1970-01-01T00:00 (data sem fuso). Ausente = Long.MIN_VALUE. */
+    TIMESTAMP
+}
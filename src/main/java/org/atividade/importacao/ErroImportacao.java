@@ -0,0 +1,22 @@
+package org.atividade.importacao;
+
+/**
+ * Linha rejeitada na importação. A numeração começa em 1 e conta o cabeçalho.
+ */
+public final class ErroImportacao {
+    private final long linha;
+    private final String mensagem;
+
+    public ErroImportacao(long linha, String mensagem) {
+        this.linha = linha;
+        this.mensagem = mensagem;
+    }
+
+    public long getLinha() { return linha; }
+    public String getMensagem() { return mensagem; }
+
+    @Override
+    public String toString() {
+        return "Linha " + linha + ": " + mensagem;
+    }
+}
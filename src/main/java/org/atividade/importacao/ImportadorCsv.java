@@ -0,0 +1,442 @@
+package org.atividade.importacao;
+
+import org.atividade.SistemaCarbono;
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.PessoaJuridica;
+import org.atividade.entities.Proprietario;
+import org.atividade.exceptions.RegraNegocioException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importação em massa de arquivos delimitados (CSV) para o SistemaCarbono.
+ *
+ * Pipeline: a thread chamadora lê o arquivo por um FileChannel em blocos de
+ * ~1 MiB cortados em fim de linha; cada bloco é decodificado, dividido em
+ * campos e convertido em entidades por um pool de threads; os blocos prontos
+ * são aplicados ao sistema na ordem do arquivo (árvores em lote, via
+ * registrarArvores). Linhas inválidas viram ErroImportacao e não interrompem
+ * a importação.
+ *
+ * Formato: UTF-8 (BOM opcional), primeira linha é cabeçalho (ignorado),
+ * linhas em branco são ignoradas. Campos podem vir entre aspas duplas ("" para
+ * aspas dentro do campo), mas não podem conter quebra de linha. Números
+ * aceitam ponto ou vírgula decimal (use ';' como separador nesse caso).
+ */
+public final class ImportadorCsv {
+    private static final int TAMANHO_BLOCO = 1 << 20;
+    private static final AtomicInteger CONTADOR_THREADS = new AtomicInteger();
+
+    private final SistemaCarbono sistema;
+    private final char separador;
+    private final int threads;
+
+    public ImportadorCsv(SistemaCarbono sistema) {
+        this(sistema, ',', Runtime.getRuntime().availableProcessors());
+    }
+
+    public ImportadorCsv(SistemaCarbono sistema, char separador, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads deve ser > 0.");
+        }
+        if (separador == '"' || separador == '\n' || separador == '\r') {
+            throw new IllegalArgumentException("Separador inválido.");
+        }
+        this.sistema = sistema;
+        this.separador = separador;
+        this.threads = threads;
+    }
+
+    /**
+     * Colunas: tipo (PF ou PJ), nome, documento.
+     */
+    public ResultadoImportacao importarProprietarios(Path arquivo) throws IOException {
+        return importar(arquivo, 3, campos -> {
+            String tipo = campos[0].trim().toUpperCase(Locale.ROOT);
+            return switch (tipo) {
+                case "PF" -> new PessoaFisica(campos[1], campos[2]);
+                case "PJ" -> new PessoaJuridica(campos[1], campos[2]);
+                default -> throw new IllegalArgumentException("Tipo deve ser PF ou PJ: " + campos[0]);
+            };
+        }, (linhas, acumulador) -> {
+            for (Linha<Proprietario> l : linhas) {
+                try {
+                    sistema.cadastrarProprietario(l.valor);
+                    acumulador.importadas++;
+                } catch (RegraNegocioException | IllegalArgumentException e) {
+                    acumulador.erro(l.numero, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Colunas: código do lote.
+     */
+    public ResultadoImportacao importarLotes(Path arquivo) throws IOException {
+        return importar(arquivo, 1, campos -> {
+            if (campos[0].isBlank()) {
+                throw new IllegalArgumentException("Código do lote não pode ser vazio.");
+            }
+            return campos[0];
+        }, (linhas, acumulador) -> {
+            for (Linha<String> l : linhas) {
+                try {
+                    sistema.criarLote(l.valor);
+                    acumulador.importadas++;
+                } catch (RegraNegocioException | IllegalArgumentException e) {
+                    acumulador.erro(l.numero, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Colunas: código do lote, espécie, latitude, longitude. O lote já deve
+     * existir e estar DISPONIVEL.
+     */
+    public ResultadoImportacao importarArvores(Path arquivo) throws IOException {
+        return importar(arquivo, 4, campos -> new ArvoreImportada(campos[0],
+                new ArvoreGeradoraCredito(campos[1],
+                        lerDouble(campos[2], "Latitude"),
+                        lerDouble(campos[3], "Longitude"))),
+                this::aplicarArvores);
+    }
+
+    private void aplicarArvores(List<Linha<ArvoreImportada>> linhas, Acumulador acumulador) {
+        Map<String, List<Linha<ArvoreImportada>>> porLote = new LinkedHashMap<>();
+        for (Linha<ArvoreImportada> l : linhas) {
+            porLote.computeIfAbsent(l.valor.codigoLote, k -> new ArrayList<>()).add(l);
+        }
+
+        for (Map.Entry<String, List<Linha<ArvoreImportada>>> e : porLote.entrySet()) {
+            List<Linha<ArvoreImportada>> doLote = e.getValue();
+            Optional<LoteCreditoCarbono> lote = sistema.buscarLotePorCodigo(e.getKey());
+            if (lote.isEmpty()) {
+                for (Linha<ArvoreImportada> l : doLote) acumulador.erro(l.numero, "Lote não encontrado: " + e.getKey());
+                continue;
+            }
+
+            List<ArvoreGeradoraCredito> arvores = new ArrayList<>(doLote.size());
+            for (Linha<ArvoreImportada> l : doLote) arvores.add(l.valor.arvore);
+            try {
+                sistema.registrarArvores(lote.get().getId(), arvores);
+                acumulador.importadas += arvores.size();
+            } catch (RegraNegocioException ex) {
+                for (Linha<ArvoreImportada> l : doLote) acumulador.erro(l.numero, ex.getMessage());
+            }
+        }
+    }
+
+    // =========================
+    // ===== PIPELINE ==========
+    // =========================
+
+    private <T> ResultadoImportacao importar(Path arquivo, int colunas,
+                                             Conversor<T> conversor, Aplicador<T> aplicador) throws IOException {
+        long inicio = System.nanoTime();
+        Acumulador acumulador = new Acumulador();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "importacao-" + CONTADOR_THREADS.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // No máximo 2 blocos por thread em memória: a leitura não dispara à frente da aplicação.
+        ArrayDeque<Future<BlocoConvertido<T>>> emAndamento = new ArrayDeque<>();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            LeitorBlocos leitor = new LeitorBlocos(canal);
+            Bloco bloco;
+            while ((bloco = leitor.proximo()) != null) {
+                Bloco b = bloco;
+                emAndamento.add(pool.submit(() -> converter(b, colunas, conversor)));
+                if (emAndamento.size() >= threads * 2) {
+                    aplicar(emAndamento.poll(), aplicador, acumulador);
+                }
+            }
+            while (!emAndamento.isEmpty()) {
+                aplicar(emAndamento.poll(), aplicador, acumulador);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return new ResultadoImportacao(acumulador.linhasLidas, acumulador.importadas, acumulador.totalErros,
+                acumulador.erros, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private static <T> void aplicar(Future<BlocoConvertido<T>> futuro, Aplicador<T> aplicador,
+                                    Acumulador acumulador) throws IOException {
+        BlocoConvertido<T> bloco;
+        try {
+            bloco = futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Importação interrompida.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IOException(e.getCause());
+        }
+
+        acumulador.linhasLidas += bloco.linhasLidas;
+        for (ErroImportacao erro : bloco.erros) acumulador.erro(erro.getLinha(), erro.getMensagem());
+        if (!bloco.linhas.isEmpty()) aplicador.aplicar(bloco.linhas, acumulador);
+    }
+
+    private <T> BlocoConvertido<T> converter(Bloco bloco, int colunas, Conversor<T> conversor) {
+        BlocoConvertido<T> resultado = new BlocoConvertido<>();
+        byte[] dados = bloco.dados;
+        long numero = bloco.primeiraLinha;
+        int inicio = 0;
+        while (inicio < bloco.tamanho) {
+            int fim = inicio;
+            while (fim < bloco.tamanho && dados[fim] != '\n') fim++;
+            int fimConteudo = (fim > inicio && dados[fim - 1] == '\r') ? fim - 1 : fim;
+
+            if (fimConteudo > inicio) {
+                String linha = new String(dados, inicio, fimConteudo - inicio, StandardCharsets.UTF_8);
+                if (!linha.isBlank()) {
+                    resultado.linhasLidas++;
+                    converterLinha(linha, numero, colunas, conversor, resultado);
+                }
+            }
+            numero++;
+            inicio = fim + 1;
+        }
+        return resultado;
+    }
+
+    private <T> void converterLinha(String linha, long numero, int colunas,
+                                    Conversor<T> conversor, BlocoConvertido<T> resultado) {
+        try {
+            String[] campos = dividir(linha, separador);
+            if (campos.length != colunas) {
+                throw new IllegalArgumentException("Esperadas " + colunas + " colunas, encontradas " + campos.length + ".");
+            }
+            resultado.linhas.add(new Linha<>(numero, conversor.converter(campos)));
+        } catch (IllegalArgumentException | RegraNegocioException e) {
+            resultado.erros.add(new ErroImportacao(numero, e.getMessage()));
+        }
+    }
+
+    /**
+     * Divide a linha nos campos, tratando aspas duplas como no RFC 4180.
+     */
+    static String[] dividir(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        if (linha.indexOf('"') < 0) {
+            int inicio = 0;
+            for (int i = 0; i < linha.length(); i++) {
+                if (linha.charAt(i) == separador) {
+                    campos.add(linha.substring(inicio, i).trim());
+                    inicio = i + 1;
+                }
+            }
+            campos.add(linha.substring(inicio).trim());
+            return campos.toArray(new String[0]);
+        }
+
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"') {
+                    if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                        atual.append('"');
+                        i++;
+                    } else {
+                        entreAspas = false;
+                    }
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(atual.toString().trim());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("Aspas não fechadas.");
+        }
+        campos.add(atual.toString().trim());
+        return campos.toArray(new String[0]);
+    }
+
+    private static double lerDouble(String campo, String nome) {
+        try {
+            return Double.parseDouble(campo.trim().replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(nome + " inválida: " + campo);
+        }
+    }
+
+    /**
+     * Lê o arquivo em blocos terminados em fim de linha. O cabeçalho (e o BOM
+     * UTF-8, se houver) é descartado no primeiro bloco.
+     */
+    private static final class LeitorBlocos {
+        private final FileChannel canal;
+        private ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BLOCO);
+        private long proximaLinha = 1;
+        private boolean primeiro = true;
+        private boolean fimArquivo;
+
+        LeitorBlocos(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        Bloco proximo() throws IOException {
+            while (true) {
+                while (!fimArquivo && buffer.hasRemaining()) {
+                    if (canal.read(buffer) < 0) fimArquivo = true;
+                }
+
+                byte[] dados = buffer.array();
+                int tamanho = buffer.position();
+                int inicio = 0;
+                if (primeiro) {
+                    int fimCabecalho = indiceDe(dados, 0, tamanho);
+                    if (fimCabecalho < 0 && !fimArquivo) {
+                        crescer();
+                        continue;
+                    }
+                    primeiro = false;
+                    inicio = (fimCabecalho < 0) ? tamanho : fimCabecalho + 1;
+                    proximaLinha = 2;
+                }
+
+                int fimBloco = fimArquivo ? tamanho : ultimoIndiceDe(dados, inicio, tamanho) + 1;
+                if (fimBloco <= inicio) {
+                    if (fimArquivo) return null;
+                    if (inicio > 0) {
+                        descartar(inicio);
+                        continue;
+                    }
+                    crescer(); // linha maior que o buffer
+                    continue;
+                }
+
+                byte[] copia = Arrays.copyOfRange(dados, inicio, fimBloco);
+                Bloco bloco = new Bloco(copia, copia.length, proximaLinha);
+                for (byte b : copia) if (b == '\n') proximaLinha++;
+                if (fimArquivo && copia.length > 0 && copia[copia.length - 1] != '\n') proximaLinha++;
+                descartar(fimBloco);
+                return bloco;
+            }
+        }
+
+        private void descartar(int ate) {
+            buffer.flip();
+            buffer.position(ate);
+            buffer.compact();
+        }
+
+        private void crescer() {
+            ByteBuffer maior = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            maior.put(buffer);
+            buffer = maior;
+        }
+
+        private static int indiceDe(byte[] dados, int de, int ate) {
+            for (int i = de; i < ate; i++) if (dados[i] == '\n') return i;
+            return -1;
+        }
+
+        private static int ultimoIndiceDe(byte[] dados, int de, int ate) {
+            for (int i = ate - 1; i >= de; i--) if (dados[i] == '\n') return i;
+            return de - 1;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Conversor<T> {
+        T converter(String[] campos);
+    }
+
+    @FunctionalInterface
+    private interface Aplicador<T> {
+        void aplicar(List<Linha<T>> linhas, Acumulador acumulador);
+    }
+
+    private static final class Bloco {
+        final byte[] dados;
+        final int tamanho;
+        final long primeiraLinha;
+
+        Bloco(byte[] dados, int tamanho, long primeiraLinha) {
+            this.dados = dados;
+            this.tamanho = tamanho;
+            this.primeiraLinha = primeiraLinha;
+        }
+    }
+
+    private static final class Linha<T> {
+        final long numero;
+        final T valor;
+
+        Linha(long numero, T valor) {
+            this.numero = numero;
+            this.valor = valor;
+        }
+    }
+
+    private static final class BlocoConvertido<T> {
+        final List<Linha<T>> linhas = new ArrayList<>();
+        final List<ErroImportacao> erros = new ArrayList<>();
+        long linhasLidas;
+    }
+
+    private static final class ArvoreImportada {
+        final String codigoLote;
+        final ArvoreGeradoraCredito arvore;
+
+        ArvoreImportada(String codigoLote, ArvoreGeradoraCredito arvore) {
+            this.codigoLote = codigoLote;
+            this.arvore = arvore;
+        }
+    }
+
+    /**
+     * Totais da importação; só a thread chamadora altera.
+     */
+    private static final class Acumulador {
+        long linhasLidas;
+        long importadas;
+        long totalErros;
+        final List<ErroImportacao> erros = new ArrayList<>();
+
+        void erro(long linha, String mensagem) {
+            totalErros++;
+            if (erros.size() < ResultadoImportacao.MAXIMO_ERROS_GUARDADOS) {
+                erros.add(new ErroImportacao(linha, mensagem));
+            }
+        }
+    }
+}
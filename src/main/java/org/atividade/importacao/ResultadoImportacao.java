@@ -0,0 +1,39 @@
+package org.atividade.importacao;
+
+import java.util.List;
+
+/**
+ * Resumo de uma importação: linhas de dados lidas, quantas entraram no
+ * sistema e os erros por linha (os primeiros MAXIMO_ERROS_GUARDADOS; o total
+ * fica em getTotalErros()).
+ */
+public final class ResultadoImportacao {
+    public static final int MAXIMO_ERROS_GUARDADOS = 10_000;
+
+    private final long linhasLidas;
+    private final long importadas;
+    private final long totalErros;
+    private final List<ErroImportacao> erros;
+    private final long duracaoMillis;
+
+    ResultadoImportacao(long linhasLidas, long importadas, long totalErros,
+                        List<ErroImportacao> erros, long duracaoMillis) {
+        this.linhasLidas = linhasLidas;
+        this.importadas = importadas;
+        this.totalErros = totalErros;
+        this.erros = List.copyOf(erros);
+        this.duracaoMillis = duracaoMillis;
+    }
+
+    public long getLinhasLidas() { return linhasLidas; }
+    public long getImportadas() { return importadas; }
+    public long getTotalErros() { return totalErros; }
+    public List<ErroImportacao> getErros() { return erros; }
+    public long getDuracaoMillis() { return duracaoMillis; }
+
+    @Override
+    public String toString() {
+        return "ResultadoImportacao{linhas=" + linhasLidas + ", importadas=" + importadas
+                + ", erros=" + totalErros + ", " + duracaoMillis + " ms}";
+    }
+}
@@ -0,0 +1,37 @@
+package org.atividade.indices;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Agregado das transações de um período: quantidade, soma, mínimo e máximo
+ * do valor. Mínimo e máximo são null quando o período não tem transações.
+ */
+public final class AgregadoTransacoes {
+    private final LocalDateTime inicioPeriodo;
+    private final long quantidade;
+    private final BigDecimal soma;
+    private final BigDecimal minimo;
+    private final BigDecimal maximo;
+
+    public AgregadoTransacoes(LocalDateTime inicioPeriodo, long quantidade,
+                              BigDecimal soma, BigDecimal minimo, BigDecimal maximo) {
+        this.inicioPeriodo = inicioPeriodo;
+        this.quantidade = quantidade;
+        this.soma = soma;
+        this.minimo = minimo;
+        this.maximo = maximo;
+    }
+
+    public LocalDateTime getInicioPeriodo() { return inicioPeriodo; }
+    public long getQuantidade() { return quantidade; }
+    public BigDecimal getSoma() { return soma; }
+    public BigDecimal getMinimo() { return minimo; }
+    public BigDecimal getMaximo() { return maximo; }
+
+    @Override
+    public String toString() {
+        return "AgregadoTransacoes{inicio=" + inicioPeriodo + ", quantidade=" + quantidade
+                + ", soma=" + soma + ", min=" + minimo + ", max=" + maximo + "}";
+    }
+}
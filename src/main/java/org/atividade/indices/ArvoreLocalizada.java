@@ -0,0 +1,27 @@
+package org.atividade.indices;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Resultado de consulta espacial: a árvore e o lote em que ela foi registrada.
+ */
+public final class ArvoreLocalizada {
+    private final ArvoreGeradoraCredito arvore;
+    private final UUID idLote;
+
+    public ArvoreLocalizada(ArvoreGeradoraCredito arvore, UUID idLote) {
+        this.arvore = Objects.requireNonNull(arvore);
+        this.idLote = Objects.requireNonNull(idLote);
+    }
+
+    public ArvoreGeradoraCredito getArvore() { return arvore; }
+    public UUID getIdLote() { return idLote; }
+
+    @Override
+    public String toString() {
+        return arvore + " | Lote=" + idLote;
+    }
+}
@@ -0,0 +1,117 @@
+package org.atividade.indices;
+
+import org.atividade.entities.ParticipacaoLote;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Carteira de um proprietário: participações atuais por lote, total de
+ * créditos e histórico de todas as participações que já teve.
+ *
+ * As atuais ficam como objetos; o histórico guarda só as referências das
+ * participações no Historico, resolvidas ao montar cada página.
+ *
+ * Atualizada sob o lock de cada lote, mas lotes diferentes podem alterar a
+ * mesma carteira em paralelo, por isso os métodos são sincronizados.
+ */
+public final class CarteiraProprietario {
+    private final IntFunction<ParticipacaoLote> resolvedor;
+    private final Map<UUID, ParticipacaoLote> atuaisPorLote = new LinkedHashMap<>();
+    private int[] historico = new int[4];
+    private int tamanhoHistorico;
+    private long ultimoInicio = Long.MIN_VALUE;
+    private long totalCreditos;
+    private boolean historicoForaDeOrdem;
+
+    public CarteiraProprietario(IntFunction<ParticipacaoLote> resolvedor) {
+        this.resolvedor = resolvedor;
+    }
+
+    /**
+     * @param referencia posição de {@code p} no Historico
+     */
+    public synchronized void adicionar(ParticipacaoLote p, int referencia) {
+        long inicio = p.getInicioMicros();
+        if (inicio < ultimoInicio) {
+            // Só acontece ao restaurar snapshot (lotes chegam um de cada vez); ordena na próxima consulta.
+            historicoForaDeOrdem = true;
+        }
+        ultimoInicio = Math.max(ultimoInicio, inicio);
+        if (tamanhoHistorico == historico.length) {
+            historico = Arrays.copyOf(historico, tamanhoHistorico * 2);
+        }
+        historico[tamanhoHistorico++] = referencia;
+        if (p.isAtual()) {
+            atuaisPorLote.put(p.getIdLote(), p);
+            totalCreditos += p.getQuantidadeCreditos();
+        }
+    }
+
+    /**
+     * Chamado depois que a participação foi encerrada.
+     */
+    public synchronized void encerrar(ParticipacaoLote p) {
+        if (atuaisPorLote.remove(p.getIdLote(), p)) {
+            totalCreditos -= p.getQuantidadeCreditos();
+        }
+    }
+
+    public synchronized List<ParticipacaoLote> atuais() {
+        return List.copyOf(atuaisPorLote.values());
+    }
+
+    public synchronized long totalCreditos() {
+        return totalCreditos;
+    }
+
+    public synchronized int tamanhoHistorico() {
+        return tamanhoHistorico;
+    }
+
+    /**
+     * Página do histórico, da participação mais recente para a mais antiga.
+     */
+    public synchronized List<ParticipacaoLote> historico(int inicio, int limite) {
+        if (inicio < 0 || limite < 0) {
+            throw new IllegalArgumentException("inicio e limite devem ser >= 0.");
+        }
+        if (historicoForaDeOrdem) {
+            ordenarHistorico();
+            historicoForaDeOrdem = false;
+        }
+
+        int n = tamanhoHistorico;
+        int fim = (int) Math.min(n, (long) inicio + limite);
+        List<ParticipacaoLote> pagina = new ArrayList<>(Math.max(0, fim - inicio));
+        for (int i = inicio; i < fim; i++) {
+            pagina.add(resolvedor.apply(historico[n - 1 - i]));
+        }
+        return pagina;
+    }
+
+    /**
+     * Ordena as referências pelo início da participação (estável: empates
+     * mantêm a ordem de inserção).
+     */
+    private void ordenarHistorico() {
+        int[] refs = Arrays.copyOf(historico, tamanhoHistorico);
+        long[] inicios = new long[refs.length];
+        for (int i = 0; i < refs.length; i++) {
+            inicios[i] = resolvedor.apply(refs[i]).getInicioMicros();
+        }
+        int[] ordem = IntStream.range(0, refs.length).boxed()
+                .sorted((a, b) -> Long.compare(inicios[a], inicios[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int i = 0; i < ordem.length; i++) {
+            historico[i] = refs[ordem[i]];
+        }
+    }
+}
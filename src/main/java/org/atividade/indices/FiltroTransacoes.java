@@ -0,0 +1,72 @@
+package org.atividade.indices;
+
+import org.atividade.entities.TransacaoCompraVenda;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Filtro opcional das consultas por período: proprietário envolvido
+ * (vendedor ou comprador) e faixa de valor (limites inclusivos).
+ * Imutável; cada "com..." devolve um filtro novo.
+ */
+public final class FiltroTransacoes {
+    public static final FiltroTransacoes TODAS = new FiltroTransacoes(null, null, null);
+
+    private final UUID idProprietario;
+    private final BigDecimal valorMinimo;
+    private final BigDecimal valorMaximo;
+    // Limites convertidos para centavos (arredondados para dentro), comparados com getValorCentavos().
+    private final long minimoCentavos;
+    private final long maximoCentavos;
+
+    private FiltroTransacoes(UUID idProprietario, BigDecimal valorMinimo, BigDecimal valorMaximo) {
+        this.idProprietario = idProprietario;
+        this.valorMinimo = valorMinimo;
+        this.valorMaximo = valorMaximo;
+        this.minimoCentavos = (valorMinimo == null) ? Long.MIN_VALUE : centavos(valorMinimo, RoundingMode.CEILING);
+        this.maximoCentavos = (valorMaximo == null) ? Long.MAX_VALUE : centavos(valorMaximo, RoundingMode.FLOOR);
+    }
+
+    public FiltroTransacoes comProprietario(UUID idProprietario) {
+        return new FiltroTransacoes(Objects.requireNonNull(idProprietario), valorMinimo, valorMaximo);
+    }
+
+    /**
+     * @param minimo null para não limitar por baixo
+     * @param maximo null para não limitar por cima
+     */
+    public FiltroTransacoes comValorEntre(BigDecimal minimo, BigDecimal maximo) {
+        if (minimo != null && maximo != null && minimo.compareTo(maximo) > 0) {
+            throw new IllegalArgumentException("Valor mínimo maior que o máximo.");
+        }
+        return new FiltroTransacoes(idProprietario, minimo, maximo);
+    }
+
+    public UUID getIdProprietario() { return idProprietario; }
+    public BigDecimal getValorMinimo() { return valorMinimo; }
+    public BigDecimal getValorMaximo() { return valorMaximo; }
+
+    public boolean isVazio() {
+        return idProprietario == null && valorMinimo == null && valorMaximo == null;
+    }
+
+    public boolean aceita(TransacaoCompraVenda t) {
+        long valor = t.getValorCentavos();
+        if (valor < minimoCentavos || valor > maximoCentavos) return false;
+        return idProprietario == null
+                || idProprietario.equals(t.getIdComprador())
+                || t.getIdsVendedores().contains(idProprietario);
+    }
+
+    private static long centavos(BigDecimal valor, RoundingMode arredondamento) {
+        int escala = TransacaoCompraVenda.ESCALA_VALOR;
+        BigDecimal c = valor.setScale(escala, arredondamento).movePointRight(escala);
+        // Fora da faixa de long: nenhum valor em centavos passa do limite.
+        if (c.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) return Long.MAX_VALUE;
+        if (c.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0) return Long.MIN_VALUE;
+        return c.longValueExact();
+    }
+}
@@ -0,0 +1,24 @@
+package org.atividade.indices;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Tamanho dos períodos em que os agregados de transações são agrupados.
+ */
+public enum GranularidadeTempo {
+    HORA,
+    DIA,
+    MES;
+
+    /**
+     * Início do período que contém a data.
+     */
+    public LocalDateTime inicioDoPeriodo(LocalDateTime data) {
+        return switch (this) {
+            case HORA -> data.truncatedTo(ChronoUnit.HOURS);
+            case DIA -> data.truncatedTo(ChronoUnit.DAYS);
+            case MES -> data.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,254 @@
+package org.atividade.indices;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice espacial em grade regular (latitude/longitude) sobre as árvores geradoras.
+ *
+ * Cada célula guarda as coordenadas em arrays primitivos, então a filtragem
+ * fina percorre só as células que intersectam a área consultada. O custo de
+ * uma consulta é proporcional ao número de células tocadas mais as árvores
+ * dessas células, e não ao total de árvores.
+ *
+ * O índice não retém os objetos ArvoreGeradoraCredito: guarda só o lote e a
+ * posição da árvore no lote, e os resolve via {@link ResolvedorArvore} ao
+ * montar o resultado.
+ */
+public final class IndiceEspacial {
+    public static final double TAMANHO_CELULA_PADRAO_GRAUS = 0.01; // ~1,1 km no equador
+
+    private static final double RAIO_TERRA_KM = 6371.0088;
+    private static final double KM_POR_GRAU_LAT = 111.32;
+
+    /**
+     * Obtém a árvore na posição informada do lote.
+     */
+    @FunctionalInterface
+    public interface ResolvedorArvore {
+        ArvoreGeradoraCredito arvore(UUID idLote, int posicao);
+    }
+
+    private final ResolvedorArvore resolvedor;
+    private final double tamanhoCelula;
+    private final int celulasLon;
+    private final Map<Long, Celula> celulas = new ConcurrentHashMap<>();
+
+    public IndiceEspacial(ResolvedorArvore resolvedor) {
+        this(resolvedor, TAMANHO_CELULA_PADRAO_GRAUS);
+    }
+
+    public IndiceEspacial(ResolvedorArvore resolvedor, double tamanhoCelulaGraus) {
+        this.resolvedor = Objects.requireNonNull(resolvedor);
+        if (!(tamanhoCelulaGraus > 0) || tamanhoCelulaGraus > 180) {
+            throw new IllegalArgumentException("Tamanho de célula inválido: " + tamanhoCelulaGraus);
+        }
+        this.tamanhoCelula = tamanhoCelulaGraus;
+        this.celulasLon = indiceLon(180.0) + 1;
+    }
+
+    /**
+     * @param posicao posição da árvore dentro do lote (usada pelo resolvedor)
+     */
+    public void adicionar(UUID idLote, int posicao, double latitude, double longitude) {
+        validarPonto(latitude, longitude);
+        long chave = chave(indiceLat(latitude), indiceLon(longitude));
+        celulas.computeIfAbsent(chave, k -> new Celula()).adicionar(latitude, longitude, idLote, posicao);
+    }
+
+    /**
+     * Árvores dentro do retângulo (limites inclusivos). Se lonMin &gt; lonMax a
+     * caixa atravessa o antimeridiano (±180°).
+     */
+    public List<ArvoreLocalizada> buscarNaCaixa(double latMin, double latMax, double lonMin, double lonMax) {
+        validarCaixa(latMin, latMax, lonMin, lonMax);
+        List<ArvoreLocalizada> resultado = new ArrayList<>();
+        if (lonMin <= lonMax) {
+            varrer(latMin, latMax, lonMin, lonMax, (lat, lon) -> true, resultado);
+        } else {
+            varrer(latMin, latMax, lonMin, 180.0, (lat, lon) -> true, resultado);
+            varrer(latMin, latMax, -180.0, lonMax, (lat, lon) -> true, resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Árvores a no máximo {@code raioKm} do ponto (distância de grande círculo).
+     */
+    public List<ArvoreLocalizada> buscarNoRaio(double latitude, double longitude, double raioKm) {
+        validarPonto(latitude, longitude);
+        if (!Double.isFinite(raioKm) || raioKm < 0) throw new IllegalArgumentException("Raio inválido: " + raioKm);
+
+        double dLat = raioKm / KM_POR_GRAU_LAT;
+        double latMin = Math.max(-90, latitude - dLat);
+        double latMax = Math.min(90, latitude + dLat);
+
+        Filtro dentroDoRaio = (lat, lon) -> distanciaKm(latitude, longitude, lat, lon) <= raioKm;
+        List<ArvoreLocalizada> resultado = new ArrayList<>();
+
+        double cosLat = Math.cos(Math.toRadians(Math.max(Math.abs(latMin), Math.abs(latMax))));
+        double dLon = (cosLat <= 1e-9) ? 360 : raioKm / (KM_POR_GRAU_LAT * cosLat);
+        if (dLon >= 180) {
+            varrer(latMin, latMax, -180, 180, dentroDoRaio, resultado);
+            return resultado;
+        }
+
+        double lonMin = longitude - dLon;
+        double lonMax = longitude + dLon;
+        if (lonMin < -180) {
+            varrer(latMin, latMax, lonMin + 360, 180, dentroDoRaio, resultado);
+            varrer(latMin, latMax, -180, lonMax, dentroDoRaio, resultado);
+        } else if (lonMax > 180) {
+            varrer(latMin, latMax, lonMin, 180, dentroDoRaio, resultado);
+            varrer(latMin, latMax, -180, lonMax - 360, dentroDoRaio, resultado);
+        } else {
+            varrer(latMin, latMax, lonMin, lonMax, dentroDoRaio, resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Árvores dentro do polígono simples (vértices em ordem, sem atravessar o antimeridiano).
+     */
+    public List<ArvoreLocalizada> buscarNoPoligono(double[] latitudes, double[] longitudes) {
+        if (latitudes == null || longitudes == null || latitudes.length != longitudes.length || latitudes.length < 3) {
+            throw new IllegalArgumentException("Polígono deve ter ao menos 3 vértices com latitude e longitude.");
+        }
+        double[] lats = latitudes.clone();
+        double[] lons = longitudes.clone();
+
+        double latMin = 90, latMax = -90, lonMin = 180, lonMax = -180;
+        for (int i = 0; i < lats.length; i++) {
+            validarPonto(lats[i], lons[i]);
+            latMin = Math.min(latMin, lats[i]);
+            latMax = Math.max(latMax, lats[i]);
+            lonMin = Math.min(lonMin, lons[i]);
+            lonMax = Math.max(lonMax, lons[i]);
+        }
+
+        List<ArvoreLocalizada> resultado = new ArrayList<>();
+        varrer(latMin, latMax, lonMin, lonMax, (lat, lon) -> dentroDoPoligono(lats, lons, lat, lon), resultado);
+        return resultado;
+    }
+
+    public static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // =========================
+    // ===== INTERNOS ==========
+    // =========================
+
+    @FunctionalInterface
+    private interface Filtro {
+        boolean aceita(double lat, double lon);
+    }
+
+    private void varrer(double latMin, double latMax, double lonMin, double lonMax,
+                        Filtro filtro, List<ArvoreLocalizada> resultado) {
+        int iLatMin = indiceLat(latMin), iLatMax = indiceLat(latMax);
+        int iLonMin = indiceLon(lonMin), iLonMax = indiceLon(lonMax);
+        long celulasNaCaixa = (long) (iLatMax - iLatMin + 1) * (iLonMax - iLonMin + 1);
+
+        if (celulasNaCaixa > celulas.size()) {
+            // Caixa grande: mais barato percorrer as células ocupadas do que a grade inteira.
+            for (Map.Entry<Long, Celula> e : celulas.entrySet()) {
+                int iLat = (int) (e.getKey() / celulasLon);
+                int iLon = (int) (e.getKey() % celulasLon);
+                if (iLat >= iLatMin && iLat <= iLatMax && iLon >= iLonMin && iLon <= iLonMax) {
+                    e.getValue().coletar(latMin, latMax, lonMin, lonMax, filtro, resolvedor, resultado);
+                }
+            }
+            return;
+        }
+
+        for (int iLat = iLatMin; iLat <= iLatMax; iLat++) {
+            for (int iLon = iLonMin; iLon <= iLonMax; iLon++) {
+                Celula c = celulas.get(chave(iLat, iLon));
+                if (c != null) c.coletar(latMin, latMax, lonMin, lonMax, filtro, resolvedor, resultado);
+            }
+        }
+    }
+
+    private static boolean dentroDoPoligono(double[] lats, double[] lons, double lat, double lon) {
+        boolean dentro = false;
+        for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+            if ((lats[i] > lat) != (lats[j] > lat)
+                    && lon < (lons[j] - lons[i]) * (lat - lats[i]) / (lats[j] - lats[i]) + lons[i]) {
+                dentro = !dentro;
+            }
+        }
+        return dentro;
+    }
+
+    private int indiceLat(double lat) {
+        return (int) Math.floor((lat + 90.0) / tamanhoCelula);
+    }
+
+    private int indiceLon(double lon) {
+        return (int) Math.floor((lon + 180.0) / tamanhoCelula);
+    }
+
+    private long chave(int iLat, int iLon) {
+        return (long) iLat * celulasLon + iLon;
+    }
+
+    private static void validarPonto(double lat, double lon) {
+        if (!Double.isFinite(lat) || lat < -90 || lat > 90) throw new IllegalArgumentException("Latitude inválida: " + lat);
+        if (!Double.isFinite(lon) || lon < -180 || lon > 180) throw new IllegalArgumentException("Longitude inválida: " + lon);
+    }
+
+    private static void validarCaixa(double latMin, double latMax, double lonMin, double lonMax) {
+        validarPonto(latMin, lonMin);
+        validarPonto(latMax, lonMax);
+        if (latMin > latMax) throw new IllegalArgumentException("latMin deve ser <= latMax.");
+    }
+
+    /**
+     * Árvores de uma célula em colunas primitivas; escrita e leitura sincronizadas na própria célula.
+     */
+    private static final class Celula {
+        private double[] lats = new double[4];
+        private double[] lons = new double[4];
+        private UUID[] lotes = new UUID[4];
+        private int[] posicoes = new int[4];
+        private int tamanho;
+
+        synchronized void adicionar(double lat, double lon, UUID idLote, int posicao) {
+            if (tamanho == lats.length) {
+                int novo = tamanho * 2;
+                lats = Arrays.copyOf(lats, novo);
+                lons = Arrays.copyOf(lons, novo);
+                lotes = Arrays.copyOf(lotes, novo);
+                posicoes = Arrays.copyOf(posicoes, novo);
+            }
+            lats[tamanho] = lat;
+            lons[tamanho] = lon;
+            lotes[tamanho] = idLote;
+            posicoes[tamanho] = posicao;
+            tamanho++;
+        }
+
+        synchronized void coletar(double latMin, double latMax, double lonMin, double lonMax,
+                                  Filtro filtro, ResolvedorArvore resolvedor, List<ArvoreLocalizada> resultado) {
+            for (int i = 0; i < tamanho; i++) {
+                double lat = lats[i], lon = lons[i];
+                if (lat >= latMin && lat <= latMax && lon >= lonMin && lon <= lonMax && filtro.aceita(lat, lon)) {
+                    resultado.add(new ArvoreLocalizada(resolvedor.arvore(lotes[i], posicoes[i]), lotes[i]));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.atividade.indices;
+
+import org.atividade.utilities.Identificavel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Índice ordenado por um texto da entidade (nome, código), mantido na inserção.
+ *
+ * Ordem: texto sem diferenciar maiúsculas/minúsculas, depois o texto original
+ * e por fim o id (desempate para nomes repetidos). Paginação por cursor e
+ * busca por prefixo posicionam direto na skip list, sem copiar nem ordenar o
+ * registro inteiro: custo O(log n + tamanho da página).
+ */
+public final class IndiceOrdenado<T extends Identificavel> {
+    private static final UUID MENOR_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final Function<T, String> texto;
+    private final ConcurrentSkipListMap<Chave, T> ordenados = new ConcurrentSkipListMap<>();
+    // id -> chave, para resolver o cursor sem depender de quem chama.
+    private final Map<UUID, Chave> chavesPorId = new ConcurrentHashMap<>();
+
+    public IndiceOrdenado(Function<T, String> texto) {
+        this.texto = Objects.requireNonNull(texto);
+    }
+
+    public void adicionar(T item) {
+        String t = texto.apply(item);
+        Chave chave = new Chave(normalizar(t), t, item.getId());
+        chavesPorId.put(item.getId(), chave);
+        ordenados.put(chave, item);
+    }
+
+    /**
+     * Remove o item. A chave continua conhecida, então um cursor que aponte
+     * para ele ainda vale (a página seguinte começa logo depois da posição dele).
+     */
+    public void remover(T item) {
+        Chave chave = chavesPorId.get(item.getId());
+        if (chave != null) {
+            ordenados.remove(chave);
+        }
+    }
+
+    public int tamanho() {
+        return ordenados.size();
+    }
+
+    /**
+     * Todos os itens, já em ordem.
+     */
+    public List<T> listar() {
+        return new ArrayList<>(ordenados.values());
+    }
+
+    /**
+     * @param depoisDe cursor da página anterior (null para a primeira página)
+     */
+    public Pagina<T> pagina(UUID depoisDe, int limite) {
+        exigirLimite(limite);
+        NavigableMap<Chave, T> resto = (depoisDe == null)
+                ? ordenados
+                : ordenados.tailMap(chaveDoCursor(depoisDe), false);
+        return montarPagina(resto, null, limite);
+    }
+
+    /**
+     * Itens cujo texto começa com o prefixo (sem diferenciar maiúsculas/minúsculas).
+     *
+     * @param depoisDe cursor da página anterior (null para a primeira página)
+     */
+    public Pagina<T> buscarPorPrefixo(String prefixo, UUID depoisDe, int limite) {
+        exigirLimite(limite);
+        String p = normalizar(Objects.requireNonNull(prefixo, "prefixo"));
+
+        Chave inicio = new Chave(p, "", MENOR_ID);
+        NavigableMap<Chave, T> resto = ordenados.tailMap(inicio, true);
+        if (depoisDe != null) {
+            Chave cursor = chaveDoCursor(depoisDe);
+            if (cursor.compareTo(inicio) >= 0) {
+                resto = ordenados.tailMap(cursor, false);
+            }
+        }
+        return montarPagina(resto, p, limite);
+    }
+
+    private Pagina<T> montarPagina(NavigableMap<Chave, T> resto, String prefixo, int limite) {
+        List<T> itens = new ArrayList<>(Math.min(limite, 64));
+        UUID ultimo = null;
+        boolean temMais = false;
+        for (Map.Entry<Chave, T> e : resto.entrySet()) {
+            if (prefixo != null && !e.getKey().normalizado.startsWith(prefixo)) break;
+            if (itens.size() == limite) {
+                temMais = true;
+                break;
+            }
+            itens.add(e.getValue());
+            ultimo = e.getKey().id;
+        }
+        return new Pagina<>(itens, temMais ? ultimo : null);
+    }
+
+    private Chave chaveDoCursor(UUID cursor) {
+        Chave chave = chavesPorId.get(cursor);
+        if (chave == null) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+        return chave;
+    }
+
+    private static void exigirLimite(int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("limite deve ser > 0.");
+        }
+    }
+
+    private static String normalizar(String s) {
+        return s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Chave implements Comparable<Chave> {
+        private final String normalizado;
+        private final String original;
+        private final UUID id;
+
+        private Chave(String normalizado, String original, UUID id) {
+            this.normalizado = normalizado;
+            this.original = original;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Chave o) {
+            int c = normalizado.compareTo(o.normalizado);
+            if (c != 0) return c;
+            c = original.compareTo(o.original);
+            if (c != 0) return c;
+            return id.compareTo(o.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Chave c && compareTo(c) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package org.atividade.indices;
+
+import org.atividade.entities.TransacaoCompraVenda;
+import org.atividade.utilities.EpocaMicros;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Índice global das transações por data, em blocos de uma hora.
+ *
+ * Consultas por período só visitam os blocos do intervalo: os das pontas são
+ * recortados por busca binária e os do meio, quando não há filtro, entram
+ * nos agregados pelos totais já mantidos em cada bloco, sem percorrer as
+ * transações. Um mês tem ~720 blocos, independentemente do tamanho do histórico.
+ *
+ * Cada bloco guarda só a data (em microssegundos) e a referência de cada
+ * transação no Historico; a transação é resolvida ao ser devolvida ou
+ * filtrada. Transações com a mesma data ficam na ordem de inserção.
+ * Os totais são somados em centavos (long), sem BigDecimal.
+ *
+ * As datas são LocalDateTime (sem fuso); a divisão em horas usa UTC só como
+ * aritmética, o que não altera o resultado.
+ */
+public final class IndiceTemporalTransacoes {
+    private static final long SEGUNDOS_POR_BLOCO = 3600;
+    private static final long MICROS_POR_BLOCO = SEGUNDOS_POR_BLOCO * 1_000_000L;
+
+    private final IntFunction<TransacaoCompraVenda> resolvedor;
+    private final ConcurrentSkipListMap<Long, Bloco> blocos = new ConcurrentSkipListMap<>();
+
+    public IndiceTemporalTransacoes(IntFunction<TransacaoCompraVenda> resolvedor) {
+        this.resolvedor = resolvedor;
+    }
+
+    /**
+     * @param referencia posição de {@code t} no Historico
+     */
+    public void adicionar(TransacaoCompraVenda t, int referencia) {
+        blocos.computeIfAbsent(Math.floorDiv(t.getDataMicros(), MICROS_POR_BLOCO), k -> new Bloco()).adicionar(t, referencia);
+    }
+
+    public long tamanho() {
+        long n = 0;
+        for (Bloco b : blocos.values()) n += b.quantidade();
+        return n;
+    }
+
+    /**
+     * Transações com data em [inicio, fim), em ordem de data. O stream é
+     * preguiçoso: copia um bloco de cada vez, conforme é consumido.
+     */
+    public Stream<TransacaoCompraVenda> buscar(LocalDateTime inicio, LocalDateTime fim, FiltroTransacoes filtro) {
+        Stream<TransacaoCompraVenda> s = intervalo(inicio, fim).values().stream()
+                .flatMap(b -> Arrays.stream(b.entre(inicio, fim)).mapToObj(resolvedor));
+        return filtro.isVazio() ? s : s.filter(filtro::aceita);
+    }
+
+    /**
+     * Agregados por período (só períodos com transações), em ordem de data.
+     */
+    public List<AgregadoTransacoes> agregar(LocalDateTime inicio, LocalDateTime fim,
+                                            FiltroTransacoes filtro, GranularidadeTempo granularidade) {
+        TreeMap<LocalDateTime, Acumulador> porPeriodo = new TreeMap<>();
+        for (Map.Entry<Long, Bloco> e : intervalo(inicio, fim).entrySet()) {
+            LocalDateTime periodo = granularidade.inicioDoPeriodo(inicioDoBloco(e.getKey()));
+            acumular(e.getKey(), e.getValue(), inicio, fim, filtro,
+                    porPeriodo.computeIfAbsent(periodo, Acumulador::new));
+        }
+
+        List<AgregadoTransacoes> resultado = new ArrayList<>(porPeriodo.size());
+        for (Acumulador a : porPeriodo.values()) {
+            if (a.quantidade > 0) resultado.add(a.resultado());
+        }
+        return resultado;
+    }
+
+    /**
+     * Agregado único de todo o intervalo [inicio, fim).
+     */
+    public AgregadoTransacoes resumir(LocalDateTime inicio, LocalDateTime fim, FiltroTransacoes filtro) {
+        Acumulador total = new Acumulador(inicio);
+        for (Map.Entry<Long, Bloco> e : intervalo(inicio, fim).entrySet()) {
+            acumular(e.getKey(), e.getValue(), inicio, fim, filtro, total);
+        }
+        return total.resultado();
+    }
+
+    private void acumular(long chave, Bloco b, LocalDateTime inicio, LocalDateTime fim,
+                          FiltroTransacoes filtro, Acumulador destino) {
+        boolean blocoInteiro = !inicioDoBloco(chave).isBefore(inicio) && !inicioDoBloco(chave + 1).isAfter(fim);
+        if (blocoInteiro && filtro.isVazio()) {
+            b.somarEm(destino);
+            return;
+        }
+        for (int referencia : b.entre(inicio, fim)) {
+            TransacaoCompraVenda t = resolvedor.apply(referencia);
+            if (filtro.aceita(t)) destino.somar(t.getValorCentavos());
+        }
+    }
+
+    private Map<Long, Bloco> intervalo(LocalDateTime inicio, LocalDateTime fim) {
+        if (!inicio.isBefore(fim)) return Collections.emptyMap();
+        return blocos.subMap(bloco(inicio), true, bloco(fim), true);
+    }
+
+    private static long bloco(LocalDateTime data) {
+        return Math.floorDiv(data.toEpochSecond(ZoneOffset.UTC), SEGUNDOS_POR_BLOCO);
+    }
+
+    private static LocalDateTime inicioDoBloco(long chave) {
+        return LocalDateTime.ofEpochSecond(chave * SEGUNDOS_POR_BLOCO, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Transações de uma hora (data e referência, em arrays paralelos), com
+     * totais mantidos na inserção. Vendas de lotes diferentes (e a
+     * restauração de snapshot, lote a lote) podem chegar fora de ordem; os
+     * arrays são reordenados só na próxima leitura.
+     */
+    private static final class Bloco {
+        private long[] datas = new long[8];
+        private int[] referencias = new int[8];
+        private int tamanho;
+        private boolean foraDeOrdem;
+        private final Acumulador totais = new Acumulador(null);
+
+        synchronized void adicionar(TransacaoCompraVenda t, int referencia) {
+            long data = t.getDataMicros();
+            if (tamanho == datas.length) {
+                datas = Arrays.copyOf(datas, tamanho * 2);
+                referencias = Arrays.copyOf(referencias, tamanho * 2);
+            }
+            if (tamanho > 0 && datas[tamanho - 1] > data) {
+                foraDeOrdem = true;
+            }
+            datas[tamanho] = data;
+            referencias[tamanho++] = referencia;
+            totais.somar(t.getValorCentavos());
+        }
+
+        synchronized long quantidade() {
+            return totais.quantidade;
+        }
+
+        synchronized void somarEm(Acumulador destino) {
+            destino.somar(totais);
+        }
+
+        /**
+         * Referências das transações com data em [inicio, fim), em ordem.
+         */
+        synchronized int[] entre(LocalDateTime inicio, LocalDateTime fim) {
+            if (foraDeOrdem) {
+                ordenar();
+                foraDeOrdem = false;
+            }
+            int de = primeiraEmOuDepois(EpocaMicros.microsLimitado(inicio));
+            int ate = primeiraEmOuDepois(EpocaMicros.microsLimitado(fim));
+            return Arrays.copyOfRange(referencias, de, Math.max(de, ate));
+        }
+
+        private int primeiraEmOuDepois(long data) {
+            int lo = 0, hi = tamanho;
+            while (lo < hi) {
+                int meio = (lo + hi) >>> 1;
+                if (datas[meio] < data) lo = meio + 1;
+                else hi = meio;
+            }
+            return lo;
+        }
+
+        /**
+         * Ordenação estável por data sobre os arrays primitivos (intercalação).
+         */
+        private void ordenar() {
+            long[] datasAux = new long[tamanho];
+            int[] refsAux = new int[tamanho];
+            for (int largura = 1; largura < tamanho; largura *= 2) {
+                for (int lo = 0; lo < tamanho - largura; lo += 2 * largura) {
+                    int meio = lo + largura, hi = Math.min(lo + 2 * largura, tamanho);
+                    if (datas[meio - 1] <= datas[meio]) continue;
+                    int a = lo, b = meio, k = lo;
+                    while (a < meio && b < hi) {
+                        if (datas[b] < datas[a]) {
+                            datasAux[k] = datas[b];
+                            refsAux[k++] = referencias[b++];
+                        } else {
+                            datasAux[k] = datas[a];
+                            refsAux[k++] = referencias[a++];
+                        }
+                    }
+                    while (a < meio) {
+                        datasAux[k] = datas[a];
+                        refsAux[k++] = referencias[a++];
+                    }
+                    while (b < hi) {
+                        datasAux[k] = datas[b];
+                        refsAux[k++] = referencias[b++];
+                    }
+                    System.arraycopy(datasAux, lo, datas, lo, hi - lo);
+                    System.arraycopy(refsAux, lo, referencias, lo, hi - lo);
+                }
+            }
+        }
+    }
+
+    private static final class Acumulador {
+        private final LocalDateTime inicioPeriodo;
+        private long quantidade;
+        private long soma;
+        private long minimo = Long.MAX_VALUE;
+        private long maximo = Long.MIN_VALUE;
+
+        Acumulador(LocalDateTime inicioPeriodo) {
+            this.inicioPeriodo = inicioPeriodo;
+        }
+
+        void somar(long centavos) {
+            quantidade++;
+            soma = Math.addExact(soma, centavos);
+            minimo = Math.min(minimo, centavos);
+            maximo = Math.max(maximo, centavos);
+        }
+
+        void somar(Acumulador outro) {
+            if (outro.quantidade == 0) return;
+            quantidade += outro.quantidade;
+            soma = Math.addExact(soma, outro.soma);
+            minimo = Math.min(minimo, outro.minimo);
+            maximo = Math.max(maximo, outro.maximo);
+        }
+
+        AgregadoTransacoes resultado() {
+            if (quantidade == 0) {
+                return new AgregadoTransacoes(inicioPeriodo, 0, BigDecimal.ZERO, null, null);
+            }
+            return new AgregadoTransacoes(inicioPeriodo, quantidade, valor(soma), valor(minimo), valor(maximo));
+        }
+
+        private static BigDecimal valor(long centavos) {
+            return BigDecimal.valueOf(centavos, TransacaoCompraVenda.ESCALA_VALOR);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.atividade.indices;
+
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.utilities.EpocaMicros;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Sequência de "gerações" de proprietários de um lote: cada geração é o
+ * conjunto de participações atuais entre uma alteração e a seguinte (as
+ * participações iniciais, depois o comprador de cada venda).
+ *
+ * Responde "quem era dono no instante T" com busca binária sobre o início
+ * das gerações. Guarda só primitivos: o início de cada geração em
+ * microssegundos e as referências das participações no Historico, todas
+ * num único array (a geração g vai de limites[g - 1] a limites[g]).
+ * Gravação só sob o lock do lote; leitura sem lock, pelo estado publicado
+ * em campo volatile (os arrays só crescem).
+ */
+public final class LinhaDoTempoPropriedade {
+    private static final int CAPACIDADE_INICIAL = 4;
+
+    private final IntFunction<ParticipacaoLote> resolvedor;
+    private volatile Estado estado = new Estado(new long[CAPACIDADE_INICIAL], new int[CAPACIDADE_INICIAL],
+            new int[CAPACIDADE_INICIAL], 0);
+
+    public LinhaDoTempoPropriedade(IntFunction<ParticipacaoLote> resolvedor) {
+        this.resolvedor = resolvedor;
+    }
+
+    /**
+     * Acrescenta a geração que passa a valer em {@code inicioMicros}. Se o relógio
+     * tiver recuado, a geração vale a partir do início da anterior: a ordem
+     * do log prevalece sobre a data.
+     *
+     * @param geracao referências das participações no Historico
+     */
+    public void adicionar(long inicioMicros, int... geracao) {
+        Estado e = estado;
+        int n = e.tamanho;
+        if (n > 0 && inicioMicros < e.inicios[n - 1]) {
+            inicioMicros = e.inicios[n - 1];
+        }
+
+        long[] inicios = e.inicios;
+        int[] limites = e.limites;
+        if (n == inicios.length) {
+            inicios = Arrays.copyOf(inicios, n * 2);
+            limites = Arrays.copyOf(limites, n * 2);
+        }
+        int de = (n == 0) ? 0 : limites[n - 1];
+        int[] referencias = e.referencias;
+        if (de + geracao.length > referencias.length) {
+            referencias = Arrays.copyOf(referencias, Math.max(referencias.length * 2, de + geracao.length));
+        }
+        System.arraycopy(geracao, 0, referencias, de, geracao.length);
+        inicios[n] = inicioMicros;
+        limites[n] = de + geracao.length;
+        estado = new Estado(inicios, limites, referencias, n + 1);
+    }
+
+    /**
+     * Reconstrói as gerações a partir do histórico completo do lote (ordem de
+     * criação), como vem do snapshot. Cada geração soma exatamente
+     * {@code totalCreditos}, o que separa inclusive gerações com a mesma data
+     * (vendas encadeadas no mesmo lote dentro de um lote de ordens).
+     *
+     * @param referencias referência de cada participação no Historico, na mesma ordem
+     */
+    public void adicionarHistorico(List<ParticipacaoLote> historico, int[] referencias, int totalCreditos) {
+        int inicioGeracao = 0;
+        int soma = 0;
+        for (int i = 0; i < historico.size(); i++) {
+            soma += historico.get(i).getQuantidadeCreditos();
+            if (soma >= totalCreditos) {
+                adicionar(historico.get(inicioGeracao).getInicioMicros(),
+                        Arrays.copyOfRange(referencias, inicioGeracao, i + 1));
+                inicioGeracao = i + 1;
+                soma = 0;
+            }
+        }
+    }
+
+    /**
+     * Participações vigentes no instante (vazio se anterior à primeira geração).
+     * Com várias gerações no mesmo instante vale a última.
+     */
+    public List<ParticipacaoLote> em(LocalDateTime instante) {
+        Estado e = estado;
+        long micros = EpocaMicros.microsLimitado(instante);
+        int lo = 0, hi = e.tamanho;
+        while (lo < hi) {
+            int meio = (lo + hi) >>> 1;
+            if (e.inicios[meio] > micros) hi = meio;
+            else lo = meio + 1;
+        }
+        if (lo == 0) return List.of();
+
+        int de = (lo == 1) ? 0 : e.limites[lo - 2];
+        ParticipacaoLote[] geracao = new ParticipacaoLote[e.limites[lo - 1] - de];
+        for (int i = 0; i < geracao.length; i++) {
+            geracao[i] = resolvedor.apply(e.referencias[de + i]);
+        }
+        return List.of(geracao);
+    }
+
+    public int quantidadeGeracoes() {
+        return estado.tamanho;
+    }
+
+    private static final class Estado {
+        final long[] inicios;
+        final int[] limites;
+        final int[] referencias;
+        final int tamanho;
+
+        Estado(long[] inicios, int[] limites, int[] referencias, int tamanho) {
+            this.inicios = inicios;
+            this.limites = limites;
+            this.referencias = referencias;
+            this.tamanho = tamanho;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.atividade.indices;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Página de uma listagem ordenada. O cursor é o id do último item da página;
+ * passe-o de volta para obter a página seguinte (null quando não há mais itens).
+ */
+public final class Pagina<T> {
+    private final List<T> itens;
+    private final UUID proximoCursor;
+
+    public Pagina(List<T> itens, UUID proximoCursor) {
+        this.itens = List.copyOf(itens);
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() { return itens; }
+    public UUID getProximoCursor() { return proximoCursor; }
+    public boolean temMais() { return proximoCursor != null; }
+
+    @Override
+    public String toString() {
+        return "Pagina{itens=" + itens.size() + ", proximoCursor=" + proximoCursor + "}";
+    }
+}
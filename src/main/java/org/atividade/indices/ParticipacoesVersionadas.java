@@ -0,0 +1,28 @@
+package org.atividade.indices;
+
+import org.atividade.entities.ParticipacaoLote;
+
+import java.util.List;
+
+/**
+ * Participações atuais de um lote junto com a versão do lote em que foram
+ * lidas. Passe a versão para SistemaCarbono.venderLote(..., versaoEsperada)
+ * para que a venda só ocorra se o lote não mudou desde a leitura.
+ */
+public final class ParticipacoesVersionadas {
+    private final long versao;
+    private final List<ParticipacaoLote> participacoes;
+
+    public ParticipacoesVersionadas(long versao, List<ParticipacaoLote> participacoes) {
+        this.versao = versao;
+        this.participacoes = List.copyOf(participacoes);
+    }
+
+    public long getVersao() { return versao; }
+    public List<ParticipacaoLote> getParticipacoes() { return participacoes; }
+
+    @Override
+    public String toString() {
+        return "ParticipacoesVersionadas{versao=" + versao + ", participacoes=" + participacoes.size() + "}";
+    }
+}
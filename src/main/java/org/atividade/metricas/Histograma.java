@@ -0,0 +1,60 @@
+package org.atividade.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de valores não negativos com faixas log-lineares (no estilo HDR):
+ * valores até 127 são exatos e, acima disso, cada potência de 2 é dividida em
+ * 64 faixas, o que mantém o erro relativo abaixo de 1,6%.
+ *
+ * registrar() não aloca e não usa lock (um incremento atômico na faixa).
+ * Valores a partir de 2^41 (~36 min em nanossegundos) caem na última faixa;
+ * o máximo continua exato.
+ */
+public final class Histograma {
+    private static final int BITS_SUB = 7;                  // 128 valores exatos
+    private static final int SUB = 1 << (BITS_SUB - 1);    // 64 faixas por potência de 2
+    private static final int EXPOENTE_MAXIMO = 40;
+    static final int FAIXAS = (EXPOENTE_MAXIMO - BITS_SUB + 3) * SUB;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(FAIXAS);
+    private final LongAdder soma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    public void registrar(long valor) {
+        if (valor < 0) valor = 0;
+        contagens.incrementAndGet(faixa(valor));
+        soma.add(valor);
+        maximo.accumulate(valor);
+    }
+
+    /**
+     * Cópia das contagens atuais. Registros concorrentes podem entrar ou não;
+     * cada registro aparece inteiro ou não aparece na contagem da faixa.
+     */
+    public ResumoHistograma resumir() {
+        long[] copia = new long[FAIXAS];
+        for (int i = 0; i < FAIXAS; i++) copia[i] = contagens.get(i);
+        return new ResumoHistograma(copia, soma.sum(), maximo.get());
+    }
+
+    static int faixa(long valor) {
+        if (valor < (1L << BITS_SUB)) return (int) valor;
+        int expoente = Math.min(63 - Long.numberOfLeadingZeros(valor), EXPOENTE_MAXIMO);
+        if (expoente == EXPOENTE_MAXIMO && valor >= (1L << (EXPOENTE_MAXIMO + 1))) return FAIXAS - 1;
+        int deslocamento = expoente - BITS_SUB + 1;
+        return deslocamento * SUB + (int) (valor >>> deslocamento);
+    }
+
+    /**
+     * Maior valor que cai na faixa (o valor reportado para percentis).
+     */
+    static long maiorValor(int faixa) {
+        if (faixa < (1 << BITS_SUB)) return faixa;
+        int deslocamento = faixa / SUB - 1;
+        long base = faixa - (long) deslocamento * SUB;
+        return ((base + 1) << deslocamento) - 1;
+    }
+}
@@ -0,0 +1,100 @@
+package org.atividade.metricas;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Métricas coletadas num instante (ver SistemaCarbono.coletarMetricas).
+ *
+ * - operacoes: contadores e latência por operação
+ * - rejeicoesPorRegra: quantas vezes cada regra de negócio (ou entrada inválida) barrou uma operação
+ * - medidores: tamanhos do registro (proprietários, lotes, árvores, ...)
+ * - distribuição do tamanho dos históricos por lote e os lotes com mais transações
+ *
+ * Os tamanhos são lidos sem lock e podem estar alguns itens atrasados.
+ */
+public final class InstantaneoMetricas {
+    private final Map<Operacao, MetricasOperacao> operacoes;
+    private final Map<String, Long> rejeicoesPorRegra;
+    private final Map<String, Long> medidores;
+    private final ResumoHistograma arvoresPorLote;
+    private final ResumoHistograma participacoesPorLote;
+    private final ResumoHistograma transacoesPorLote;
+    private final Map<UUID, Integer> lotesComMaisTransacoes;
+
+    public InstantaneoMetricas(Map<Operacao, MetricasOperacao> operacoes, Map<String, Long> rejeicoesPorRegra,
+                               Map<String, Long> medidores, ResumoHistograma arvoresPorLote,
+                               ResumoHistograma participacoesPorLote, ResumoHistograma transacoesPorLote,
+                               Map<UUID, Integer> lotesComMaisTransacoes) {
+        this.operacoes = Collections.unmodifiableMap(operacoes);
+        this.rejeicoesPorRegra = Collections.unmodifiableMap(rejeicoesPorRegra);
+        this.medidores = Collections.unmodifiableMap(new LinkedHashMap<>(medidores));
+        this.arvoresPorLote = arvoresPorLote;
+        this.participacoesPorLote = participacoesPorLote;
+        this.transacoesPorLote = transacoesPorLote;
+        this.lotesComMaisTransacoes = Collections.unmodifiableMap(new LinkedHashMap<>(lotesComMaisTransacoes));
+    }
+
+    public Map<Operacao, MetricasOperacao> getOperacoes() { return operacoes; }
+    public Map<String, Long> getRejeicoesPorRegra() { return rejeicoesPorRegra; }
+    public Map<String, Long> getMedidores() { return medidores; }
+    public ResumoHistograma getArvoresPorLote() { return arvoresPorLote; }
+    public ResumoHistograma getParticipacoesPorLote() { return participacoesPorLote; }
+    public ResumoHistograma getTransacoesPorLote() { return transacoesPorLote; }
+
+    /**
+     * Lotes com mais transações, do maior para o menor.
+     */
+    public Map<UUID, Integer> getLotesComMaisTransacoes() { return lotesComMaisTransacoes; }
+
+    /**
+     * Formato texto "nome{rótulos} valor", uma métrica por linha (latências em ns).
+     */
+    public String formatarTexto() {
+        StringBuilder sb = new StringBuilder();
+        for (MetricasOperacao m : operacoes.values()) {
+            String op = m.getOperacao().name().toLowerCase(Locale.ROOT);
+            ResumoHistograma l = m.getLatenciaNanos();
+            linha(sb, "carbono_operacoes_concluidas{operacao=\"" + op + "\"}", m.getConcluidas());
+            linha(sb, "carbono_operacoes_rejeitadas{operacao=\"" + op + "\"}", m.getRejeitadas());
+            linha(sb, "carbono_latencia_ns_contagem{operacao=\"" + op + "\"}", l.getContagem());
+            linha(sb, "carbono_latencia_ns_soma{operacao=\"" + op + "\"}", l.getSoma());
+            for (String q : new String[]{"50", "90", "99", "99.9"}) {
+                linha(sb, "carbono_latencia_ns{operacao=\"" + op + "\",quantil=\"" + q + "\"}",
+                        l.getPercentil(Double.parseDouble(q)));
+            }
+            linha(sb, "carbono_latencia_ns_max{operacao=\"" + op + "\"}", l.getMaximo());
+        }
+        for (Map.Entry<String, Long> e : rejeicoesPorRegra.entrySet()) {
+            linha(sb, "carbono_rejeicoes{regra=\"" + e.getKey().replace("\\", "\\\\").replace("\"", "\\\"") + "\"}",
+                    e.getValue());
+        }
+        for (Map.Entry<String, Long> e : medidores.entrySet()) {
+            linha(sb, "carbono_" + e.getKey(), e.getValue());
+        }
+        historico(sb, "arvores", arvoresPorLote);
+        historico(sb, "participacoes", participacoesPorLote);
+        historico(sb, "transacoes", transacoesPorLote);
+        return sb.toString();
+    }
+
+    private static void historico(StringBuilder sb, String nome, ResumoHistograma h) {
+        for (String q : new String[]{"50", "99"}) {
+            linha(sb, "carbono_" + nome + "_por_lote{quantil=\"" + q + "\"}", h.getPercentil(Double.parseDouble(q)));
+        }
+        linha(sb, "carbono_" + nome + "_por_lote_max", h.getMaximo());
+    }
+
+    private static void linha(StringBuilder sb, String nome, long valor) {
+        sb.append(nome).append(' ').append(valor).append('\n');
+    }
+
+    @Override
+    public String toString() {
+        return "InstantaneoMetricas{operacoes=" + operacoes.values() + ", rejeicoes=" + rejeicoesPorRegra
+                + ", medidores=" + medidores + "}";
+    }
+}
@@ -0,0 +1,129 @@
+package org.atividade.metricas;
+
+import org.atividade.exceptions.AlteracoesStatusRejeitadasException;
+import org.atividade.exceptions.RegraNegocioException;
+import org.atividade.exceptions.VendasRejeitadasException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores e histogramas de latência por operação, mais rejeições por regra.
+ * Contam como rejeição as regras de negócio (RegraNegocioException) e as
+ * entradas inválidas (IllegalArgumentException: valor com escala inválida,
+ * coordenada fora da faixa, ...); outras exceções não são contadas.
+ *
+ * No caminho de sucesso nada é alocado: dois incrementos (LongAdder e faixa
+ * do histograma). A leitura é sob demanda (ver SistemaCarbono.coletarMetricas)
+ * e não bloqueia quem está registrando.
+ */
+public final class MetricasCarbono {
+    /** Limite de regras distintas; as demais são somadas em REGRA_OUTRAS. */
+    public static final int MAXIMO_REGRAS = 256;
+    public static final String REGRA_OUTRAS = "(outras)";
+
+    private final Map<Operacao, Contadores> porOperacao = new EnumMap<>(Operacao.class);
+    private final ConcurrentHashMap<String, LongAdder> rejeicoesPorRegra = new ConcurrentHashMap<>();
+
+    public MetricasCarbono() {
+        for (Operacao o : Operacao.values()) porOperacao.put(o, new Contadores());
+    }
+
+    /**
+     * @param inicioNanos valor de System.nanoTime() no início da operação
+     */
+    public void concluida(Operacao operacao, long inicioNanos) {
+        Contadores c = porOperacao.get(operacao);
+        c.latencia.registrar(System.nanoTime() - inicioNanos);
+        c.concluidas.increment();
+    }
+
+    /**
+     * @param motivo RegraNegocioException ou IllegalArgumentException
+     */
+    public void rejeitada(Operacao operacao, long inicioNanos, RuntimeException motivo) {
+        Contadores c = porOperacao.get(operacao);
+        c.latencia.registrar(System.nanoTime() - inicioNanos);
+        c.rejeitadas.increment();
+        contarRegras(motivo);
+    }
+
+    /**
+     * Etapa interna de uma operação: conta e mede, mas não registra a regra
+     * (a rejeição já é contada pela operação que a contém).
+     */
+    public void etapa(Operacao operacao, long inicioNanos, boolean aprovada) {
+        Contadores c = porOperacao.get(operacao);
+        c.latencia.registrar(System.nanoTime() - inicioNanos);
+        if (aprovada) c.concluidas.increment();
+        else c.rejeitadas.increment();
+    }
+
+    public Map<Operacao, MetricasOperacao> resumirOperacoes() {
+        Map<Operacao, MetricasOperacao> m = new EnumMap<>(Operacao.class);
+        for (Map.Entry<Operacao, Contadores> e : porOperacao.entrySet()) {
+            Contadores c = e.getValue();
+            m.put(e.getKey(), new MetricasOperacao(e.getKey(), c.concluidas.sum(), c.rejeitadas.sum(), c.latencia.resumir()));
+        }
+        return m;
+    }
+
+    public Map<String, Long> resumirRejeicoes() {
+        Map<String, Long> m = new TreeMap<>();
+        rejeicoesPorRegra.forEach((regra, n) -> m.put(regra, n.sum()));
+        return m;
+    }
+
+    private void contarRegras(RuntimeException motivo) {
+        // Em bloco, cada item rejeitado conta pela sua própria regra.
+        if (motivo instanceof VendasRejeitadasException v) {
+            v.getErros().values().forEach(this::contarRegras);
+        } else if (motivo instanceof AlteracoesStatusRejeitadasException a) {
+            a.getErros().values().forEach(this::contarRegras);
+        } else {
+            contarRegra(regra(motivo));
+        }
+    }
+
+    private void contarRegra(String regra) {
+        LongAdder n = rejeicoesPorRegra.get(regra);
+        if (n == null) {
+            if (rejeicoesPorRegra.size() >= MAXIMO_REGRAS) regra = REGRA_OUTRAS;
+            n = rejeicoesPorRegra.computeIfAbsent(regra, r -> new LongAdder());
+        }
+        n.increment();
+    }
+
+    /**
+     * Chave da regra violada: o nome da classe para exceções específicas; para
+     * RegraNegocioException e IllegalArgumentException, o texto da mensagem até
+     * o primeiro ':' , '(' ou '=', onde começam os valores (ids, códigos,
+     * somas) que variam por caso.
+     */
+    static String regra(RuntimeException e) {
+        if (e.getClass() != RegraNegocioException.class && e.getClass() != IllegalArgumentException.class) {
+            return e.getClass().getSimpleName();
+        }
+        String m = e.getMessage();
+        if (m == null) return "(sem mensagem)";
+        int fim = m.length();
+        for (int i = 0; i < m.length(); i++) {
+            char c = m.charAt(i);
+            if (c == ':' || c == '(' || c == '=') {
+                fim = i;
+                break;
+            }
+        }
+        String regra = m.substring(0, Math.min(fim, 120)).trim();
+        return regra.isEmpty() ? "(sem mensagem)" : regra;
+    }
+
+    private static final class Contadores {
+        final LongAdder concluidas = new LongAdder();
+        final LongAdder rejeitadas = new LongAdder();
+        final Histograma latencia = new Histograma();
+    }
+}
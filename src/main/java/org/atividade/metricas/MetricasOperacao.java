@@ -0,0 +1,29 @@
+package org.atividade.metricas;
+
+/**
+ * Contadores e latência (em nanossegundos) de uma operação num instante.
+ * A latência inclui as execuções concluídas e as rejeitadas.
+ */
+public final class MetricasOperacao {
+    private final Operacao operacao;
+    private final long concluidas;
+    private final long rejeitadas;
+    private final ResumoHistograma latenciaNanos;
+
+    MetricasOperacao(Operacao operacao, long concluidas, long rejeitadas, ResumoHistograma latenciaNanos) {
+        this.operacao = operacao;
+        this.concluidas = concluidas;
+        this.rejeitadas = rejeitadas;
+        this.latenciaNanos = latenciaNanos;
+    }
+
+    public Operacao getOperacao() { return operacao; }
+    public long getConcluidas() { return concluidas; }
+    public long getRejeitadas() { return rejeitadas; }
+    public ResumoHistograma getLatenciaNanos() { return latenciaNanos; }
+
+    @Override
+    public String toString() {
+        return operacao + "{concluidas=" + concluidas + ", rejeitadas=" + rejeitadas + ", latencia=" + latenciaNanos + "}";
+    }
+}
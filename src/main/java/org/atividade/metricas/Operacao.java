@@ -0,0 +1,18 @@
+package org.atividade.metricas;
+
+/**
+ * Operações medidas do SistemaCarbono. VALIDAR_VENDA mede só a checagem
+ * dos proprietários atuais dentro de venderLote/venderLotes (sob o lock).
+ */
+public enum Operacao {
+    CADASTRAR_PROPRIETARIO,
+    CRIAR_LOTE,
+    REGISTRAR_ARVORE,
+    REGISTRAR_ARVORES,
+    DEFINIR_PARTICIPACOES,
+    VENDER_LOTE,
+    VENDER_LOTES,
+    VALIDAR_VENDA,
+    ALTERAR_STATUS,
+    RELATORIO_LOTE
+}
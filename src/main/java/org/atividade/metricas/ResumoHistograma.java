@@ -0,0 +1,57 @@
+package org.atividade.metricas;
+
+/**
+ * Cópia imutável de um Histograma num instante: contagem, soma, média,
+ * máximo e percentis (com a precisão das faixas do histograma).
+ */
+public final class ResumoHistograma {
+    private final long[] contagens;
+    private final long contagem;
+    private final long soma;
+    private final long maximo;
+
+    ResumoHistograma(long[] contagens, long soma, long maximo) {
+        this.contagens = contagens;
+        long total = 0;
+        for (long c : contagens) total += c;
+        this.contagem = total;
+        this.soma = soma;
+        this.maximo = maximo;
+    }
+
+    public long getContagem() { return contagem; }
+    public long getSoma() { return soma; }
+    public long getMaximo() { return maximo; }
+
+    public double getMedia() {
+        return contagem == 0 ? 0 : (double) soma / contagem;
+    }
+
+    /**
+     * Menor valor v tal que ao menos percentil% dos registros são &lt;= v
+     * (0 se o histograma está vazio). percentil em [0, 100].
+     */
+    public long getPercentil(double percentil) {
+        if (percentil < 0 || percentil > 100) {
+            throw new IllegalArgumentException("Percentil deve estar entre 0 e 100: " + percentil);
+        }
+        if (contagem == 0) return 0;
+        long alvo = Math.max(1, (long) Math.ceil(contagem * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                // a última faixa não tem limite superior: o máximo é o único valor exato ali
+                return i == contagens.length - 1 ? maximo : Math.min(Histograma.maiorValor(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    @Override
+    public String toString() {
+        return "ResumoHistograma{n=" + contagem + ", media=" + Math.round(getMedia())
+                + ", p50=" + getPercentil(50) + ", p99=" + getPercentil(99)
+                + ", p99.9=" + getPercentil(99.9) + ", max=" + maximo + "}";
+    }
+}
@@ -0,0 +1,308 @@
+package org.atividade.persistencia;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.Proprietario;
+import org.atividade.entities.TransacaoCompraVenda;
+import org.atividade.utilities.StatusLote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Diretório de persistência com journal segmentado e snapshots.
+ *
+ * Arquivos:
+ * - journal-NNNN.log: segmentos do journal, em ordem de sequência
+ * - snapshot-NNNN.bin: estado completo equivalente a todos os segmentos com sequência &lt; NNNN
+ *
+ * Na recuperação carrega o snapshot mais recente e reproduz só os segmentos
+ * a partir dele. Só o último segmento pode terminar num registro parcial; um
+ * defeito em qualquer segmento fechado interrompe a recuperação (e a
+ * compactação, antes de apagar qualquer arquivo). A compactação (ver SistemaCarbono.compactarJournal) rotaciona
+ * o segmento atual, gera o snapshot a partir dos arquivos já fechados (sem
+ * bloquear as operações em andamento) e apaga segmentos e snapshots antigos.
+ */
+public final class ArmazenamentoCarbono implements RegistroOperacoes, Closeable {
+    private static final String PREFIXO_JOURNAL = "journal-";
+    private static final String SUFIXO_JOURNAL = ".log";
+    private static final String PREFIXO_SNAPSHOT = "snapshot-";
+    private static final String SUFIXO_SNAPSHOT = ".bin";
+
+    private final Path diretorio;
+    private final JournalOperacoes.Durabilidade durabilidade;
+    private final int registrosPorFsync;
+    private final long intervaloFsyncMillis;
+
+    // Leitura: gravação de registros (concorrentes entre si). Escrita: rotação de segmento.
+    private final ReentrantReadWriteLock lockSegmento = new ReentrantReadWriteLock();
+    private JournalOperacoes segmentoAtual;
+    private long sequenciaAtual;
+
+    /**
+     * Segmentos com durabilidade síncrona (ver {@link JournalOperacoes#abrir(Path)}).
+     */
+    public static ArmazenamentoCarbono abrir(Path diretorio) throws IOException {
+        return new ArmazenamentoCarbono(diretorio, JournalOperacoes.Durabilidade.SINCRONA, 1, 0);
+    }
+
+    /**
+     * Segmentos com durabilidade assíncrona (ver {@link JournalOperacoes#abrirAssincrono}).
+     */
+    public static ArmazenamentoCarbono abrirAssincrono(Path diretorio, int registrosPorFsync,
+                                                       long intervaloFsyncMillis) throws IOException {
+        return new ArmazenamentoCarbono(diretorio, JournalOperacoes.Durabilidade.ASSINCRONA,
+                registrosPorFsync, intervaloFsyncMillis);
+    }
+
+    private ArmazenamentoCarbono(Path diretorio, JournalOperacoes.Durabilidade durabilidade,
+                                 int registrosPorFsync, long intervaloFsyncMillis) throws IOException {
+        this.diretorio = Files.createDirectories(diretorio);
+        this.durabilidade = durabilidade;
+        this.registrosPorFsync = registrosPorFsync;
+        this.intervaloFsyncMillis = intervaloFsyncMillis;
+    }
+
+    public Path getDiretorio() {
+        return diretorio;
+    }
+
+    /**
+     * Carrega o snapshot mais recente, reproduz os segmentos posteriores e
+     * deixa o último segmento aberto para novas gravações.
+     */
+    public <T extends ReprodutorJournal & VisitanteEstado> void recuperar(T destino) throws IOException {
+        lockSegmento.writeLock().lock();
+        try {
+            if (segmentoAtual != null) {
+                throw new IllegalStateException("Armazenamento já recuperado: " + diretorio);
+            }
+
+            long inicio = carregarSnapshotMaisRecente(destino);
+            TreeMap<Long, Path> segmentos = listar(PREFIXO_JOURNAL, SUFIXO_JOURNAL);
+
+            long ultimo = Math.max(Math.max(inicio, 1), segmentos.isEmpty() ? 0 : segmentos.lastKey());
+            for (Map.Entry<Long, Path> e : segmentos.tailMap(inicio, true).entrySet()) {
+                if (e.getKey() < ultimo) {
+                    JournalOperacoes.reproduzirArquivo(e.getValue(), destino);
+                }
+            }
+
+            JournalOperacoes journal = abrirSegmento(ultimo);
+            journal.reproduzir(destino);
+            segmentoAtual = journal;
+            sequenciaAtual = ultimo;
+        } finally {
+            lockSegmento.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fecha o segmento atual e passa a gravar num novo.
+     *
+     * @return sequência do novo segmento; todos os registros anteriores estão em segmentos menores
+     */
+    public long rotacionar() throws IOException {
+        lockSegmento.writeLock().lock();
+        try {
+            exigirAberto();
+            segmentoAtual.close();
+            segmentoAtual = abrirSegmento(sequenciaAtual + 1);
+            sequenciaAtual++;
+            return sequenciaAtual;
+        } finally {
+            lockSegmento.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reproduz snapshot + segmentos com sequência &lt; limite (todos já fechados).
+     */
+    public <T extends ReprodutorJournal & VisitanteEstado> void reproduzirAte(long limite, T destino) throws IOException {
+        long inicio = carregarSnapshotMaisRecente(destino);
+        for (Path segmento : listar(PREFIXO_JOURNAL, SUFIXO_JOURNAL).subMap(inicio, true, limite, false).values()) {
+            JournalOperacoes.reproduzirArquivo(segmento, destino);
+        }
+    }
+
+    /**
+     * Grava snapshot-{sequencia} de forma atômica (arquivo temporário + rename).
+     */
+    public void gravarSnapshot(long sequencia, Consumer<VisitanteEstado> fonte) throws IOException {
+        Path temporario = diretorio.resolve(nome(PREFIXO_SNAPSHOT, sequencia, ".tmp"));
+        SnapshotCarbono.gravar(temporario, fonte);
+        Files.move(temporario, diretorio.resolve(nome(PREFIXO_SNAPSHOT, sequencia, SUFIXO_SNAPSHOT)),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Apaga segmentos e snapshots cobertos pelo snapshot-{sequencia}.
+     */
+    public void removerAnteriores(long sequencia) throws IOException {
+        for (Path p : listar(PREFIXO_JOURNAL, SUFIXO_JOURNAL).headMap(sequencia, false).values()) {
+            Files.deleteIfExists(p);
+        }
+        for (Path p : listar(PREFIXO_SNAPSHOT, SUFIXO_SNAPSHOT).headMap(sequencia, false).values()) {
+            Files.deleteIfExists(p);
+        }
+    }
+
+    // =========================
+    // ===== GRAVAÇÃO ==========
+    // =========================
+
+    @Override
+    public void registrarProprietario(Proprietario p) {
+        lockSegmento.readLock().lock();
+        try {
+            exigirAberto();
+            segmentoAtual.registrarProprietario(p);
+        } finally {
+            lockSegmento.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void registrarLote(LoteCreditoCarbono lote) {
+        lockSegmento.readLock().lock();
+        try {
+            exigirAberto();
+            segmentoAtual.registrarLote(lote);
+        } finally {
+            lockSegmento.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void registrarArvore(UUID idLote, ArvoreGeradoraCredito arvore) {
+        lockSegmento.readLock().lock();
+        try {
+            exigirAberto();
+            segmentoAtual.registrarArvore(idLote, arvore);
+        } finally {
+            lockSegmento.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void registrarArvores(UUID idLote, List<ArvoreGeradoraCredito> arvores) {
+        lockSegmento.readLock().lock();
+        try {
+            exigirAberto();
+            segmentoAtual.registrarArvores(idLote, arvores);
+        } finally {
+            lockSegmento.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void registrarParticipacoes(UUID idLote, List<ParticipacaoLote> participacoes) {
+        lockSegmento.readLock().lock();
+        try {
+            exigirAberto();
+            segmentoAtual.registrarParticipacoes(idLote, participacoes);
+        } finally {
+            lockSegmento.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void registrarVendas(List<TransacaoCompraVenda> transacoes, List<ParticipacaoLote> novasParticipacoes) {
+        lockSegmento.readLock().lock();
+        try {
+            exigirAberto();
+            segmentoAtual.registrarVendas(transacoes, novasParticipacoes);
+        } finally {
+            lockSegmento.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void registrarStatus(List<UUID> idsLotes, StatusLote novoStatus) {
+        lockSegmento.readLock().lock();
+        try {
+            exigirAberto();
+            segmentoAtual.registrarStatus(idsLotes, novoStatus);
+        } finally {
+            lockSegmento.readLock().unlock();
+        }
+    }
+
+    public void sincronizar() {
+        lockSegmento.readLock().lock();
+        try {
+            exigirAberto();
+            segmentoAtual.sincronizar();
+        } finally {
+            lockSegmento.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lockSegmento.writeLock().lock();
+        try {
+            if (segmentoAtual != null) {
+                segmentoAtual.close();
+                segmentoAtual = null;
+            }
+        } finally {
+            lockSegmento.writeLock().unlock();
+        }
+    }
+
+    // =========================
+    // ===== ARQUIVOS ==========
+    // =========================
+
+    private void exigirAberto() {
+        if (segmentoAtual == null) {
+            throw new IllegalStateException("Armazenamento não recuperado ou já fechado: " + diretorio);
+        }
+    }
+
+    private JournalOperacoes abrirSegmento(long sequencia) throws IOException {
+        return new JournalOperacoes(diretorio.resolve(nome(PREFIXO_JOURNAL, sequencia, SUFIXO_JOURNAL)),
+                durabilidade, registrosPorFsync, intervaloFsyncMillis);
+    }
+
+    /**
+     * @return sequência do snapshot carregado (0 se não houver)
+     */
+    private long carregarSnapshotMaisRecente(VisitanteEstado destino) throws IOException {
+        TreeMap<Long, Path> snapshots = listar(PREFIXO_SNAPSHOT, SUFIXO_SNAPSHOT);
+        if (snapshots.isEmpty()) return 0;
+        SnapshotCarbono.ler(snapshots.lastEntry().getValue(), destino);
+        return snapshots.lastKey();
+    }
+
+    private TreeMap<Long, Path> listar(String prefixo, String sufixo) throws IOException {
+        TreeMap<Long, Path> arquivos = new TreeMap<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(diretorio, prefixo + "*" + sufixo)) {
+            for (Path p : ds) {
+                String n = p.getFileName().toString();
+                try {
+                    arquivos.put(Long.parseLong(n.substring(prefixo.length(), n.length() - sufixo.length())), p);
+                } catch (NumberFormatException ignorado) {
+                    // arquivo com nome fora do padrão: não faz parte do armazenamento
+                }
+            }
+        }
+        return arquivos;
+    }
+
+    private static String nome(String prefixo, long sequencia, String sufixo) {
+        return prefixo + String.format("%016d", sequencia) + sufixo;
+    }
+}
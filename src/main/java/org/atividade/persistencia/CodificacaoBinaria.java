@@ -0,0 +1,107 @@
+package org.atividade.persistencia;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.TransacaoCompraVenda;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Codificação binária compacta dos tipos usados pelas entidades.
+ * Datas são gravadas como segundos + nanos (LocalDateTime interpretado em UTC).
+ */
+final class CodificacaoBinaria {
+    private static final Logger LOG = Logger.getLogger(CodificacaoBinaria.class.getName());
+    static final String PROPRIEDADE_ARREDONDAR = "carbono.arredondarValoresAntigos";
+
+    private CodificacaoBinaria() {
+    }
+
+    static void escreverUuid(DataOutput out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    static UUID lerUuid(DataInput in) throws IOException {
+        long msb = in.readLong();
+        long lsb = in.readLong();
+        return new UUID(msb, lsb);
+    }
+
+    static void escreverData(DataOutput out, LocalDateTime data) throws IOException {
+        out.writeLong(data.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(data.getNano());
+    }
+
+    static LocalDateTime lerData(DataInput in) throws IOException {
+        long segundos = in.readLong();
+        int nanos = in.readInt();
+        return LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC);
+    }
+
+    static void escreverValor(DataOutput out, BigDecimal valor) throws IOException {
+        byte[] unscaled = valor.unscaledValue().toByteArray();
+        out.writeInt(valor.scale());
+        out.writeShort(unscaled.length);
+        out.write(unscaled);
+    }
+
+    /**
+     * Journals e snapshots gravados antes de os valores ficarem em centavos
+     * podem ter mais de {@link TransacaoCompraVenda#ESCALA_VALOR} casas
+     * decimais. Valores exatos (10.500) são lidos normalmente; os demais fazem
+     * a leitura falhar, porque arredondar dinheiro sem aviso mudaria uma venda
+     * já confirmada. A migração é explícita: recuperar com
+     * {@code -Dcarbono.arredondarValoresAntigos=true} arredonda (HALF_EVEN) com
+     * um aviso no log, e a compactação seguinte grava o valor arredondado.
+     */
+    static BigDecimal lerValor(DataInput in) throws IOException {
+        int escala = in.readInt();
+        byte[] unscaled = new byte[in.readUnsignedShort()];
+        in.readFully(unscaled);
+        BigDecimal valor = new BigDecimal(new BigInteger(unscaled), escala);
+        if (valor.scale() <= TransacaoCompraVenda.ESCALA_VALOR) {
+            return valor;
+        }
+        try {
+            return BigDecimal.valueOf(TransacaoCompraVenda.centavos(valor), TransacaoCompraVenda.ESCALA_VALOR);
+        } catch (IllegalArgumentException e) {
+            if (!Boolean.getBoolean(PROPRIEDADE_ARREDONDAR)) {
+                throw new IOException("Valor gravado não cabe em centavos (até " + TransacaoCompraVenda.ESCALA_VALOR
+                        + " casas decimais): " + valor + "; para arredondar, recupere com -D"
+                        + PROPRIEDADE_ARREDONDAR + "=true e compacte o journal.");
+            }
+        }
+        BigDecimal arredondado = valor.setScale(TransacaoCompraVenda.ESCALA_VALOR, RoundingMode.HALF_EVEN);
+        LOG.warning("Valor gravado com mais de " + TransacaoCompraVenda.ESCALA_VALOR
+                + " casas decimais arredondado na leitura: " + valor + " -> " + arredondado);
+        return arredondado;
+    }
+
+    /**
+     * Lê uma árvore gravada como id, espécie, latitude, longitude. Antes da
+     * checagem com Double.isFinite uma coordenada NaN passava pela validação
+     * de faixa e podia ser gravada. Descartar a árvore mudaria os créditos e a
+     * sequência do lote já confirmados, então a leitura falha com o id da
+     * árvore, que precisa ser corrigida no arquivo antes da recuperação.
+     */
+    static ArvoreGeradoraCredito lerArvore(DataInput in) throws IOException {
+        UUID id = lerUuid(in);
+        String especie = in.readUTF();
+        double lat = in.readDouble();
+        double lon = in.readDouble();
+        if (!Double.isFinite(lat) || !Double.isFinite(lon)) {
+            throw new IOException("Árvore " + id + " gravada com coordenada inválida (" + lat + ", " + lon
+                    + "); corrija o registro antes de recuperar.");
+        }
+        return new ArvoreGeradoraCredito(id, especie, lat, lon);
+    }
+}
@@ -0,0 +1,608 @@
+package org.atividade.persistencia;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.PessoaJuridica;
+import org.atividade.entities.Proprietario;
+import org.atividade.entities.TransacaoCompraVenda;
+import org.atividade.exceptions.JournalInutilizadoException;
+import org.atividade.utilities.StatusLote;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Journal append-only (write-ahead) das operações que alteram o SistemaCarbono.
+ *
+ * Formato de cada registro: [int tamanho][byte tipo + payload][int crc32],
+ * com no máximo 16 MiB de corpo (gravações maiores são recusadas). Um registro
+ * incompleto ou corrompido no fim do arquivo (queda no meio de uma escrita) é
+ * descartado na reprodução; um registro corrompido seguido de outros impede a
+ * abertura do journal.
+ *
+ * Durabilidade {@link Durabilidade#SINCRONA} (padrão, {@link #abrir(Path)}):
+ * group commit. Cada registro recebe um número de sequência ao ser escrito e
+ * o chamador só retorna quando um fsync cobrir esse número. Um dos chamadores
+ * em espera executa o fsync (fora do lock de escrita) para todos os registros
+ * escritos até ali; os demais aguardam o sinal e retornam juntos, de modo que
+ * um único fsync confirma várias operações concorrentes.
+ *
+ * Durabilidade {@link Durabilidade#ASSINCRONA} ({@link #abrirAssincrono}):
+ * o chamador retorna logo após a escrita e o fsync só acontece a cada
+ * {@code registrosPorFsync} registros ou a cada {@code intervaloFsyncMillis},
+ * o que vier primeiro. Operações já confirmadas ao chamador podem se perder
+ * numa queda do sistema operacional.
+ *
+ * Uma falha depois de o registro chegar ao arquivo (fsync, ou uma escrita
+ * parcial que não pôde ser desfeita) inutiliza o journal: o canal é fechado,
+ * os chamadores afetados recebem {@link JournalInutilizadoException} e as
+ * gravações seguintes são recusadas. Repetir o fsync não é seguro, porque o
+ * sistema operacional pode descartar as páginas que falharam e reportar
+ * sucesso na segunda tentativa.
+ */
+public final class JournalOperacoes implements RegistroOperacoes, Closeable {
+    public static final int REGISTROS_POR_FSYNC_PADRAO = 64;
+    public static final long INTERVALO_FSYNC_PADRAO_MILLIS = 20;
+
+    private static final byte TIPO_PROPRIETARIO = 1;
+    private static final byte TIPO_LOTE = 2;
+    private static final byte TIPO_ARVORE = 3;
+    private static final byte TIPO_PARTICIPACOES = 4;
+    private static final byte TIPO_VENDAS = 5;
+    private static final byte TIPO_STATUS = 6;
+    private static final byte TIPO_ARVORES = 7;
+
+    private static final int TAMANHO_MAXIMO_REGISTRO = 16 * 1024 * 1024;
+
+    public enum Durabilidade {
+        /** A escrita só retorna depois do fsync que cobre o registro. */
+        SINCRONA,
+        /** A escrita retorna antes do fsync; ver a documentação da classe. */
+        ASSINCRONA
+    }
+
+    private final Path arquivo;
+    private final FileChannel canal;
+    private final Durabilidade durabilidade;
+    private final int registrosPorFsync;
+    private final ScheduledExecutorService sincronizador;
+    private final CRC32 crc = new CRC32();
+
+    private boolean escritaIniciada;
+    private boolean fechado;
+    // Falha que inutilizou o journal (ver a documentação da classe).
+    private volatile IOException falha;
+
+    // Sequência do último registro escrito por completo (escrita sob o monitor do journal).
+    private volatile long escritos;
+    // Sequência até a qual um fsync já terminou (escrita sob lockFsync).
+    private volatile long sincronizados;
+    private final ReentrantLock lockFsync = new ReentrantLock();
+    private final Condition fsyncConcluido = lockFsync.newCondition();
+    private boolean fsyncEmAndamento;
+
+    /**
+     * Journal com durabilidade síncrona (group commit).
+     */
+    public static JournalOperacoes abrir(Path arquivo) throws IOException {
+        return new JournalOperacoes(arquivo, Durabilidade.SINCRONA, 1, 0);
+    }
+
+    /**
+     * Journal com durabilidade assíncrona.
+     *
+     * @param registrosPorFsync    fsync a cada N registros (1 = fsync por operação)
+     * @param intervaloFsyncMillis fsync periódico em background; 0 desativa
+     */
+    public static JournalOperacoes abrirAssincrono(Path arquivo, int registrosPorFsync,
+                                                   long intervaloFsyncMillis) throws IOException {
+        return new JournalOperacoes(arquivo, Durabilidade.ASSINCRONA, registrosPorFsync, intervaloFsyncMillis);
+    }
+
+    JournalOperacoes(Path arquivo, Durabilidade durabilidade, int registrosPorFsync,
+                     long intervaloFsyncMillis) throws IOException {
+        this(arquivo, FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE), durabilidade, registrosPorFsync, intervaloFsyncMillis);
+    }
+
+    JournalOperacoes(Path arquivo, FileChannel canal, Durabilidade durabilidade, int registrosPorFsync,
+                     long intervaloFsyncMillis) throws IOException {
+        if (registrosPorFsync < 1) {
+            throw new IllegalArgumentException("registrosPorFsync deve ser >= 1.");
+        }
+        if (intervaloFsyncMillis < 0) {
+            throw new IllegalArgumentException("intervaloFsyncMillis deve ser >= 0.");
+        }
+        this.arquivo = arquivo;
+        this.durabilidade = durabilidade;
+        this.registrosPorFsync = registrosPorFsync;
+        this.canal = canal;
+        this.canal.position(canal.size());
+
+        if (durabilidade == Durabilidade.ASSINCRONA && intervaloFsyncMillis > 0) {
+            this.sincronizador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "journal-fsync");
+                t.setDaemon(true);
+                return t;
+            });
+            this.sincronizador.scheduleWithFixedDelay(this::sincronizarSilencioso,
+                    intervaloFsyncMillis, intervaloFsyncMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.sincronizador = null;
+        }
+    }
+
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    public Durabilidade getDurabilidade() {
+        return durabilidade;
+    }
+
+    // =========================
+    // ===== REPRODUÇÃO ========
+    // =========================
+
+    /**
+     * Reproduz todos os registros válidos, em ordem, e descarta um eventual
+     * registro parcial no fim do arquivo. Deve ser chamado antes da primeira escrita.
+     *
+     * @return quantidade de registros reproduzidos
+     * @throws IOException se houver um registro corrompido antes do fim do arquivo
+     */
+    public synchronized long reproduzir(ReprodutorJournal reprodutor) throws IOException {
+        if (escritaIniciada) {
+            throw new IllegalStateException("A reprodução deve acontecer antes de qualquer escrita no journal.");
+        }
+
+        long[] lidos = ler(arquivo, reprodutor, crc, true);
+        long posicaoValida = lidos[0];
+
+        if (canal.size() > posicaoValida) {
+            canal.truncate(posicaoValida);
+            canal.force(true);
+        }
+        canal.position(posicaoValida);
+        return lidos[1];
+    }
+
+    /**
+     * Reproduz um arquivo de journal sem abri-lo para escrita (segmentos já
+     * fechados). Um segmento fechado passou por fsync no fechamento e não tem
+     * fim parcial: qualquer registro incompleto ou corrompido lança IOException.
+     *
+     * @return quantidade de registros reproduzidos
+     */
+    public static long reproduzirArquivo(Path arquivo, ReprodutorJournal reprodutor) throws IOException {
+        return ler(arquivo, reprodutor, new CRC32(), false)[1];
+    }
+
+    /**
+     * Lê os registros em ordem. Um registro com defeito (cabeçalho ou corpo
+     * incompleto, tamanho inválido ou CRC errado) só é tratado como fim
+     * parcial se {@code aceitaFimParcial} e se ele for o último do arquivo:
+     * vai até o fim do arquivo ou além, ou é seguido só de zeros. Qualquer
+     * outro defeito interrompe a leitura com IOException, para que registros
+     * válidos depois dele nunca sejam descartados.
+     *
+     * @return {posição do fim do último registro válido, quantidade de registros}
+     */
+    private static long[] ler(Path arquivo, ReprodutorJournal reprodutor, CRC32 crc,
+                              boolean aceitaFimParcial) throws IOException {
+        long tamanhoArquivo = Files.size(arquivo);
+        long posicaoValida = 0;
+        long registros = 0;
+        InputStream bruto = Files.newInputStream(arquivo);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(bruto, 1 << 16))) {
+            while (posicaoValida < tamanhoArquivo) {
+                long restante = tamanhoArquivo - posicaoValida;
+                int tamanho = 0;
+                byte[] corpo = null;
+                String defeito = null;
+                boolean ultimo = true;
+
+                if (restante < 4) {
+                    defeito = "cabeçalho incompleto";
+                } else {
+                    tamanho = in.readInt();
+                    if (tamanho <= 0) {
+                        defeito = "tamanho inválido (" + tamanho + ")";
+                        ultimo = restoZerado(in, tamanho, restante - 4);
+                    } else if (restante < 8L + tamanho) {
+                        defeito = "registro incompleto";
+                    } else {
+                        corpo = new byte[tamanho];
+                        in.readFully(corpo);
+                        int crcGravado = in.readInt();
+                        crc.reset();
+                        crc.update(corpo);
+                        if ((int) crc.getValue() != crcGravado) {
+                            defeito = "CRC inválido";
+                            ultimo = restante == 8L + tamanho;
+                        }
+                    }
+                }
+
+                if (defeito != null) {
+                    if (aceitaFimParcial && ultimo) break;
+                    throw new IOException("Journal corrompido: " + arquivo + ", registro " + (registros + 1)
+                            + " na posição " + posicaoValida + ": " + defeito + ".");
+                }
+
+                aplicar(corpo, reprodutor);
+                posicaoValida += 8L + tamanho;
+                registros++;
+            }
+        }
+        return new long[]{posicaoValida, registros};
+    }
+
+    /**
+     * Um fim de arquivo preenchido com zeros (espaço alocado que a escrita não
+     * chegou a ocupar) não contém registros.
+     */
+    private static boolean restoZerado(DataInputStream in, int tamanhoLido, long restante) throws IOException {
+        if (tamanhoLido != 0) return false;
+        for (long i = 0; i < restante; i++) {
+            if (in.readByte() != 0) return false;
+        }
+        return true;
+    }
+
+    private static void aplicar(byte[] corpo, ReprodutorJournal reprodutor) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(corpo));
+        byte tipo = in.readByte();
+        switch (tipo) {
+            case TIPO_PROPRIETARIO -> reprodutor.proprietarioCadastrado(lerProprietario(in));
+            case TIPO_LOTE -> {
+                UUID id = CodificacaoBinaria.lerUuid(in);
+                reprodutor.loteCriado(new LoteCreditoCarbono(id, in.readUTF()));
+            }
+            case TIPO_ARVORE -> {
+                UUID idLote = CodificacaoBinaria.lerUuid(in);
+                reprodutor.arvoreRegistrada(idLote, CodificacaoBinaria.lerArvore(in));
+            }
+            case TIPO_ARVORES -> {
+                UUID idLote = CodificacaoBinaria.lerUuid(in);
+                int n = in.readInt();
+                for (int i = 0; i < n; i++) {
+                    reprodutor.arvoreRegistrada(idLote, CodificacaoBinaria.lerArvore(in));
+                }
+            }
+            case TIPO_PARTICIPACOES -> {
+                UUID idLote = CodificacaoBinaria.lerUuid(in);
+                LocalDateTime inicio = CodificacaoBinaria.lerData(in);
+                int n = in.readUnsignedByte();
+                List<ParticipacaoLote> participacoes = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    UUID id = CodificacaoBinaria.lerUuid(in);
+                    UUID idProp = CodificacaoBinaria.lerUuid(in);
+                    participacoes.add(new ParticipacaoLote(id, idLote, idProp, in.readInt(), inicio));
+                }
+                reprodutor.participacoesDefinidas(idLote, participacoes);
+            }
+            case TIPO_VENDAS -> {
+                int n = in.readInt();
+                List<TransacaoCompraVenda> transacoes = new ArrayList<>(n);
+                List<ParticipacaoLote> novas = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    UUID id = CodificacaoBinaria.lerUuid(in);
+                    UUID idLote = CodificacaoBinaria.lerUuid(in);
+                    int nv = in.readUnsignedByte();
+                    List<UUID> vendedores = new ArrayList<>(nv);
+                    for (int j = 0; j < nv; j++) vendedores.add(CodificacaoBinaria.lerUuid(in));
+                    UUID idComprador = CodificacaoBinaria.lerUuid(in);
+                    BigDecimal valor = CodificacaoBinaria.lerValor(in);
+                    LocalDateTime data = CodificacaoBinaria.lerData(in);
+                    UUID idNova = CodificacaoBinaria.lerUuid(in);
+                    int creditos = in.readInt();
+
+                    transacoes.add(new TransacaoCompraVenda(id, idLote, vendedores, idComprador, valor, data));
+                    novas.add(new ParticipacaoLote(idNova, idLote, idComprador, creditos, data));
+                }
+                reprodutor.vendasEfetivadas(transacoes, novas);
+            }
+            case TIPO_STATUS -> {
+                StatusLote status = StatusLote.values()[in.readUnsignedByte()];
+                int n = in.readInt();
+                List<UUID> idsLotes = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) idsLotes.add(CodificacaoBinaria.lerUuid(in));
+                reprodutor.statusAlterado(idsLotes, status);
+            }
+            default -> throw new IOException("Tipo de registro desconhecido no journal: " + tipo);
+        }
+    }
+
+    private static Proprietario lerProprietario(DataInputStream in) throws IOException {
+        UUID id = CodificacaoBinaria.lerUuid(in);
+        String tipo = in.readUTF();
+        String nome = in.readUTF();
+        String documento = in.readUTF();
+        return switch (tipo) {
+            case "PF" -> new PessoaFisica(id, nome, documento);
+            case "PJ" -> new PessoaJuridica(id, nome, documento);
+            default -> throw new IOException("Tipo de proprietário desconhecido no journal: " + tipo);
+        };
+    }
+
+    // =========================
+    // ===== ESCRITA ===========
+    // =========================
+
+    @Override
+    public void registrarProprietario(Proprietario p) {
+        anexar(TIPO_PROPRIETARIO, out -> {
+            CodificacaoBinaria.escreverUuid(out, p.getId());
+            out.writeUTF(p.getTipo());
+            out.writeUTF(p.getNome());
+            out.writeUTF(p.getDocumento());
+        });
+    }
+
+    @Override
+    public void registrarLote(LoteCreditoCarbono lote) {
+        anexar(TIPO_LOTE, out -> {
+            CodificacaoBinaria.escreverUuid(out, lote.getId());
+            out.writeUTF(lote.getCodigoLote());
+        });
+    }
+
+    @Override
+    public void registrarArvore(UUID idLote, ArvoreGeradoraCredito arvore) {
+        anexar(TIPO_ARVORE, out -> {
+            CodificacaoBinaria.escreverUuid(out, idLote);
+            escreverArvore(out, arvore);
+        });
+    }
+
+    /**
+     * Grava todas as árvores num único registro (reproduzido por inteiro ou não).
+     */
+    @Override
+    public void registrarArvores(UUID idLote, List<ArvoreGeradoraCredito> arvores) {
+        anexar(TIPO_ARVORES, out -> {
+            CodificacaoBinaria.escreverUuid(out, idLote);
+            out.writeInt(arvores.size());
+            for (ArvoreGeradoraCredito a : arvores) {
+                escreverArvore(out, a);
+            }
+        });
+    }
+
+    private static void escreverArvore(DataOutputStream out, ArvoreGeradoraCredito arvore) throws IOException {
+        CodificacaoBinaria.escreverUuid(out, arvore.getId());
+        out.writeUTF(arvore.getEspecie());
+        out.writeDouble(arvore.getLatitude());
+        out.writeDouble(arvore.getLongitude());
+    }
+
+    @Override
+    public void registrarParticipacoes(UUID idLote, List<ParticipacaoLote> participacoes) {
+        anexar(TIPO_PARTICIPACOES, out -> {
+            CodificacaoBinaria.escreverUuid(out, idLote);
+            CodificacaoBinaria.escreverData(out, participacoes.get(0).getDataInicio());
+            out.writeByte(participacoes.size());
+            for (ParticipacaoLote p : participacoes) {
+                CodificacaoBinaria.escreverUuid(out, p.getId());
+                CodificacaoBinaria.escreverUuid(out, p.getIdProprietario());
+                out.writeInt(p.getQuantidadeCreditos());
+            }
+        });
+    }
+
+    @Override
+    public void registrarVendas(List<TransacaoCompraVenda> transacoes, List<ParticipacaoLote> novasParticipacoes) {
+        anexar(TIPO_VENDAS, out -> {
+            out.writeInt(transacoes.size());
+            for (int i = 0; i < transacoes.size(); i++) {
+                TransacaoCompraVenda t = transacoes.get(i);
+                ParticipacaoLote nova = novasParticipacoes.get(i);
+
+                CodificacaoBinaria.escreverUuid(out, t.getId());
+                CodificacaoBinaria.escreverUuid(out, t.getIdLote());
+                out.writeByte(t.getIdsVendedores().size());
+                for (UUID v : t.getIdsVendedores()) CodificacaoBinaria.escreverUuid(out, v);
+                CodificacaoBinaria.escreverUuid(out, t.getIdComprador());
+                CodificacaoBinaria.escreverValor(out, t.getValor());
+                CodificacaoBinaria.escreverData(out, t.getDataTransacao());
+                CodificacaoBinaria.escreverUuid(out, nova.getId());
+                out.writeInt(nova.getQuantidadeCreditos());
+            }
+        });
+    }
+
+    @Override
+    public void registrarStatus(List<UUID> idsLotes, StatusLote novoStatus) {
+        anexar(TIPO_STATUS, out -> {
+            out.writeByte(novoStatus.ordinal());
+            out.writeInt(idsLotes.size());
+            for (UUID id : idsLotes) CodificacaoBinaria.escreverUuid(out, id);
+        });
+    }
+
+    /**
+     * Força o fsync dos registros pendentes.
+     */
+    public void sincronizar() {
+        aguardarFsync(escritos);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (sincronizador != null) {
+            sincronizador.shutdownNow();
+        }
+        synchronized (this) {
+            if (fechado) return;
+            fechado = true;
+        }
+        try {
+            aguardarFsync(escritos);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            canal.close();
+        }
+    }
+
+    /**
+     * Retorna quando um fsync tiver coberto o registro de sequência
+     * {@code sequencia}. Se nenhum fsync estiver em andamento, o próprio
+     * chamador o executa para tudo o que já foi escrito; caso contrário espera
+     * o fsync corrente terminar e confere de novo.
+     */
+    private void aguardarFsync(long sequencia) {
+        if (sincronizados >= sequencia) return;
+        lockFsync.lock();
+        try {
+            while (sincronizados < sequencia) {
+                if (falha != null) {
+                    throw new JournalInutilizadoException("Journal inutilizado por falha anterior: " + arquivo, falha);
+                }
+                if (fsyncEmAndamento) {
+                    // O registro já está no arquivo: a espera não pode ser abandonada no meio.
+                    fsyncConcluido.awaitUninterruptibly();
+                    continue;
+                }
+                fsyncEmAndamento = true;
+                long alvo = escritos;
+                lockFsync.unlock();
+                try {
+                    canal.force(false);
+                } catch (IOException e) {
+                    throw inutilizar("Falha ao sincronizar o journal ", e);
+                } finally {
+                    lockFsync.lock();
+                    fsyncEmAndamento = false;
+                    fsyncConcluido.signalAll();
+                }
+                if (alvo > sincronizados) sincronizados = alvo;
+            }
+        } finally {
+            lockFsync.unlock();
+        }
+    }
+
+    /**
+     * Após uma falha de escrita, remove o pedaço de registro gravado para que os
+     * próximos registros não fiquem atrás de um registro corrompido.
+     *
+     * @return false se o pedaço não pôde ser removido
+     */
+    private boolean descartarRegistroParcial(long inicio) {
+        if (inicio < 0) return true;
+        try {
+            canal.truncate(inicio);
+            canal.position(inicio);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Marca o journal como inutilizado e fecha o canal (sob o monitor, entre
+     * duas escritas).
+     */
+    private JournalInutilizadoException inutilizar(String mensagem, IOException e) {
+        synchronized (this) {
+            if (falha == null) falha = e;
+            try {
+                canal.close();
+            } catch (IOException ignorada) {
+                // O journal já não aceita escritas.
+            }
+        }
+        return new JournalInutilizadoException(mensagem + arquivo
+                + "; o registro pode voltar na recuperação e o journal não aceita mais escritas.", e);
+    }
+
+    private void sincronizarSilencioso() {
+        try {
+            sincronizar();
+        } catch (UncheckedIOException ignorada) {
+            // A próxima escrita reporta o erro ao chamador.
+        }
+    }
+
+    private interface Escritor {
+        void escrever(DataOutputStream out) throws IOException;
+    }
+
+    private void anexar(byte tipo, Escritor escritor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0); // tamanho, preenchido abaixo
+            out.writeByte(tipo);
+            escritor.escrever(out);
+            out.writeInt(0); // crc, preenchido abaixo
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int tamanhoCorpo = bytes.size() - 8;
+        if (tamanhoCorpo > TAMANHO_MAXIMO_REGISTRO) {
+            throw new IllegalArgumentException("Registro de " + tamanhoCorpo + " bytes excede o limite do journal ("
+                    + TAMANHO_MAXIMO_REGISTRO + " bytes).");
+        }
+        ByteBuffer registro = ByteBuffer.wrap(bytes.toByteArray());
+        registro.putInt(0, tamanhoCorpo);
+
+        long sequencia;
+        synchronized (this) {
+            if (fechado) throw new IllegalStateException("Journal fechado: " + arquivo);
+            if (falha != null) throw new IllegalStateException("Journal inutilizado por falha anterior: " + arquivo, falha);
+            escritaIniciada = true;
+
+            crc.reset();
+            crc.update(registro.array(), 4, tamanhoCorpo);
+            registro.putInt(4 + tamanhoCorpo, (int) crc.getValue());
+
+            long inicio = -1;
+            try {
+                inicio = canal.position();
+                while (registro.hasRemaining()) {
+                    canal.write(registro);
+                }
+            } catch (IOException e) {
+                if (!descartarRegistroParcial(inicio)) {
+                    throw inutilizar("Falha ao gravar no journal ", e);
+                }
+                throw new UncheckedIOException("Falha ao gravar no journal " + arquivo, e);
+            }
+            sequencia = ++escritos;
+        }
+
+        if (durabilidade == Durabilidade.SINCRONA
+                || sequencia - sincronizados >= registrosPorFsync) {
+            aguardarFsync(sequencia);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.atividade.persistencia;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.Proprietario;
+import org.atividade.entities.TransacaoCompraVenda;
+import org.atividade.utilities.StatusLote;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Destino durável das operações do SistemaCarbono. Cada método é chamado
+ * depois de a operação ser validada e antes de ela ser aplicada em memória;
+ * falhas de I/O são lançadas como UncheckedIOException e a operação é abortada.
+ * Uma falha depois de o registro chegar ao arquivo é lançada como
+ * JournalInutilizadoException: o registro pode voltar na recuperação, então
+ * o chamador não deve desfazer nada em memória, e as gravações seguintes são
+ * recusadas.
+ * Um registro maior que o limite da implementação é recusado com
+ * IllegalArgumentException antes de qualquer gravação.
+ */
+public interface RegistroOperacoes {
+    void registrarProprietario(Proprietario p);
+
+    void registrarLote(LoteCreditoCarbono lote);
+
+    void registrarArvore(UUID idLote, ArvoreGeradoraCredito arvore);
+
+    /**
+     * Várias árvores do mesmo lote. Implementações podem gravar tudo num
+     * único registro; o padrão grava uma a uma.
+     */
+    default void registrarArvores(UUID idLote, List<ArvoreGeradoraCredito> arvores) {
+        for (ArvoreGeradoraCredito a : arvores) {
+            registrarArvore(idLote, a);
+        }
+    }
+
+    /**
+     * Todas as participações devem ser do mesmo lote e ter a mesma data de início.
+     */
+    void registrarParticipacoes(UUID idLote, List<ParticipacaoLote> participacoes);
+
+    /**
+     * Grava um conjunto de vendas como um único registro (atômico na reprodução).
+     */
+    void registrarVendas(List<TransacaoCompraVenda> transacoes, List<ParticipacaoLote> novasParticipacoes);
+
+    /**
+     * Grava a mudança de status de um conjunto de lotes como um único registro.
+     */
+    void registrarStatus(List<UUID> idsLotes, StatusLote novoStatus);
+}
@@ -0,0 +1,33 @@
+package org.atividade.persistencia;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.Proprietario;
+import org.atividade.entities.TransacaoCompraVenda;
+import org.atividade.utilities.StatusLote;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recebe, em ordem, as operações lidas do journal na inicialização.
+ * As entidades chegam reconstruídas com os mesmos ids e datas originais.
+ */
+public interface ReprodutorJournal {
+    void proprietarioCadastrado(Proprietario proprietario);
+
+    void loteCriado(LoteCreditoCarbono lote);
+
+    void arvoreRegistrada(UUID idLote, ArvoreGeradoraCredito arvore);
+
+    void participacoesDefinidas(UUID idLote, List<ParticipacaoLote> participacoes);
+
+    /**
+     * Vendas efetivadas juntas (1 para venderLote, N para venderLotes).
+     * novasParticipacoes.get(i) é a participação do comprador de transacoes.get(i).
+     */
+    void vendasEfetivadas(List<TransacaoCompraVenda> transacoes, List<ParticipacaoLote> novasParticipacoes);
+
+    void statusAlterado(List<UUID> idsLotes, StatusLote novoStatus);
+}
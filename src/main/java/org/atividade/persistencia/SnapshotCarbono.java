@@ -0,0 +1,224 @@
+package org.atividade.persistencia;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.PessoaJuridica;
+import org.atividade.entities.Proprietario;
+import org.atividade.entities.TransacaoCompraVenda;
+import org.atividade.utilities.StatusLote;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot binário do estado completo (proprietários, lotes, árvores e todo o
+ * histórico de participações e transações).
+ *
+ * Formato: [int mágico][int versão] seguido de entradas marcadas por um byte
+ * (1 = proprietário, 2 = lote, 0 = fim) e, no final, o crc32 de tudo o que veio antes.
+ * A versão 2 acrescenta a sequência do lote logo após o status; a versão 1
+ * ainda é lida (sequência 0, recalculada por quem recebe).
+ */
+public final class SnapshotCarbono {
+    private static final int MAGICO = 0x43415242; // "CARB"
+    private static final int VERSAO = 2;
+
+    private static final byte MARCA_FIM = 0;
+    private static final byte MARCA_PROPRIETARIO = 1;
+    private static final byte MARCA_LOTE = 2;
+
+    private SnapshotCarbono() {
+    }
+
+    /**
+     * Grava o snapshot no arquivo e faz fsync antes de retornar.
+     *
+     * @param fonte recebe o visitante que grava e percorre o estado com ele
+     */
+    public static void gravar(Path arquivo, Consumer<VisitanteEstado> fonte) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileOutputStream arquivoSaida = new FileOutputStream(arquivo.toFile())) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(arquivoSaida, 1 << 16), crc));
+            out.writeInt(MAGICO);
+            out.writeInt(VERSAO);
+
+            try {
+                fonte.accept(new Escritor(out));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            out.writeByte(MARCA_FIM);
+            out.flush();
+            // O crc não entra no próprio cálculo.
+            new DataOutputStream(arquivoSaida).writeInt((int) crc.getValue());
+            arquivoSaida.getChannel().force(true);
+        }
+    }
+
+    /**
+     * Lê o snapshot entregando o estado ao visitante, na mesma ordem em que foi gravado.
+     */
+    public static void ler(Path arquivo, VisitanteEstado destino) throws IOException {
+        CRC32 crc = new CRC32();
+        try (BufferedInputStream bruto = new BufferedInputStream(Files.newInputStream(arquivo), 1 << 16)) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(bruto, crc));
+            if (in.readInt() != MAGICO) {
+                throw new IOException("Arquivo não é um snapshot: " + arquivo);
+            }
+            int versao = in.readInt();
+            if (versao != 1 && versao != VERSAO) {
+                throw new IOException("Versão de snapshot não suportada (" + versao + "): " + arquivo);
+            }
+
+            while (true) {
+                byte marca = in.readByte();
+                if (marca == MARCA_FIM) break;
+                switch (marca) {
+                    case MARCA_PROPRIETARIO -> destino.proprietario(lerProprietario(in));
+                    case MARCA_LOTE -> lerLote(in, versao, destino);
+                    default -> throw new IOException("Snapshot corrompido (marca " + marca + "): " + arquivo);
+                }
+            }
+
+            int crcCalculado = (int) crc.getValue();
+            if (new DataInputStream(bruto).readInt() != crcCalculado) {
+                throw new IOException("Snapshot corrompido (crc inválido): " + arquivo);
+            }
+        }
+    }
+
+    private static Proprietario lerProprietario(DataInputStream in) throws IOException {
+        UUID id = CodificacaoBinaria.lerUuid(in);
+        boolean pj = in.readBoolean();
+        String nome = in.readUTF();
+        String documento = in.readUTF();
+        return pj ? new PessoaJuridica(id, nome, documento) : new PessoaFisica(id, nome, documento);
+    }
+
+    private static void lerLote(DataInputStream in, int versao, VisitanteEstado destino) throws IOException {
+        UUID idLote = CodificacaoBinaria.lerUuid(in);
+        LoteCreditoCarbono lote = new LoteCreditoCarbono(idLote, in.readUTF());
+        lote.setStatus(StatusLote.values()[in.readUnsignedByte()]);
+        long sequencia = (versao >= 2) ? in.readLong() : 0;
+
+        int nArvores = in.readInt();
+        List<ArvoreGeradoraCredito> arvores = new ArrayList<>(nArvores);
+        for (int i = 0; i < nArvores; i++) {
+            arvores.add(CodificacaoBinaria.lerArvore(in));
+        }
+
+        int nParticipacoes = in.readInt();
+        List<ParticipacaoLote> participacoes = new ArrayList<>(nParticipacoes);
+        for (int i = 0; i < nParticipacoes; i++) {
+            UUID id = CodificacaoBinaria.lerUuid(in);
+            UUID idProp = CodificacaoBinaria.lerUuid(in);
+            int qtd = in.readInt();
+            LocalDateTime inicio = CodificacaoBinaria.lerData(in);
+            ParticipacaoLote p = new ParticipacaoLote(id, idLote, idProp, qtd, inicio);
+            if (in.readBoolean()) {
+                p.encerrar(CodificacaoBinaria.lerData(in));
+            }
+            participacoes.add(p);
+        }
+
+        int nTransacoes = in.readInt();
+        List<TransacaoCompraVenda> transacoes = new ArrayList<>(nTransacoes);
+        for (int i = 0; i < nTransacoes; i++) {
+            UUID id = CodificacaoBinaria.lerUuid(in);
+            int nv = in.readUnsignedByte();
+            List<UUID> vendedores = new ArrayList<>(nv);
+            for (int j = 0; j < nv; j++) vendedores.add(CodificacaoBinaria.lerUuid(in));
+            UUID idComprador = CodificacaoBinaria.lerUuid(in);
+            transacoes.add(new TransacaoCompraVenda(id, idLote, vendedores, idComprador,
+                    CodificacaoBinaria.lerValor(in), CodificacaoBinaria.lerData(in)));
+        }
+
+        destino.lote(lote, sequencia, arvores, participacoes, transacoes);
+    }
+
+    private static final class Escritor implements VisitanteEstado {
+        private final DataOutputStream out;
+
+        Escritor(DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void proprietario(Proprietario p) {
+            try {
+                out.writeByte(MARCA_PROPRIETARIO);
+                CodificacaoBinaria.escreverUuid(out, p.getId());
+                out.writeBoolean(p instanceof PessoaJuridica);
+                out.writeUTF(p.getNome());
+                out.writeUTF(p.getDocumento());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void lote(LoteCreditoCarbono lote,
+                         long sequencia,
+                         List<ArvoreGeradoraCredito> arvores,
+                         List<ParticipacaoLote> participacoes,
+                         List<TransacaoCompraVenda> transacoes) {
+            try {
+                out.writeByte(MARCA_LOTE);
+                CodificacaoBinaria.escreverUuid(out, lote.getId());
+                out.writeUTF(lote.getCodigoLote());
+                out.writeByte(lote.getStatus().ordinal());
+                out.writeLong(sequencia);
+
+                out.writeInt(arvores.size());
+                for (ArvoreGeradoraCredito a : arvores) {
+                    CodificacaoBinaria.escreverUuid(out, a.getId());
+                    out.writeUTF(a.getEspecie());
+                    out.writeDouble(a.getLatitude());
+                    out.writeDouble(a.getLongitude());
+                }
+
+                out.writeInt(participacoes.size());
+                for (ParticipacaoLote p : participacoes) {
+                    CodificacaoBinaria.escreverUuid(out, p.getId());
+                    CodificacaoBinaria.escreverUuid(out, p.getIdProprietario());
+                    out.writeInt(p.getQuantidadeCreditos());
+                    CodificacaoBinaria.escreverData(out, p.getDataInicio());
+                    LocalDateTime fim = p.getDataFim();
+                    out.writeBoolean(fim != null);
+                    if (fim != null) CodificacaoBinaria.escreverData(out, fim);
+                }
+
+                out.writeInt(transacoes.size());
+                for (TransacaoCompraVenda t : transacoes) {
+                    CodificacaoBinaria.escreverUuid(out, t.getId());
+                    out.writeByte(t.getIdsVendedores().size());
+                    for (UUID v : t.getIdsVendedores()) CodificacaoBinaria.escreverUuid(out, v);
+                    CodificacaoBinaria.escreverUuid(out, t.getIdComprador());
+                    CodificacaoBinaria.escreverValor(out, t.getValor());
+                    CodificacaoBinaria.escreverData(out, t.getDataTransacao());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.atividade.persistencia;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.Proprietario;
+import org.atividade.entities.TransacaoCompraVenda;
+
+import java.util.List;
+
+/**
+ * Percorre o estado completo do SistemaCarbono (snapshot / exportação).
+ * Todos os proprietários são visitados antes dos lotes. As listas recebidas
+ * só são válidas durante a chamada e não devem ser guardadas.
+ */
+public interface VisitanteEstado {
+    void proprietario(Proprietario proprietario);
+
+    /**
+     * @param sequencia nº de alterações já aplicadas ao lote (0 = desconhecida,
+     *                  snapshots da versão 1)
+     */
+    void lote(LoteCreditoCarbono lote,
+              long sequencia,
+              List<ArvoreGeradoraCredito> arvores,
+              List<ParticipacaoLote> participacoes,
+              List<TransacaoCompraVenda> transacoes);
+}
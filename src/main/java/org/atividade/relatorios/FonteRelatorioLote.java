@@ -0,0 +1,37 @@
+package org.atividade.relatorios;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.Proprietario;
+import org.atividade.entities.TransacaoCompraVenda;
+import org.atividade.utilities.StatusLote;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dados de um lote para o relatório, num corte consistente: as listas e o
+ * status não mudam enquanto o relatório é escrito, mesmo que o lote mude.
+ */
+public interface FonteRelatorioLote {
+    LoteCreditoCarbono lote();
+
+    /**
+     * Status no momento do corte (o do lote pode ter mudado depois).
+     */
+    StatusLote status();
+
+    List<ArvoreGeradoraCredito> arvores();
+
+    List<ParticipacaoLote> participacoesAtuais();
+
+    /**
+     * Histórico em ordem cronológica de início.
+     */
+    List<ParticipacaoLote> historicoParticipacoes();
+
+    List<TransacaoCompraVenda> transacoes();
+
+    Proprietario proprietario(UUID id);
+}
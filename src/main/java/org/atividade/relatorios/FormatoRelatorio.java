@@ -0,0 +1,7 @@
+package org.atividade.relatorios;
+
+public enum FormatoRelatorio {
+    TEXTO,
+    CSV,
+    JSON
+}
@@ -0,0 +1,367 @@
+package org.atividade.relatorios;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.Proprietario;
+import org.atividade.entities.TransacaoCompraVenda;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Escreve o relatório de um lote em streaming: cada linha vai direto para o
+ * Writer (através de um buffer), sem montar strings por linha nem listas
+ * intermediárias, então o uso de memória não cresce com o histórico do lote.
+ */
+public final class RelatorioLote {
+    private static final int TAMANHO_BUFFER = 1 << 16;
+    private static final String NL = System.lineSeparator();
+
+    private static final String CABECALHO_CSV =
+            "registro,id,codigo,status,especie,latitude,longitude,proprietario,documento,"
+                    + "creditos,inicio,fim,vendedores,comprador,valor,data";
+    private static final int COLUNAS_CSV = 16;
+
+    private final FonteRelatorioLote fonte;
+    private final Writer out;
+
+    private RelatorioLote(FonteRelatorioLote fonte, Writer out) {
+        this.fonte = fonte;
+        this.out = out;
+    }
+
+    /**
+     * Escreve o relatório e faz flush do destino (sem fechá-lo).
+     */
+    public static void escrever(FonteRelatorioLote fonte, FormatoRelatorio formato, Writer destino) throws IOException {
+        Writer out = (destino instanceof BufferedWriter) ? destino : new BufferedWriter(destino, TAMANHO_BUFFER);
+        RelatorioLote r = new RelatorioLote(fonte, out);
+        switch (formato) {
+            case TEXTO -> r.escreverTexto();
+            case CSV -> r.escreverCsv();
+            case JSON -> r.escreverJson();
+        }
+        out.flush();
+    }
+
+    // =========================
+    // ===== TEXTO =============
+    // =========================
+
+    private void escreverTexto() throws IOException {
+        LoteCreditoCarbono lote = fonte.lote();
+
+        texto("Lote: ", lote.getCodigoLote());
+        texto("Créditos: ", String.valueOf(lote.getTotalCredito()));
+        texto("Status: ", fonte.status().name());
+
+        texto(NL + "--- Árvores (rastreabilidade) ---");
+        List<ArvoreGeradoraCredito> arvores = fonte.arvores();
+        if (arvores.isEmpty()) {
+            texto("(nenhuma árvore registrada)");
+        } else {
+            for (ArvoreGeradoraCredito a : arvores) {
+                texto(" - ", a.toString());
+            }
+        }
+
+        texto(NL + "--- Proprietários atuais (copropriedade) ---");
+        List<ParticipacaoLote> atuais = fonte.participacoesAtuais();
+        if (atuais.isEmpty()) {
+            texto("(nenhum proprietário atual definido)");
+        } else {
+            int soma = 0;
+            for (ParticipacaoLote p : atuais) {
+                out.write(" - ");
+                out.write(String.valueOf(fonte.proprietario(p.getIdProprietario())));
+                out.write(" | Créditos: ");
+                out.write(String.valueOf(p.getQuantidadeCreditos()));
+                out.write(" | Início: ");
+                out.write(p.getDataInicio().toString());
+                out.write(NL);
+                soma += p.getQuantidadeCreditos();
+            }
+            texto("Soma atual: ", soma + " (deve ser 1000)");
+        }
+
+        texto(NL + "--- Histórico de participações ---");
+        List<ParticipacaoLote> hist = fonte.historicoParticipacoes();
+        if (hist.isEmpty()) {
+            texto("(sem histórico)");
+        } else {
+            for (ParticipacaoLote p : hist) {
+                out.write(" - ");
+                out.write(fonte.proprietario(p.getIdProprietario()).getNome());
+                out.write(" | Créditos: ");
+                out.write(String.valueOf(p.getQuantidadeCreditos()));
+                out.write(" | Início: ");
+                out.write(p.getDataInicio().toString());
+                out.write(" | Fim: ");
+                out.write(p.getDataFim() == null ? "ATUAL" : p.getDataFim().toString());
+                out.write(NL);
+            }
+        }
+
+        texto(NL + "--- Transações (histórico de compra/venda) ---");
+        List<TransacaoCompraVenda> trans = fonte.transacoes();
+        if (trans.isEmpty()) {
+            texto("(nenhuma transação)");
+        } else {
+            for (TransacaoCompraVenda t : trans) {
+                out.write(" - ");
+                out.write(t.getDataTransacao().toString());
+                out.write(" | Vendedores: ");
+                List<UUID> vendedores = t.getIdsVendedores();
+                for (int i = 0; i < vendedores.size(); i++) {
+                    if (i > 0) out.write(", ");
+                    out.write(fonte.proprietario(vendedores.get(i)).getNome());
+                }
+                out.write(" -> Comprador: ");
+                out.write(fonte.proprietario(t.getIdComprador()).getNome());
+                out.write(" | Valor: R$ ");
+                out.write(t.getValor().toString());
+                out.write(NL);
+            }
+        }
+    }
+
+    private void texto(String linha) throws IOException {
+        out.write(linha);
+        out.write(NL);
+    }
+
+    private void texto(String rotulo, String valor) throws IOException {
+        out.write(rotulo);
+        out.write(valor);
+        out.write(NL);
+    }
+
+    // =========================
+    // ===== CSV ===============
+    // =========================
+
+    /**
+     * Um único CSV com uma coluna "registro" (lote, arvore, atual, participacao,
+     * transacao); colunas que não se aplicam ao registro ficam vazias.
+     */
+    private void escreverCsv() throws IOException {
+        LoteCreditoCarbono lote = fonte.lote();
+        out.write(CABECALHO_CSV);
+        out.write('\n');
+
+        String[] linha = new String[COLUNAS_CSV];
+
+        limpar(linha);
+        linha[0] = "lote";
+        linha[1] = lote.getId().toString();
+        linha[2] = lote.getCodigoLote();
+        linha[3] = fonte.status().name();
+        linha[9] = String.valueOf(lote.getTotalCredito());
+        csv(linha);
+
+        for (ArvoreGeradoraCredito a : fonte.arvores()) {
+            limpar(linha);
+            linha[0] = "arvore";
+            linha[1] = a.getId().toString();
+            linha[4] = a.getEspecie();
+            linha[5] = String.valueOf(a.getLatitude());
+            linha[6] = String.valueOf(a.getLongitude());
+            csv(linha);
+        }
+
+        for (ParticipacaoLote p : fonte.participacoesAtuais()) {
+            csvParticipacao(linha, "atual", p);
+        }
+        for (ParticipacaoLote p : fonte.historicoParticipacoes()) {
+            csvParticipacao(linha, "participacao", p);
+        }
+
+        StringBuilder nomes = new StringBuilder();
+        for (TransacaoCompraVenda t : fonte.transacoes()) {
+            limpar(linha);
+            nomes.setLength(0);
+            for (UUID v : t.getIdsVendedores()) {
+                if (nomes.length() > 0) nomes.append("; ");
+                nomes.append(fonte.proprietario(v).getNome());
+            }
+            linha[0] = "transacao";
+            linha[1] = t.getId().toString();
+            linha[12] = nomes.toString();
+            linha[13] = fonte.proprietario(t.getIdComprador()).getNome();
+            linha[14] = t.getValor().toPlainString();
+            linha[15] = t.getDataTransacao().toString();
+            csv(linha);
+        }
+    }
+
+    private void csvParticipacao(String[] linha, String registro, ParticipacaoLote p) throws IOException {
+        Proprietario dono = fonte.proprietario(p.getIdProprietario());
+        limpar(linha);
+        linha[0] = registro;
+        linha[1] = p.getId().toString();
+        linha[7] = dono.getNome();
+        linha[8] = dono.getDocumento();
+        linha[9] = String.valueOf(p.getQuantidadeCreditos());
+        linha[10] = p.getDataInicio().toString();
+        linha[11] = (p.getDataFim() == null) ? "" : p.getDataFim().toString();
+        csv(linha);
+    }
+
+    private static void limpar(String[] linha) {
+        Arrays.fill(linha, "");
+    }
+
+    private void csv(String[] linha) throws IOException {
+        for (int i = 0; i < linha.length; i++) {
+            if (i > 0) out.write(',');
+            campoCsv(linha[i]);
+        }
+        out.write('\n');
+    }
+
+    private void campoCsv(String valor) throws IOException {
+        boolean aspas = false;
+        for (int i = 0; i < valor.length() && !aspas; i++) {
+            char c = valor.charAt(i);
+            aspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!aspas) {
+            out.write(valor);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    // =========================
+    // ===== JSON ==============
+    // =========================
+
+    private void escreverJson() throws IOException {
+        LoteCreditoCarbono lote = fonte.lote();
+        out.write("{\"lote\":{\"id\":");
+        jsonTexto(lote.getId().toString());
+        out.write(",\"codigo\":");
+        jsonTexto(lote.getCodigoLote());
+        out.write(",\"creditos\":");
+        out.write(String.valueOf(lote.getTotalCredito()));
+        out.write(",\"status\":");
+        jsonTexto(fonte.status().name());
+        out.write('}');
+
+        out.write(",\"arvores\":[");
+        boolean primeiro = true;
+        for (ArvoreGeradoraCredito a : fonte.arvores()) {
+            if (!primeiro) out.write(',');
+            primeiro = false;
+            out.write("{\"id\":");
+            jsonTexto(a.getId().toString());
+            out.write(",\"especie\":");
+            jsonTexto(a.getEspecie());
+            out.write(",\"latitude\":");
+            out.write(String.valueOf(a.getLatitude()));
+            out.write(",\"longitude\":");
+            out.write(String.valueOf(a.getLongitude()));
+            out.write('}');
+        }
+        out.write(']');
+
+        out.write(",\"participacoesAtuais\":");
+        jsonParticipacoes(fonte.participacoesAtuais());
+        out.write(",\"historicoParticipacoes\":");
+        jsonParticipacoes(fonte.historicoParticipacoes());
+
+        out.write(",\"transacoes\":[");
+        primeiro = true;
+        for (TransacaoCompraVenda t : fonte.transacoes()) {
+            if (!primeiro) out.write(',');
+            primeiro = false;
+            out.write("{\"id\":");
+            jsonTexto(t.getId().toString());
+            out.write(",\"data\":");
+            jsonTexto(t.getDataTransacao().toString());
+            out.write(",\"vendedores\":[");
+            List<UUID> vendedores = t.getIdsVendedores();
+            for (int i = 0; i < vendedores.size(); i++) {
+                if (i > 0) out.write(',');
+                jsonProprietario(vendedores.get(i));
+            }
+            out.write("],\"comprador\":");
+            jsonProprietario(t.getIdComprador());
+            out.write(",\"valor\":");
+            out.write(t.getValor().toPlainString());
+            out.write('}');
+        }
+        out.write("]}");
+        out.write('\n');
+    }
+
+    private void jsonParticipacoes(List<ParticipacaoLote> participacoes) throws IOException {
+        out.write('[');
+        boolean primeiro = true;
+        for (ParticipacaoLote p : participacoes) {
+            if (!primeiro) out.write(',');
+            primeiro = false;
+            out.write("{\"id\":");
+            jsonTexto(p.getId().toString());
+            out.write(",\"proprietario\":");
+            jsonProprietario(p.getIdProprietario());
+            out.write(",\"creditos\":");
+            out.write(String.valueOf(p.getQuantidadeCreditos()));
+            out.write(",\"inicio\":");
+            jsonTexto(p.getDataInicio().toString());
+            out.write(",\"fim\":");
+            LocalDateTime fim = p.getDataFim();
+            if (fim == null) out.write("null");
+            else jsonTexto(fim.toString());
+            out.write('}');
+        }
+        out.write(']');
+    }
+
+    private void jsonProprietario(UUID id) throws IOException {
+        Proprietario p = fonte.proprietario(id);
+        out.write("{\"id\":");
+        jsonTexto(id.toString());
+        out.write(",\"nome\":");
+        jsonTexto(p.getNome());
+        out.write(",\"tipo\":");
+        jsonTexto(p.getTipo());
+        out.write(",\"documento\":");
+        jsonTexto(p.getDocumento());
+        out.write('}');
+    }
+
+    private void jsonTexto(String valor) throws IOException {
+        out.write('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+}
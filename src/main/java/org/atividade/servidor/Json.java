@@ -0,0 +1,186 @@
+package org.atividade.servidor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura e escrita mínimas de JSON para o servidor, sem dependências.
+ *
+ * ler() devolve Map (objeto, na ordem do texto), List, String, BigDecimal,
+ * Boolean ou null. JSON malformado gera IllegalArgumentException.
+ */
+final class Json {
+    private static final int PROFUNDIDADE_MAXIMA = 32;
+
+    private final String texto;
+    private int pos;
+
+    private Json(String texto) {
+        this.texto = texto;
+    }
+
+    static Object ler(String texto) {
+        Json j = new Json(texto);
+        j.espacos();
+        Object valor = j.valor(0);
+        j.espacos();
+        if (j.pos != texto.length()) throw j.erro("conteúdo após o fim do JSON");
+        return valor;
+    }
+
+    static void texto(StringBuilder sb, String valor) {
+        if (valor == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    // =========================
+    // ===== LEITURA ===========
+    // =========================
+
+    private Object valor(int profundidade) {
+        if (profundidade > PROFUNDIDADE_MAXIMA) throw erro("aninhamento profundo demais");
+        if (pos >= texto.length()) throw erro("fim inesperado");
+        char c = texto.charAt(pos);
+        return switch (c) {
+            case '{' -> objeto(profundidade);
+            case '[' -> lista(profundidade);
+            case '"' -> string();
+            case 't' -> literal("true", Boolean.TRUE);
+            case 'f' -> literal("false", Boolean.FALSE);
+            case 'n' -> literal("null", null);
+            default -> {
+                if (c == '-' || (c >= '0' && c <= '9')) yield numero();
+                throw erro("valor inesperado '" + c + "'");
+            }
+        };
+    }
+
+    private Map<String, Object> objeto(int profundidade) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        pos++;
+        espacos();
+        if (consumir('}')) return m;
+        do {
+            espacos();
+            if (pos >= texto.length() || texto.charAt(pos) != '"') throw erro("esperado nome de campo");
+            String nome = string();
+            espacos();
+            exigir(':');
+            espacos();
+            m.put(nome, valor(profundidade + 1));
+            espacos();
+        } while (consumir(','));
+        exigir('}');
+        return m;
+    }
+
+    private List<Object> lista(int profundidade) {
+        List<Object> l = new ArrayList<>();
+        pos++;
+        espacos();
+        if (consumir(']')) return l;
+        do {
+            espacos();
+            l.add(valor(profundidade + 1));
+            espacos();
+        } while (consumir(','));
+        exigir(']');
+        return l;
+    }
+
+    private String string() {
+        pos++; // aspas de abertura
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            if (pos >= texto.length()) throw erro("texto não terminado");
+            char c = texto.charAt(pos++);
+            if (c == '"') return sb.toString();
+            if (c < 0x20) throw erro("caractere de controle em texto");
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= texto.length()) throw erro("escape incompleto");
+            char e = texto.charAt(pos++);
+            switch (e) {
+                case '"', '\\', '/' -> sb.append(e);
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > texto.length()) throw erro("escape \\u incompleto");
+                    try {
+                        sb.append((char) Integer.parseInt(texto.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw erro("escape \\u inválido");
+                    }
+                    pos += 4;
+                }
+                default -> throw erro("escape inválido \\" + e);
+            }
+        }
+    }
+
+    private BigDecimal numero() {
+        int inicio = pos;
+        while (pos < texto.length() && "+-0123456789.eE".indexOf(texto.charAt(pos)) >= 0) pos++;
+        try {
+            return new BigDecimal(texto.substring(inicio, pos));
+        } catch (NumberFormatException ex) {
+            throw erro("número inválido");
+        }
+    }
+
+    private Object literal(String palavra, Object valor) {
+        if (!texto.startsWith(palavra, pos)) throw erro("valor inesperado");
+        pos += palavra.length();
+        return valor;
+    }
+
+    private void espacos() {
+        while (pos < texto.length()) {
+            char c = texto.charAt(pos);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') return;
+            pos++;
+        }
+    }
+
+    private boolean consumir(char c) {
+        if (pos < texto.length() && texto.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void exigir(char c) {
+        if (!consumir(c)) throw erro("esperado '" + c + "'");
+    }
+
+    private IllegalArgumentException erro(String motivo) {
+        return new IllegalArgumentException("JSON inválido na posição " + pos + ": " + motivo + ".");
+    }
+}
@@ -0,0 +1,563 @@
+package org.atividade.servidor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.atividade.SistemaCarbono;
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.PessoaJuridica;
+import org.atividade.entities.Proprietario;
+import org.atividade.exceptions.RegraNegocioException;
+import org.atividade.exceptions.VersaoLoteDesatualizadaException;
+import org.atividade.indices.Pagina;
+import org.atividade.indices.ParticipacoesVersionadas;
+import org.atividade.relatorios.FormatoRelatorio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP/JSON embutido sobre o SistemaCarbono.
+ *
+ * Sem autenticação: por padrão escuta só na interface de loopback; para
+ * expor em outra interface o endereço precisa ser informado explicitamente.
+ *
+ * As conexões são atendidas pelo HttpServer do JDK (um seletor NIO, sem
+ * thread por conexão); cada requisição roda num pool fixo de threads, então
+ * milhares de clientes conectados custam só o buffer de cada conexão.
+ *
+ * Rotas (corpos e respostas em JSON, UTF-8):
+ * - GET  /proprietarios?depoisDe=&limite=      página de proprietários por nome
+ * - POST /proprietarios                        {"tipo":"PF"|"PJ","nome","documento"}
+ * - GET  /lotes?depoisDe=&limite=              página de lotes por código
+ * - POST /lotes                                {"codigo"}
+ * - POST /lotes/{id}/arvores                   {"especie","latitude","longitude"}
+ * - GET  /lotes/{id}/participacoes             participações atuais e versão do lote
+ * - POST /lotes/{id}/participacoes             {"participacoes":{"idProprietario":creditos,...}}
+ * - POST /lotes/{id}/vendas                    {"vendedores":[...],"comprador","valor","versao"?}
+ * - GET  /lotes/{id}/relatorio?formato=json|csv|texto
+ * - GET  /metricas                             métricas em texto (ver InstantaneoMetricas.formatarTexto)
+ *
+ * Erros: 400 requisição inválida, 404 rota inexistente, 405 método,
+ * 409 versão desatualizada, 413 corpo grande demais, 422 regra de negócio,
+ * sempre com {"erro": "..."}.
+ *
+ * Inicie a JVM com {@code -Dsun.net.httpserver.nodelay=true}: sem TCP_NODELAY,
+ * cabeçalho e corpo vão em dois segmentos e o Nagle espera o ACK atrasado do
+ * cliente (~40 ms por resposta). A propriedade vale para todos os HttpServer da
+ * JVM e o JDK só a lê no primeiro, por isso é da linha de comando e não daqui.
+ */
+public final class ServidorCarbono implements Closeable {
+    public static final int LIMITE_PADRAO = 100;
+    public static final int LIMITE_MAXIMO = 1000;
+
+    private static final int BYTES_MAXIMOS_CORPO = 1 << 20;
+    private static final int BACKLOG = 4096;
+
+    private final SistemaCarbono sistema;
+    private final HttpServer http;
+    private final ExecutorService pool;
+
+    private ServidorCarbono(SistemaCarbono sistema, HttpServer http, ExecutorService pool) {
+        this.sistema = sistema;
+        this.http = http;
+        this.pool = pool;
+    }
+
+    /**
+     * Inicia o servidor no loopback, na porta (0 = porta livre qualquer, ver
+     * getPorta) com o número de threads de atendimento informado.
+     */
+    public static ServidorCarbono iniciar(SistemaCarbono sistema, int porta, int threads) throws IOException {
+        return iniciar(sistema, InetAddress.getLoopbackAddress(), porta, threads);
+    }
+
+    /**
+     * Como {@link #iniciar(SistemaCarbono, int, int)}, escutando em host
+     * (ex.: 0.0.0.0 para todas as interfaces).
+     */
+    public static ServidorCarbono iniciar(SistemaCarbono sistema, InetAddress host, int porta, int threads)
+            throws IOException {
+        Objects.requireNonNull(host, "host");
+        if (threads <= 0) throw new IllegalArgumentException("Número de threads deve ser > 0.");
+
+        AtomicInteger contador = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "servidor-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        HttpServer http = HttpServer.create(new InetSocketAddress(host, porta), BACKLOG);
+        ServidorCarbono servidor = new ServidorCarbono(sistema, http, pool);
+        http.createContext("/", servidor::atender);
+        http.setExecutor(pool);
+        http.start();
+        return servidor;
+    }
+
+    public InetAddress getHost() {
+        return http.getAddress().getAddress();
+    }
+
+    public int getPorta() {
+        return http.getAddress().getPort();
+    }
+
+    /**
+     * Para de aceitar conexões e espera até 1 s pelas requisições em andamento.
+     */
+    @Override
+    public void close() {
+        http.stop(1);
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // =========================
+    // ===== ROTEAMENTO ========
+    // =========================
+
+    private void atender(HttpExchange ex) {
+        Resposta resposta = new Resposta(ex);
+        try {
+            rotear(ex, resposta);
+        } catch (VersaoLoteDesatualizadaException e) {
+            resposta.erro(409, e.getMessage());
+        } catch (RegraNegocioException e) {
+            resposta.erro(422, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            resposta.erro(400, e.getMessage());
+        } catch (ErroHttp e) {
+            resposta.erro(e.status, e.getMessage());
+        } catch (IOException e) {
+            // cliente desconectou no meio da resposta; nada a responder
+        } catch (RuntimeException e) {
+            resposta.erro(500, "Erro interno: " + e.getClass().getSimpleName());
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void rotear(HttpExchange ex, Resposta resposta) throws IOException {
+        String metodo = ex.getRequestMethod();
+        String[] partes = segmentos(ex.getRequestURI().getRawPath());
+        Map<String, String> consulta = consulta(ex.getRequestURI().getRawQuery());
+
+        if (partes.length == 1 && partes[0].equals("metricas")) {
+            if (!metodo.equals("GET")) throw metodoNaoPermitido(ex, "GET");
+            resposta.enviar(200, "text/plain; charset=utf-8", sistema.coletarMetricas().formatarTexto());
+            return;
+        }
+
+        if (partes.length == 1 && partes[0].equals("proprietarios")) {
+            if (metodo.equals("GET")) {
+                resposta.json(200, paginaJson(sistema.listarProprietarios(cursor(consulta), limite(consulta)),
+                        ServidorCarbono::proprietarioJson));
+            } else if (metodo.equals("POST")) {
+                resposta.json(201, cadastrarProprietario(corpo(ex)));
+            } else {
+                throw metodoNaoPermitido(ex, "GET, POST");
+            }
+            return;
+        }
+
+        if (partes.length >= 1 && partes[0].equals("lotes")) {
+            if (partes.length == 1) {
+                if (metodo.equals("GET")) {
+                    resposta.json(200, paginaJson(sistema.listarLotes(cursor(consulta), limite(consulta)),
+                            ServidorCarbono::loteJson));
+                } else if (metodo.equals("POST")) {
+                    LoteCreditoCarbono lote = sistema.criarLote(texto(corpo(ex), "codigo"));
+                    StringBuilder sb = new StringBuilder();
+                    loteJson(sb, lote);
+                    resposta.json(201, sb.toString());
+                } else {
+                    throw metodoNaoPermitido(ex, "GET, POST");
+                }
+                return;
+            }
+            if (partes.length == 3) {
+                UUID idLote = uuid(partes[1], "id do lote");
+                switch (partes[2] + " " + metodo) {
+                    case "arvores POST" -> resposta.json(201, registrarArvore(idLote, corpo(ex)));
+                    case "participacoes GET" -> resposta.json(200, participacoesJson(
+                            sistema.listarParticipacoesAtuaisVersionadas(idLote)));
+                    case "participacoes POST" -> resposta.json(200, definirParticipacoes(idLote, corpo(ex)));
+                    case "vendas POST" -> resposta.json(200, vender(idLote, corpo(ex)));
+                    case "relatorio GET" -> relatorio(idLote, consulta, resposta);
+                    default -> {
+                        switch (partes[2]) {
+                            case "arvores", "vendas" -> throw metodoNaoPermitido(ex, "POST");
+                            case "participacoes" -> throw metodoNaoPermitido(ex, "GET, POST");
+                            case "relatorio" -> throw metodoNaoPermitido(ex, "GET");
+                            default -> throw new ErroHttp(404, "Rota não encontrada.");
+                        }
+                    }
+                }
+                return;
+            }
+        }
+        throw new ErroHttp(404, "Rota não encontrada.");
+    }
+
+    // =========================
+    // ===== OPERAÇÕES =========
+    // =========================
+
+    private String cadastrarProprietario(Map<String, Object> corpo) {
+        String tipo = texto(corpo, "tipo").trim().toUpperCase(Locale.ROOT);
+        String nome = texto(corpo, "nome");
+        String documento = texto(corpo, "documento");
+        Proprietario p = switch (tipo) {
+            case "PF" -> new PessoaFisica(nome, documento);
+            case "PJ" -> new PessoaJuridica(nome, documento);
+            default -> throw new IllegalArgumentException("Campo 'tipo' deve ser PF ou PJ.");
+        };
+        sistema.cadastrarProprietario(p);
+        StringBuilder sb = new StringBuilder();
+        proprietarioJson(sb, p);
+        return sb.toString();
+    }
+
+    private String registrarArvore(UUID idLote, Map<String, Object> corpo) {
+        ArvoreGeradoraCredito a = new ArvoreGeradoraCredito(texto(corpo, "especie"),
+                numero(corpo, "latitude").doubleValue(), numero(corpo, "longitude").doubleValue());
+        sistema.registrarArvore(idLote, a);
+        StringBuilder sb = new StringBuilder("{\"id\":");
+        Json.texto(sb, a.getId().toString());
+        return sb.append('}').toString();
+    }
+
+    private String definirParticipacoes(UUID idLote, Map<String, Object> corpo) {
+        if (!(corpo.get("participacoes") instanceof Map<?, ?> informadas)) {
+            throw new IllegalArgumentException("Campo 'participacoes' deve ser um objeto {idProprietario: créditos}.");
+        }
+        Map<UUID, Integer> creditos = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> e : informadas.entrySet()) {
+            if (!(e.getValue() instanceof BigDecimal n)) {
+                throw new IllegalArgumentException("Créditos de " + e.getKey() + " devem ser numéricos.");
+            }
+            try {
+                creditos.put(uuid((String) e.getKey(), "id do proprietário"), n.intValueExact());
+            } catch (ArithmeticException ae) {
+                throw new IllegalArgumentException("Créditos de " + e.getKey() + " devem ser inteiros.");
+            }
+        }
+        sistema.definirParticipacoesIniciais(idLote, creditos);
+        return participacoesJson(sistema.listarParticipacoesAtuaisVersionadas(idLote));
+    }
+
+    private String vender(UUID idLote, Map<String, Object> corpo) {
+        if (!(corpo.get("vendedores") instanceof List<?> informados)) {
+            throw new IllegalArgumentException("Campo 'vendedores' deve ser uma lista de ids.");
+        }
+        List<UUID> vendedores = new ArrayList<>(informados.size());
+        for (Object v : informados) {
+            if (!(v instanceof String s)) throw new IllegalArgumentException("Ids de vendedores devem ser textos.");
+            vendedores.add(uuid(s, "id do vendedor"));
+        }
+        UUID comprador = uuid(texto(corpo, "comprador"), "id do comprador");
+        BigDecimal valor = numero(corpo, "valor");
+
+        Object versao = corpo.get("versao");
+        if (versao == null) {
+            sistema.venderLote(idLote, vendedores, comprador, valor);
+            return "{}";
+        }
+        if (!(versao instanceof BigDecimal v)) throw new IllegalArgumentException("Campo 'versao' deve ser numérico.");
+        long nova;
+        try {
+            nova = sistema.venderLote(idLote, v.longValueExact(), vendedores, comprador, valor);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Campo 'versao' deve ser inteiro.");
+        }
+        return "{\"versao\":" + nova + "}";
+    }
+
+    private void relatorio(UUID idLote, Map<String, String> consulta, Resposta resposta) throws IOException {
+        FormatoRelatorio formato;
+        try {
+            formato = FormatoRelatorio.valueOf(consulta.getOrDefault("formato", "json").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de relatório inválido: " + consulta.get("formato"));
+        }
+        String tipo = switch (formato) {
+            case JSON -> "application/json; charset=utf-8";
+            case CSV -> "text/csv; charset=utf-8";
+            case TEXTO -> "text/plain; charset=utf-8";
+        };
+        // Streaming: o cabeçalho só sai no primeiro byte, então erros de validação ainda viram 4xx.
+        OutputStream out = resposta.streaming(tipo);
+        sistema.escreverRelatorioLote(idLote, formato, out);
+        out.close();
+    }
+
+    // =========================
+    // ===== JSON ==============
+    // =========================
+
+    private static <T> String paginaJson(Pagina<T> pagina, ParaJson<T> item) {
+        StringBuilder sb = new StringBuilder("{\"itens\":[");
+        boolean primeiro = true;
+        for (T t : pagina.getItens()) {
+            if (!primeiro) sb.append(',');
+            primeiro = false;
+            item.escrever(sb, t);
+        }
+        sb.append("],\"proximoCursor\":");
+        Json.texto(sb, pagina.temMais() ? pagina.getProximoCursor().toString() : null);
+        return sb.append('}').toString();
+    }
+
+    private static void proprietarioJson(StringBuilder sb, Proprietario p) {
+        sb.append("{\"id\":");
+        Json.texto(sb, p.getId().toString());
+        sb.append(",\"tipo\":");
+        Json.texto(sb, p.getTipo());
+        sb.append(",\"nome\":");
+        Json.texto(sb, p.getNome());
+        sb.append(",\"documento\":");
+        Json.texto(sb, p.getDocumento());
+        sb.append('}');
+    }
+
+    private static void loteJson(StringBuilder sb, LoteCreditoCarbono lote) {
+        sb.append("{\"id\":");
+        Json.texto(sb, lote.getId().toString());
+        sb.append(",\"codigo\":");
+        Json.texto(sb, lote.getCodigoLote());
+        sb.append(",\"creditos\":").append(lote.getTotalCredito());
+        sb.append(",\"status\":");
+        Json.texto(sb, lote.getStatus().name());
+        sb.append('}');
+    }
+
+    private static String participacoesJson(ParticipacoesVersionadas v) {
+        StringBuilder sb = new StringBuilder("{\"versao\":").append(v.getVersao()).append(",\"participacoes\":[");
+        boolean primeiro = true;
+        for (ParticipacaoLote p : v.getParticipacoes()) {
+            if (!primeiro) sb.append(',');
+            primeiro = false;
+            sb.append("{\"id\":");
+            Json.texto(sb, p.getId().toString());
+            sb.append(",\"proprietario\":");
+            Json.texto(sb, p.getIdProprietario().toString());
+            sb.append(",\"creditos\":").append(p.getQuantidadeCreditos());
+            sb.append(",\"inicio\":");
+            Json.texto(sb, p.getDataInicio().toString());
+            sb.append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    @FunctionalInterface
+    private interface ParaJson<T> {
+        void escrever(StringBuilder sb, T item);
+    }
+
+    // =========================
+    // ===== REQUISIÇÃO ========
+    // =========================
+
+    private static Map<String, Object> corpo(HttpExchange ex) throws IOException {
+        byte[] bytes;
+        try (InputStream in = ex.getRequestBody()) {
+            bytes = in.readNBytes(BYTES_MAXIMOS_CORPO + 1);
+        }
+        if (bytes.length > BYTES_MAXIMOS_CORPO) {
+            throw new ErroHttp(413, "Corpo maior que " + BYTES_MAXIMOS_CORPO + " bytes.");
+        }
+        if (!(Json.ler(new String(bytes, StandardCharsets.UTF_8)) instanceof Map<?, ?> m)) {
+            throw new IllegalArgumentException("O corpo deve ser um objeto JSON.");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> objeto = (Map<String, Object>) m;
+        return objeto;
+    }
+
+    private static String texto(Map<String, Object> corpo, String campo) {
+        if (!(corpo.get(campo) instanceof String s)) {
+            throw new IllegalArgumentException("Campo '" + campo + "' é obrigatório e deve ser texto.");
+        }
+        return s;
+    }
+
+    private static BigDecimal numero(Map<String, Object> corpo, String campo) {
+        Object v = corpo.get(campo);
+        if (v instanceof BigDecimal n) return n;
+        if (v instanceof String s) {
+            try {
+                return new BigDecimal(s.trim());
+            } catch (NumberFormatException e) {
+                // cai na mensagem abaixo
+            }
+        }
+        throw new IllegalArgumentException("Campo '" + campo + "' é obrigatório e deve ser numérico.");
+    }
+
+    private static UUID uuid(String valor, String descricao) {
+        try {
+            return UUID.fromString(valor);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Valor inválido para " + descricao + ": " + valor);
+        }
+    }
+
+    private static UUID cursor(Map<String, String> consulta) {
+        String c = consulta.get("depoisDe");
+        return (c == null || c.isEmpty()) ? null : uuid(c, "depoisDe");
+    }
+
+    private static int limite(Map<String, String> consulta) {
+        String l = consulta.get("limite");
+        if (l == null) return LIMITE_PADRAO;
+        try {
+            int n = Integer.parseInt(l);
+            if (n > 0 && n <= LIMITE_MAXIMO) return n;
+        } catch (NumberFormatException e) {
+            // cai na mensagem abaixo
+        }
+        throw new IllegalArgumentException("Parâmetro 'limite' deve estar entre 1 e " + LIMITE_MAXIMO + ".");
+    }
+
+    private static String[] segmentos(String caminho) {
+        List<String> partes = new ArrayList<>(3);
+        for (String s : caminho.split("/")) {
+            if (!s.isEmpty()) partes.add(URLDecoder.decode(s, StandardCharsets.UTF_8));
+        }
+        return partes.toArray(new String[0]);
+    }
+
+    private static Map<String, String> consulta(String bruta) {
+        Map<String, String> m = new HashMap<>();
+        if (bruta == null || bruta.isEmpty()) return m;
+        for (String par : bruta.split("&")) {
+            int i = par.indexOf('=');
+            String nome = URLDecoder.decode(i < 0 ? par : par.substring(0, i), StandardCharsets.UTF_8);
+            String valor = i < 0 ? "" : URLDecoder.decode(par.substring(i + 1), StandardCharsets.UTF_8);
+            m.putIfAbsent(nome, valor);
+        }
+        return m;
+    }
+
+    private static ErroHttp metodoNaoPermitido(HttpExchange ex, String permitidos) {
+        ex.getResponseHeaders().set("Allow", permitidos);
+        return new ErroHttp(405, "Método não permitido: " + ex.getRequestMethod());
+    }
+
+    private static final class ErroHttp extends RuntimeException {
+        final int status;
+
+        ErroHttp(int status, String mensagem) {
+            super(mensagem);
+            this.status = status;
+        }
+    }
+
+    // =========================
+    // ===== RESPOSTA ==========
+    // =========================
+
+    /**
+     * Controla se o cabeçalho já foi enviado: depois disso um erro só pode
+     * interromper a resposta, não trocar o status.
+     */
+    private static final class Resposta {
+        private final HttpExchange ex;
+        private boolean enviada;
+
+        Resposta(HttpExchange ex) {
+            this.ex = ex;
+        }
+
+        void json(int status, String corpo) throws IOException {
+            enviar(status, "application/json; charset=utf-8", corpo);
+        }
+
+        void enviar(int status, String tipo, String corpo) throws IOException {
+            byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().set("Content-Type", tipo);
+            enviada = true;
+            ex.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+
+        void erro(int status, String mensagem) {
+            if (enviada) return;
+            StringBuilder sb = new StringBuilder("{\"erro\":");
+            Json.texto(sb, mensagem);
+            try {
+                json(status, sb.append('}').toString());
+            } catch (IOException e) {
+                // cliente já desconectou
+            }
+        }
+
+        /**
+         * Corpo em partes (chunked) com status 200, enviado só no primeiro byte escrito.
+         */
+        OutputStream streaming(String tipo) {
+            return new OutputStream() {
+                private OutputStream destino;
+
+                private OutputStream destino() throws IOException {
+                    if (destino == null) {
+                        ex.getResponseHeaders().set("Content-Type", tipo);
+                        enviada = true;
+                        ex.sendResponseHeaders(200, 0);
+                        destino = ex.getResponseBody();
+                    }
+                    return destino;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    destino().write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    destino().write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    if (destino != null) destino.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    destino().close();
+                }
+            };
+        }
+    }
+}
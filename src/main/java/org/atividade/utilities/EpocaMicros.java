@@ -0,0 +1,35 @@
+package org.atividade.utilities;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Conversão entre LocalDateTime e microssegundos desde 1970-01-01T00:00,
+ * usando UTC só como aritmética (as datas do sistema não têm fuso).
+ * Frações abaixo do microssegundo são descartadas.
+ */
+public final class EpocaMicros {
+    private EpocaMicros() {
+    }
+
+    public static long micros(LocalDateTime data) {
+        return Math.addExact(Math.multiplyExact(data.toEpochSecond(ZoneOffset.UTC), 1_000_000L),
+                data.getNano() / 1_000);
+    }
+
+    /**
+     * Como {@link #micros(LocalDateTime)}, mas satura em vez de estourar
+     * (datas fora de ±292 mil anos). Para limites de consulta, não para gravar.
+     */
+    public static long microsLimitado(LocalDateTime data) {
+        long segundos = data.toEpochSecond(ZoneOffset.UTC);
+        if (segundos >= Long.MAX_VALUE / 1_000_000L) return Long.MAX_VALUE;
+        if (segundos <= Long.MIN_VALUE / 1_000_000L) return Long.MIN_VALUE + 1;
+        return segundos * 1_000_000L + data.getNano() / 1_000;
+    }
+
+    public static LocalDateTime dataHora(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,71 @@
+package org.atividade.utilities;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estratégia de geração dos ids das entidades (ver Identificavel.novoId()).
+ *
+ * O padrão é UUIDv7: ordenado pelo tempo e sem SecureRandom, o que evita a
+ * contenção de UUID.randomUUID() nas vendas e deixa ids recentes próximos
+ * entre si nos índices. Todos continuam sendo UUIDs comuns, então journal,
+ * snapshots e a API pública não mudam.
+ */
+@FunctionalInterface
+public interface GeradorIds {
+    UUID gerar();
+
+    /**
+     * UUID versão 4 (SecureRandom), o comportamento original.
+     */
+    static GeradorIds aleatorio() {
+        return UUID::randomUUID;
+    }
+
+    /**
+     * UUID versão 7 (RFC 9562): 48 bits de milissegundos, 12 bits de
+     * contador e 62 bits aleatórios de ThreadLocalRandom. O contador é por
+     * thread (sem disputa entre threads): ids de uma mesma thread são
+     * estritamente crescentes e, entre threads, ordenados pelo milissegundo.
+     */
+    static GeradorIds uuidV7() {
+        ThreadLocal<long[]> ultimo = ThreadLocal.withInitial(() -> new long[1]); // (ms << 12) | contador
+        return () -> {
+            long[] estado = ultimo.get();
+            long e = Math.max(estado[0] + 1, System.currentTimeMillis() << 12);
+            estado[0] = e;
+            long msb = ((e >>> 12) << 16) | 0x7000L | (e & 0xFFFL);
+            long lsb = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+            return new UUID(msb, lsb);
+        };
+    }
+
+    /**
+     * Nó + sequência (UUID versão 8): a parte alta identifica o nó e o
+     * instante em que o gerador foi criado, a parte baixa é um contador.
+     * Dois nós (ou duas execuções do mesmo nó) não geram o mesmo id.
+     *
+     * @param no identificador do nó, 0..4095
+     */
+    static GeradorIds sequencial(int no) {
+        if (no < 0 || no > 0xFFF) {
+            throw new IllegalArgumentException("Nó deve estar entre 0 e 4095.");
+        }
+        long msb = ((System.currentTimeMillis() & 0xFFFFFFFFFFFFL) << 16) | 0x8000L | no;
+        AtomicLong sequencia = new AtomicLong();
+        return () -> new UUID(msb, (sequencia.incrementAndGet() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);
+    }
+
+    /**
+     * Troca a estratégia usada por Identificavel.novoId() a partir de agora.
+     */
+    static void definirPadrao(GeradorIds gerador) {
+        GeradorIdsPadrao.atual = Objects.requireNonNull(gerador);
+    }
+
+    static GeradorIds padrao() {
+        return GeradorIdsPadrao.atual;
+    }
+}
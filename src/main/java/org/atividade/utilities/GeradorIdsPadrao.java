@@ -0,0 +1,11 @@
+package org.atividade.utilities;
+
+/**
+ * Guarda a estratégia atual (interfaces não podem ter campos mutáveis).
+ */
+final class GeradorIdsPadrao {
+    static volatile GeradorIds atual = GeradorIds.uuidV7();
+
+    private GeradorIdsPadrao() {
+    }
+}
@@ -4,4 +4,11 @@ import java.util.UUID;
 
 public interface Identificavel {
     UUID getId();
-}
\ No newline at end of file
+
+    /**
+     * Id para uma entidade nova, gerado pela estratégia configurada em GeradorIds.
+     */
+    static UUID novoId() {
+        return GeradorIds.padrao().gerar();
+    }
+}
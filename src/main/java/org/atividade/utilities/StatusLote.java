@@ -1,8 +1,20 @@
 package org.atividade.utilities;
 
+/**
+ * Ciclo de vida do lote:
+ * DISPONIVEL &lt;-&gt; BLOQUEADO, e ambos -&gt; CANCELADO (definitivo).
+ * Só lotes DISPONIVEL recebem árvores e podem ser vendidos.
+ */
 public enum StatusLote {
     DISPONIVEL,
     BLOQUEADO,
-    CANCELADO
-    // etc
-}
\ No newline at end of file
+    CANCELADO;
+
+    public boolean podeMudarPara(StatusLote destino) {
+        return switch (this) {
+            case DISPONIVEL -> destino == BLOQUEADO || destino == CANCELADO;
+            case BLOQUEADO -> destino == DISPONIVEL || destino == CANCELADO;
+            case CANCELADO -> false;
+        };
+    }
+}
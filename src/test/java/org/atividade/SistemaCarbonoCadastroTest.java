@@ -0,0 +1,30 @@
+package org.atividade;
+
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.PessoaJuridica;
+import org.atividade.exceptions.RegraNegocioException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Documentos são comparados sem pontuação; um documento só de pontuação
+ * não tem chave e é recusado, em vez de colidir com os outros.
+ */
+class SistemaCarbonoCadastroTest {
+
+    @Test
+    void documentoSoDePontuacaoERecusado() {
+        SistemaCarbono sistema = new SistemaCarbono();
+        assertThrows(RegraNegocioException.class, () -> sistema.cadastrarProprietario(new PessoaFisica("A", "---")));
+        assertThrows(RegraNegocioException.class, () -> sistema.cadastrarProprietario(new PessoaJuridica("B", "./.")));
+        assertTrue(sistema.listarProprietarios().isEmpty());
+
+        sistema.cadastrarProprietario(new PessoaFisica("C", "123.456.789-00"));
+        assertThrows(RegraNegocioException.class,
+                () -> sistema.cadastrarProprietario(new PessoaFisica("D", "12345678900")));
+        assertEquals(1, sistema.listarProprietarios().size());
+    }
+}
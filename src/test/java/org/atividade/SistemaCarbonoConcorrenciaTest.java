@@ -0,0 +1,124 @@
+package org.atividade;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.Proprietario;
+import org.atividade.exceptions.RegraNegocioException;
+import org.atividade.indices.FiltroTransacoes;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de estresse: várias threads vendendo o mesmo lote ao mesmo tempo
+ * (mais árvores chegando em paralelo) não podem quebrar a regra dos 1000
+ * créditos nem deixar dois compradores com o lote.
+ */
+class SistemaCarbonoConcorrenciaTest {
+    private static final int THREADS = 8;
+    private static final int TENTATIVAS_POR_THREAD = 2_000;
+
+    @Test
+    void vendasConcorrentesNoMesmoLoteMantem1000Creditos() throws Exception {
+        SistemaCarbono sistema = new SistemaCarbono();
+        List<UUID> donos = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Proprietario p = new PessoaFisica("Proprietário " + i, "DOC-" + i);
+            sistema.cadastrarProprietario(p);
+            donos.add(p.getId());
+        }
+        LoteCreditoCarbono lote = sistema.criarLote("ESTRESSE");
+        UUID idLote = lote.getId();
+        sistema.definirParticipacoesIniciais(idLote, Map.of(donos.get(0), 600, donos.get(1), 400));
+
+        AtomicInteger vendas = new AtomicInteger();
+        AtomicInteger rejeitadas = new AtomicInteger();
+        AtomicBoolean rodando = new AtomicBoolean(true);
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 2);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                tarefas.add(pool.submit(() -> {
+                    largada.await();
+                    ThreadLocalRandom r = ThreadLocalRandom.current();
+                    for (int i = 0; i < TENTATIVAS_POR_THREAD; i++) {
+                        // Lê os donos atuais sem lock e tenta vender: outra thread pode ter vendido antes.
+                        List<UUID> vendedores = sistema.listarParticipacoesAtuais(idLote).stream()
+                                .map(ParticipacaoLote::getIdProprietario).toList();
+                        UUID comprador = donos.get(r.nextInt(donos.size()));
+                        try {
+                            sistema.venderLote(idLote, vendedores, comprador, new BigDecimal("10.00"));
+                            vendas.incrementAndGet();
+                        } catch (RegraNegocioException e) {
+                            rejeitadas.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // Árvores no mesmo lote e leitura contínua do invariante durante as vendas.
+            tarefas.add(pool.submit(() -> {
+                largada.await();
+                for (int i = 0; rodando.get(); i++) {
+                    sistema.registrarArvore(idLote, new ArvoreGeradoraCredito("Ipê", -10 + (i % 1000) * 1e-4, -37));
+                }
+                return null;
+            }));
+            AtomicInteger leiturasInvalidas = new AtomicInteger();
+            tarefas.add(pool.submit(() -> {
+                largada.await();
+                while (rodando.get()) {
+                    int soma = sistema.listarParticipacoesAtuais(idLote).stream()
+                            .mapToInt(ParticipacaoLote::getQuantidadeCreditos).sum();
+                    if (soma != 1000) leiturasInvalidas.incrementAndGet();
+                }
+                return null;
+            }));
+
+            largada.countDown();
+            for (int t = 0; t < THREADS; t++) tarefas.get(t).get(2, TimeUnit.MINUTES);
+            rodando.set(false);
+            for (Future<?> f : tarefas) f.get(1, TimeUnit.MINUTES);
+
+            assertEquals(0, leiturasInvalidas.get(), "leituras com soma diferente de 1000");
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(THREADS * TENTATIVAS_POR_THREAD, vendas.get() + rejeitadas.get());
+        assertTrue(vendas.get() > 0, "nenhuma venda efetivada");
+
+        List<ParticipacaoLote> atuais = sistema.listarParticipacoesAtuais(idLote);
+        assertEquals(1, atuais.size(), "depois de vendas do lote inteiro só pode haver um dono");
+        assertEquals(1000, atuais.get(0).getQuantidadeCreditos());
+
+        long totalCarteiras = 0;
+        for (UUID d : donos) totalCarteiras += sistema.totalCreditosDoProprietario(d);
+        assertEquals(1000, totalCarteiras, "créditos somados nas carteiras");
+
+        long transacoes = sistema.resumirTransacoes(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1),
+                FiltroTransacoes.TODAS).getQuantidade();
+        assertEquals(vendas.get(), transacoes, "uma transação por venda efetivada");
+        // Criação + participações iniciais + uma alteração por venda + árvores.
+        assertTrue(sistema.getSequenciaLote(idLote) >= 2 + vendas.get());
+    }
+}
@@ -0,0 +1,112 @@
+package org.atividade;
+
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.OrdemVenda;
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.Proprietario;
+import org.atividade.exportacao.ResultadoExportacao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O corte do exportarColunar vale para todos os lotes ao mesmo tempo: vendas
+ * em bloco que alteram dois lotes juntos aparecem inteiras ou não aparecem,
+ * mesmo com a exportação rodando no meio delas.
+ */
+class SistemaCarbonoExportacaoTest {
+    private static final int VENDEDORES = 4;
+    private static final int PARES_POR_VENDEDOR = 4;
+    private static final int BLOCOS_POR_VENDEDOR = 20_000;
+    private static final int EXPORTACOES = 10;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void vendasEmParDeLotesNuncaSaemPelaMetade() throws Exception {
+        SistemaCarbono sistema = new SistemaCarbono();
+        Proprietario a = new PessoaFisica("A", "DOC-A");
+        Proprietario b = new PessoaFisica("B", "DOC-B");
+        sistema.cadastrarProprietario(a);
+        sistema.cadastrarProprietario(b);
+
+        List<UUID[]> pares = new ArrayList<>();
+        for (int i = 0; i < VENDEDORES * PARES_POR_VENDEDOR; i++) {
+            UUID[] par = new UUID[2];
+            for (int j = 0; j < 2; j++) {
+                LoteCreditoCarbono lote = sistema.criarLote("PAR-" + i + "-" + j);
+                sistema.definirParticipacoesIniciais(lote.getId(), Map.of(a.getId(), 1000));
+                par[j] = lote.getId();
+            }
+            pares.add(par);
+        }
+        int lotes = pares.size() * 2;
+
+        AtomicBoolean parar = new AtomicBoolean();
+        AtomicLong vendas = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(VENDEDORES);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int v = 0; v < VENDEDORES; v++) {
+                List<UUID[]> meus = pares.subList(v * PARES_POR_VENDEDOR, (v + 1) * PARES_POR_VENDEDOR);
+                tarefas.add(pool.submit(() -> {
+                    // Cada par é só desta thread: o dono atual dos dois lotes é conhecido.
+                    boolean[] comA = new boolean[meus.size()];
+                    Arrays.fill(comA, true);
+                    for (int k = 0; k < BLOCOS_POR_VENDEDOR && !parar.get(); k++) {
+                        int n = k % meus.size();
+                        UUID de = comA[n] ? a.getId() : b.getId();
+                        UUID para = comA[n] ? b.getId() : a.getId();
+                        UUID[] par = meus.get(n);
+                        sistema.venderLotes(List.of(
+                                new OrdemVenda(par[0], List.of(de), para, new BigDecimal("1.00")),
+                                new OrdemVenda(par[1], List.of(de), para, new BigDecimal("1.00"))));
+                        comA[n] = !comA[n];
+                        vendas.addAndGet(2);
+                    }
+                    return null;
+                }));
+            }
+
+            int comVendasNoMeio = 0;
+            for (int i = 0; i < EXPORTACOES; i++) {
+                long antes = vendas.get();
+                ResultadoExportacao r = sistema.exportarColunar(diretorio.resolve("exp-" + i));
+                long depois = vendas.get();
+
+                long transacoes = r.getLinhas().get("transacoes");
+                assertEquals(0, transacoes % 2, "venda em bloco cortada ao meio na exportação " + i);
+                assertTrue(transacoes >= antes && transacoes <= depois + 2 * VENDEDORES,
+                        transacoes + " fora de [" + antes + ", " + depois + "]");
+                // Cada venda encerra uma participação e abre outra: uma linha a mais por venda.
+                assertEquals(lotes + transacoes, r.getLinhas().get("participacoes"));
+                assertEquals(lotes, r.getLinhas().get("lotes"));
+                assertEquals(2, r.getLinhas().get("proprietarios"));
+                if (depois > antes) comVendasNoMeio++;
+            }
+            assertTrue(comVendasNoMeio > 0, "nenhuma exportação rodou junto com as vendas");
+            for (Future<?> tarefa : tarefas) tarefa.get(60, TimeUnit.SECONDS);
+        } finally {
+            parar.set(true);
+            pool.shutdownNow();
+        }
+        assertEquals(2L * VENDEDORES * BLOCOS_POR_VENDEDOR, vendas.get());
+    }
+}
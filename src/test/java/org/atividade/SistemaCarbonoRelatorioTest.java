@@ -0,0 +1,87 @@
+package org.atividade;
+
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.Proprietario;
+import org.atividade.relatorios.FormatoRelatorio;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O relatório é escrito fora do lock do lote: um destino lento não segura
+ * as vendas, e o que sai é o corte do momento em que o relatório começou.
+ */
+class SistemaCarbonoRelatorioTest {
+
+    @Test
+    void destinoLentoNaoBloqueiaVendasEMostraOCorte() throws Exception {
+        SistemaCarbono sistema = new SistemaCarbono();
+        Proprietario vendedor = new PessoaFisica("Vendedora", "DOC-1");
+        Proprietario comprador = new PessoaFisica("Comprador", "DOC-2");
+        sistema.cadastrarProprietario(vendedor);
+        sistema.cadastrarProprietario(comprador);
+        LoteCreditoCarbono lote = sistema.criarLote("RELATORIO");
+        sistema.definirParticipacoesIniciais(lote.getId(), Map.of(vendedor.getId(), 1000));
+
+        CountDownLatch escrevendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        StringWriter texto = new StringWriter();
+        Writer lento = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+                escrevendo.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                texto.write(cbuf, off, len);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> relatorio = pool.submit(() -> {
+                sistema.escreverRelatorioLote(lote.getId(), FormatoRelatorio.TEXTO, lento);
+                return null;
+            });
+            assertTrue(escrevendo.await(5, TimeUnit.SECONDS));
+
+            // Com o relatório parado no meio da escrita, a venda no mesmo lote não pode esperar por ele.
+            Future<?> venda = pool.submit(() -> sistema.venderLote(lote.getId(),
+                    List.of(vendedor.getId()), comprador.getId(), new BigDecimal("10.00")));
+            venda.get(5, TimeUnit.SECONDS);
+
+            liberar.countDown();
+            relatorio.get(5, TimeUnit.SECONDS);
+        } finally {
+            liberar.countDown();
+            pool.shutdownNow();
+        }
+
+        String saida = texto.toString();
+        assertTrue(saida.contains("Fim: ATUAL"), saida);
+        assertFalse(saida.contains("Comprador |"), saida);
+    }
+}
@@ -0,0 +1,111 @@
+package org.atividade;
+
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.Proprietario;
+import org.atividade.exceptions.VersaoLoteDesatualizadaException;
+import org.atividade.indices.FiltroTransacoes;
+import org.atividade.indices.ParticipacoesVersionadas;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Venda condicionada à versão do lote: com a versão lida ela é efetivada;
+ * com uma versão superada é recusada sem alterar nada, e de várias vendas
+ * concorrentes com a mesma versão só uma passa.
+ */
+class SistemaCarbonoVersaoTest {
+    private static final int COMPRADORES = 8;
+    private static final int RODADAS = 50;
+
+    @Test
+    void versaoSuperadaERecusadaSemAlterarOLote() {
+        SistemaCarbono sistema = new SistemaCarbono();
+        Proprietario a = cadastrar(sistema, "A");
+        Proprietario b = cadastrar(sistema, "B");
+        LoteCreditoCarbono lote = sistema.criarLote("VERSAO");
+        sistema.definirParticipacoesIniciais(lote.getId(), Map.of(a.getId(), 1000));
+
+        long lida = sistema.listarParticipacoesAtuaisVersionadas(lote.getId()).getVersao();
+        long nova = sistema.venderLote(lote.getId(), lida, List.of(a.getId()), b.getId(), new BigDecimal("10.00"));
+        assertEquals(lida + 1, nova);
+
+        VersaoLoteDesatualizadaException erro = assertThrows(VersaoLoteDesatualizadaException.class,
+                () -> sistema.venderLote(lote.getId(), lida, List.of(b.getId()), a.getId(), new BigDecimal("20.00")));
+        assertEquals(lida, erro.getVersaoEsperada());
+        assertEquals(nova, erro.getVersaoAtual());
+        assertEquals(nova, sistema.getSequenciaLote(lote.getId()));
+        assertEquals(b.getId(), sistema.listarParticipacoesAtuais(lote.getId()).get(0).getIdProprietario());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sistema.venderLote(lote.getId(), 0, List.of(b.getId()), a.getId(), new BigDecimal("20.00")));
+    }
+
+    @Test
+    void vendasConcorrentesComAMesmaVersaoSoUmaPassa() throws Exception {
+        SistemaCarbono sistema = new SistemaCarbono();
+        List<Proprietario> compradores = new ArrayList<>();
+        for (int i = 0; i < COMPRADORES; i++) compradores.add(cadastrar(sistema, "C" + i));
+        Proprietario inicial = cadastrar(sistema, "Inicial");
+        LoteCreditoCarbono lote = sistema.criarLote("DISPUTA");
+        sistema.definirParticipacoesIniciais(lote.getId(), Map.of(inicial.getId(), 1000));
+
+        ExecutorService pool = Executors.newFixedThreadPool(COMPRADORES);
+        try {
+            for (int rodada = 0; rodada < RODADAS; rodada++) {
+                ParticipacoesVersionadas lidas = sistema.listarParticipacoesAtuaisVersionadas(lote.getId());
+                UUID dono = lidas.getParticipacoes().get(0).getIdProprietario();
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<Long>> tentativas = new ArrayList<>();
+                for (Proprietario comprador : compradores) {
+                    if (comprador.getId().equals(dono)) continue;
+                    tentativas.add(pool.submit(() -> {
+                        largada.await();
+                        try {
+                            return sistema.venderLote(lote.getId(), lidas.getVersao(), List.of(dono),
+                                    comprador.getId(), new BigDecimal("1.00"));
+                        } catch (VersaoLoteDesatualizadaException e) {
+                            return -1L;
+                        }
+                    }));
+                }
+                largada.countDown();
+
+                int efetivadas = 0;
+                for (Future<Long> tentativa : tentativas) {
+                    long versao = tentativa.get(30, TimeUnit.SECONDS);
+                    if (versao != -1) {
+                        assertEquals(lidas.getVersao() + 1, versao);
+                        efetivadas++;
+                    }
+                }
+                assertEquals(1, efetivadas, "rodada " + rodada);
+                assertEquals(lidas.getVersao() + 1, sistema.getSequenciaLote(lote.getId()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(2 + RODADAS, sistema.getSequenciaLote(lote.getId()));
+        assertEquals(RODADAS, sistema.buscarTransacoes(LocalDateTime.MIN, LocalDateTime.MAX, FiltroTransacoes.TODAS).count());
+    }
+
+    private static Proprietario cadastrar(SistemaCarbono sistema, String nome) {
+        Proprietario p = new PessoaFisica(nome, "DOC-" + nome);
+        sistema.cadastrarProprietario(p);
+        return p;
+    }
+}
@@ -0,0 +1,95 @@
+package org.atividade.armazenamento;
+
+import org.atividade.entities.ParticipacaoLote;
+import org.atividade.entities.TransacaoCompraVenda;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Registros gravados e lidos de volta em mais de uma região mapeada
+ * (2^20 registros por região), inclusive os vizinhos da fronteira.
+ */
+class HistoricoMapeadoTest {
+    private static final int POR_REGIAO = 1 << 20;
+    private static final int REGISTROS = POR_REGIAO + 3;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void participacoesAtravessamARegiao() throws Exception {
+        try (HistoricoMapeado historico = HistoricoMapeado.abrir(diretorio)) {
+            for (int i = 0; i < REGISTROS; i++) {
+                assertEquals(i, historico.adicionarParticipacao(participacao(i)));
+            }
+            for (int i = POR_REGIAO - 2; i < REGISTROS; i++) {
+                historico.encerrarParticipacao(i, 1_000_000L * i + 500);
+            }
+
+            for (int i = 0; i < REGISTROS; i++) {
+                ParticipacaoLote lida = historico.participacao(i);
+                ParticipacaoLote esperada = participacao(i);
+                assertEquals(esperada.getId(), lida.getId());
+                assertEquals(esperada.getIdLote(), lida.getIdLote());
+                assertEquals(esperada.getIdProprietario(), lida.getIdProprietario());
+                assertEquals(esperada.getQuantidadeCreditos(), lida.getQuantidadeCreditos());
+                assertEquals(esperada.getInicioMicros(), lida.getInicioMicros());
+                long fim = i >= POR_REGIAO - 2 ? 1_000_000L * i + 500 : ParticipacaoLote.SEM_FIM;
+                assertEquals(fim, lida.getFimMicros(), "registro " + i);
+            }
+        }
+    }
+
+    @Test
+    void transacoesAtravessamARegiao() throws Exception {
+        try (HistoricoMapeado historico = HistoricoMapeado.abrir(diretorio)) {
+            for (int i = 0; i < REGISTROS; i++) {
+                assertEquals(i, historico.adicionarTransacao(transacao(i)));
+            }
+
+            for (int i = 0; i < REGISTROS; i++) {
+                TransacaoCompraVenda lida = historico.transacao(i);
+                TransacaoCompraVenda esperada = transacao(i);
+                assertEquals(esperada.getId(), lida.getId(), "registro " + i);
+                assertEquals(esperada.getIdLote(), lida.getIdLote());
+                assertEquals(esperada.getIdComprador(), lida.getIdComprador());
+                assertEquals(esperada.getIdsVendedores(), lida.getIdsVendedores());
+                assertEquals(esperada.getValorCentavos(), lida.getValorCentavos());
+                assertEquals(esperada.getDataMicros(), lida.getDataMicros());
+            }
+        }
+    }
+
+    @Test
+    void temporarioApagaOsArquivosAoFechar() throws Exception {
+        try (HistoricoMapeado historico = HistoricoMapeado.abrir(diretorio)) {
+            Historico temporario = historico.temporario();
+            temporario.adicionarParticipacao(participacao(0));
+            temporario.close();
+            try (var arquivos = Files.list(diretorio)) {
+                assertFalse(arquivos.anyMatch(p -> p.getFileName().toString().startsWith("temporario-")));
+            }
+        }
+    }
+
+    private static ParticipacaoLote participacao(int i) {
+        return new ParticipacaoLote(new UUID(i, 1), new UUID(i % 97, 2), new UUID(i, 3),
+                1 + i % 1000, 1_000_000L * i, ParticipacaoLote.SEM_FIM);
+    }
+
+    private static TransacaoCompraVenda transacao(int i) {
+        List<UUID> vendedores = new ArrayList<>();
+        for (int v = 0; v <= i % 3; v++) vendedores.add(new UUID(i, 10 + v));
+        return new TransacaoCompraVenda(new UUID(i, 4), new UUID(i % 97, 5), vendedores, new UUID(i, 6),
+                7L * i, 1_000L * i);
+    }
+}
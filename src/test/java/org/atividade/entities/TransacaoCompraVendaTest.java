@@ -0,0 +1,50 @@
+package org.atividade.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Conversão de valores para centavos: nada é arredondado, e valores com
+ * expoentes enormes são recusados sem calcular a escala.
+ */
+class TransacaoCompraVendaTest {
+
+    @Test
+    void converteValoresExatos() {
+        assertEquals(1050, TransacaoCompraVenda.centavos(new BigDecimal("10.50")));
+        assertEquals(1050, TransacaoCompraVenda.centavos(new BigDecimal("10.5000")));
+        assertEquals(10_000, TransacaoCompraVenda.centavos(new BigDecimal("1E+2")));
+        assertEquals(0, TransacaoCompraVenda.centavos(new BigDecimal("0E-10000000")));
+        assertEquals(Long.MAX_VALUE, TransacaoCompraVenda.centavos(new BigDecimal("92233720368547758.07")));
+    }
+
+    @Test
+    void recusaValoresInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> TransacaoCompraVenda.centavos(null));
+        assertThrows(IllegalArgumentException.class, () -> TransacaoCompraVenda.centavos(new BigDecimal("-1")));
+        assertThrows(IllegalArgumentException.class, () -> TransacaoCompraVenda.centavos(new BigDecimal("10.001")));
+        assertThrows(IllegalArgumentException.class,
+                () -> TransacaoCompraVenda.centavos(new BigDecimal("92233720368547758.08")));
+        assertThrows(IllegalArgumentException.class, () -> TransacaoCompraVenda.centavos(new BigDecimal("1E+17")));
+    }
+
+    @Test
+    void recusaExpoentesEnormesSemCalcularAEscala() {
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            assertThrows(IllegalArgumentException.class,
+                    () -> TransacaoCompraVenda.centavos(new BigDecimal("1e10000000")));
+            assertThrows(IllegalArgumentException.class,
+                    () -> TransacaoCompraVenda.centavos(new BigDecimal("1e-10000000")));
+            assertThrows(IllegalArgumentException.class,
+                    () -> TransacaoCompraVenda.centavos(new BigDecimal("1e" + Integer.MAX_VALUE)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> TransacaoCompraVenda.centavos(new BigDecimal("1e-" + Integer.MAX_VALUE)));
+        });
+    }
+}
@@ -0,0 +1,172 @@
+package org.atividade.eventos;
+
+import org.atividade.SistemaCarbono;
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.Proprietario;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Entrega sem lock: ordem por publicador, limite do buffer conforme a
+ * política, eventos com cópia imutável das participações e assinante
+ * BLOQUEAR que altera o próprio lote sem travar quem publica.
+ */
+class AssinaturaTest {
+    private static final int PUBLICADORES = 4;
+    private static final int EVENTOS_POR_PUBLICADOR = 5_000;
+    private static final int ARVORES_REENTRANTES = 200;
+
+    @Test
+    void bloquearEntregaTudoNaOrdemDeCadaPublicador() throws Exception {
+        PublicadorEventos publicador = new PublicadorEventos();
+        List<EventoDominio> recebidos = new CopyOnWriteArrayList<>();
+        Assinatura assinatura = publicador.assinar(recebidos::add, 8, PoliticaBackpressure.BLOQUEAR);
+
+        List<UUID> lotes = publicarEmParalelo(publicador);
+        assinatura.close();
+        assinatura.aguardarTermino();
+
+        assertEquals(PUBLICADORES * EVENTOS_POR_PUBLICADOR, recebidos.size());
+        assertEquals(0, assinatura.getDescartados());
+        for (UUID lote : lotes) {
+            long esperada = 1;
+            for (EventoDominio e : recebidos) {
+                if (lote.equals(e.getIdLote())) assertEquals(esperada++, e.getSequenciaLote());
+            }
+            assertEquals(EVENTOS_POR_PUBLICADOR + 1, esperada);
+        }
+    }
+
+    @Test
+    void descartarNovoNaoPassaDaCapacidade() throws Exception {
+        PublicadorEventos publicador = new PublicadorEventos();
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<EventoDominio> recebidos = new CopyOnWriteArrayList<>();
+        Assinatura assinatura = publicador.assinar(e -> {
+            try {
+                liberar.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            recebidos.add(e);
+        }, 16, PoliticaBackpressure.DESCARTAR_NOVO);
+
+        publicarEmParalelo(publicador);
+        assertTrue(assinatura.getPendentes() <= 16);
+        liberar.countDown();
+        assinatura.close();
+        assinatura.aguardarTermino();
+
+        assertTrue(recebidos.size() <= 17, "recebidos: " + recebidos.size());
+        assertEquals(PUBLICADORES * EVENTOS_POR_PUBLICADOR, recebidos.size() + assinatura.getDescartados());
+    }
+
+    @Test
+    void vendaEfetivadaNaoMudaComVendasPosteriores() throws Exception {
+        SistemaCarbono sistema = new SistemaCarbono();
+        Proprietario a = new PessoaFisica("A", "DOC-A");
+        Proprietario b = new PessoaFisica("B", "DOC-B");
+        sistema.cadastrarProprietario(a);
+        sistema.cadastrarProprietario(b);
+        LoteCreditoCarbono lote = sistema.criarLote("EVENTOS");
+        sistema.definirParticipacoesIniciais(lote.getId(), Map.of(a.getId(), 1000));
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<VendaEfetivada> vendas = new CopyOnWriteArrayList<>();
+        Assinatura assinatura = sistema.assinarEventos(e -> {
+            try {
+                liberar.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (e instanceof VendaEfetivada v) vendas.add(v);
+        }, 16, PoliticaBackpressure.BLOQUEAR);
+
+        sistema.venderLote(lote.getId(), List.of(a.getId()), b.getId(), new BigDecimal("10.00"));
+        sistema.venderLote(lote.getId(), List.of(b.getId()), a.getId(), new BigDecimal("20.00"));
+        liberar.countDown();
+        assinatura.close();
+        assinatura.aguardarTermino();
+
+        assertEquals(2, vendas.size());
+        // Na entrega a participação de B já foi encerrada pela segunda venda; o evento mostra a de antes.
+        InstantaneoParticipacao novaDaPrimeira = vendas.get(0).getNova();
+        assertEquals(b.getId(), novaDaPrimeira.getIdProprietario());
+        assertTrue(novaDaPrimeira.isAtual());
+        assertFalse(vendas.get(1).getEncerradas().get(0).isAtual());
+    }
+
+    @Test
+    void assinanteBloquearPodeAlterarOLoteQueEstaRecebendo() throws Exception {
+        SistemaCarbono sistema = new SistemaCarbono();
+        LoteCreditoCarbono lote = sistema.criarLote("REENTRANTE");
+        List<EventoDominio> recebidos = new CopyOnWriteArrayList<>();
+        // Buffer de 1: quem registra a próxima árvore espera o assinante, que registra outra no mesmo lote.
+        Assinatura assinatura = sistema.assinarEventos(e -> {
+            recebidos.add(e);
+            if (e instanceof ArvoreRegistrada && e.getSequenciaLote() <= 2 * ARVORES_REENTRANTES) {
+                sistema.registrarArvore(lote.getId(), new ArvoreGeradoraCredito("Ipê", -23.5, -46.6));
+            }
+        }, 1, PoliticaBackpressure.BLOQUEAR);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (int i = 0; i < ARVORES_REENTRANTES; i++) {
+                sistema.registrarArvore(lote.getId(), new ArvoreGeradoraCredito("Ipê", -23.5, -46.6));
+            }
+            while (sistema.getSequenciaLote(lote.getId()) <= 2 * ARVORES_REENTRANTES
+                    || assinatura.getPendentes() > 0) {
+                Thread.sleep(1);
+            }
+        });
+        assinatura.close();
+        assinatura.aguardarTermino();
+
+        long esperada = 2; // o LoteCriado saiu antes da assinatura
+        for (EventoDominio e : recebidos) assertEquals(esperada++, e.getSequenciaLote());
+        assertEquals(sistema.getSequenciaLote(lote.getId()) + 1, esperada);
+    }
+
+    private static List<UUID> publicarEmParalelo(PublicadorEventos publicador) throws Exception {
+        List<UUID> lotes = new ArrayList<>();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(PUBLICADORES);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < PUBLICADORES; t++) {
+                UUID lote = UUID.randomUUID();
+                lotes.add(lote);
+                tarefas.add(pool.submit(() -> {
+                    largada.await();
+                    for (int i = 1; i <= EVENTOS_POR_PUBLICADOR; i++) {
+                        publicador.publicar(new LoteCriado(new LoteCreditoCarbono(lote, "L-" + i), i));
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) tarefa.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        return lotes;
+    }
+}
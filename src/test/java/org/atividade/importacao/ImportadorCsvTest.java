@@ -0,0 +1,107 @@
+package org.atividade.importacao;
+
+import org.atividade.SistemaCarbono;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Campos entre aspas, BOM com CRLF e numeração das linhas de erro num
+ * arquivo de vários blocos (a numeração continua de um bloco para o outro).
+ */
+class ImportadorCsvTest {
+    private static final int LINHAS_DADOS = 150_000; // ~4 MiB: vários blocos de 1 MiB
+    private static final int A_CADA = 9_973;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void dividirTrataAspasComoNoRfc4180() {
+        assertArrayEquals(new String[]{"PF", "Silva, João", "1"},
+                ImportadorCsv.dividir("PF,\"Silva, João\",1", ','));
+        assertArrayEquals(new String[]{"Loja \"Verde\"", ""},
+                ImportadorCsv.dividir("\"Loja \"\"Verde\"\"\",", ','));
+        assertArrayEquals(new String[]{"a", "b;c", "d"},
+                ImportadorCsv.dividir(" a ;\"b;c\"; d ", ';'));
+        assertThrows(IllegalArgumentException.class, () -> ImportadorCsv.dividir("PF,\"Silva", ','));
+    }
+
+    @Test
+    void arquivoComBomECrlf() throws IOException {
+        Path arquivo = diretorio.resolve("proprietarios.csv");
+        String conteudo = "\uFEFFtipo,nome,documento\r\n"
+                + "PF,\"Silva, João\",123.456.789-00\r\n"
+                + "\r\n"
+                + "PJ,\"Empresa \"\"Verde\"\"\",12.345.678/0001-99\r\n"
+                + "XX,Outro,1\r\n"
+                + "PF,Maria,987.654.321-00";
+        Files.writeString(arquivo, conteudo, StandardCharsets.UTF_8);
+
+        SistemaCarbono sistema = new SistemaCarbono();
+        ResultadoImportacao r = new ImportadorCsv(sistema, ',', 2).importarProprietarios(arquivo);
+
+        assertEquals(4, r.getLinhasLidas());
+        assertEquals(3, r.getImportadas());
+        assertEquals(1, r.getTotalErros());
+        assertEquals(5, r.getErros().get(0).getLinha());
+        assertEquals("Silva, João", sistema.buscarProprietarioPorDocumento("12345678900").orElseThrow().getNome());
+        assertEquals("Empresa \"Verde\"",
+                sistema.buscarProprietarioPorDocumento("12345678000199").orElseThrow().getNome());
+    }
+
+    @Test
+    void errosTrazemALinhaDoArquivoEmTodosOsBlocos() throws IOException {
+        Path arquivo = diretorio.resolve("lotes.csv");
+        List<Long> esperados = new ArrayList<>();
+        long linha = 1;
+        int validas = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            out.write("codigo\n");
+            for (int i = 0; i < LINHAS_DADOS; i++) {
+                linha++;
+                if (i % A_CADA == 0) {
+                    out.write("DEMAIS,COLUNAS\n"); // número errado de colunas
+                    esperados.add(linha);
+                } else if (i % A_CADA == 1) {
+                    out.write("\n"); // em branco: não é lida, mas conta na numeração
+                } else if (i % A_CADA == 5) {
+                    out.write(codigo(3) + "\n"); // repete um código já importado
+                    esperados.add(linha);
+                } else {
+                    out.write(codigo(i) + "\n");
+                    validas++;
+                }
+            }
+        }
+        assertTrue(Files.size(arquivo) > 3L << 20);
+
+        SistemaCarbono sistema = new SistemaCarbono();
+        ResultadoImportacao r = new ImportadorCsv(sistema, ',', 4).importarLotes(arquivo);
+
+        int brancas = (LINHAS_DADOS + A_CADA - 2) / A_CADA;
+        assertEquals(LINHAS_DADOS - brancas, r.getLinhasLidas());
+        assertEquals(validas, r.getImportadas());
+        assertEquals(sistema.listarLotes().size(), r.getImportadas());
+        List<Long> linhasComErro = new ArrayList<>();
+        for (ErroImportacao e : r.getErros()) linhasComErro.add(e.getLinha());
+        linhasComErro.sort(null); // em cada bloco, erros de formato vêm antes dos erros de regra
+        assertEquals(esperados, linhasComErro);
+    }
+
+    private static String codigo(int i) {
+        return String.format("\"LOTE-%07d, talhão norte\"", i);
+    }
+}
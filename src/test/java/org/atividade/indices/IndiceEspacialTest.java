@@ -0,0 +1,38 @@
+package org.atividade.indices;
+
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Coordenadas NaN ou infinitas passam por comparações de faixa e precisam
+ * ser recusadas explicitamente, na árvore e no índice.
+ */
+class IndiceEspacialTest {
+
+    @Test
+    void arvoreRecusaCoordenadasNaoFinitas() {
+        assertThrows(IllegalArgumentException.class, () -> new ArvoreGeradoraCredito("Ipê", Double.NaN, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ArvoreGeradoraCredito("Ipê", 0, Double.NaN));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ArvoreGeradoraCredito("Ipê", 0, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void indiceRecusaPontosERaioNaoFinitos() {
+        IndiceEspacial indice = new IndiceEspacial((idLote, posicao) -> new ArvoreGeradoraCredito("Ipê", -23.5, -46.6));
+        UUID lote = UUID.randomUUID();
+        assertThrows(IllegalArgumentException.class, () -> indice.adicionar(lote, 0, Double.NaN, 10));
+        assertThrows(IllegalArgumentException.class, () -> indice.adicionar(lote, 0, 10, Double.NEGATIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> indice.buscarNoRaio(Double.NaN, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> indice.buscarNoRaio(0, 0, Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> indice.buscarNaCaixa(-10, Double.NaN, -10, 10));
+
+        indice.adicionar(lote, 0, -23.5, -46.6);
+        assertEquals(1, indice.buscarNaCaixa(-90, 90, -180, 180).size());
+    }
+}
@@ -0,0 +1,49 @@
+package org.atividade.metricas;
+
+import org.atividade.SistemaCarbono;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.Proprietario;
+import org.atividade.exceptions.RegraNegocioException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Rejeições por regra de negócio e por entrada inválida entram nas métricas.
+ */
+class MetricasCarbonoTest {
+
+    @Test
+    void vendaComValorInvalidoContaComoRejeitada() {
+        SistemaCarbono sistema = new SistemaCarbono();
+        Proprietario vendedor = new PessoaFisica("Vendedora", "DOC-1");
+        Proprietario comprador = new PessoaFisica("Comprador", "DOC-2");
+        sistema.cadastrarProprietario(vendedor);
+        sistema.cadastrarProprietario(comprador);
+        LoteCreditoCarbono lote = sistema.criarLote("METRICAS");
+        sistema.definirParticipacoesIniciais(lote.getId(), Map.of(vendedor.getId(), 1000));
+
+        assertThrows(IllegalArgumentException.class, () -> sistema.venderLote(lote.getId(),
+                List.of(vendedor.getId()), comprador.getId(), new BigDecimal("10.001")));
+        assertThrows(RegraNegocioException.class, () -> sistema.venderLote(lote.getId(),
+                List.of(comprador.getId()), vendedor.getId(), new BigDecimal("10.00")));
+
+        InstantaneoMetricas m = sistema.coletarMetricas();
+        assertEquals(2, m.getOperacoes().get(Operacao.VENDER_LOTE).getRejeitadas());
+        assertEquals(0, m.getOperacoes().get(Operacao.VENDER_LOTE).getConcluidas());
+        assertEquals(1L, m.getRejeicoesPorRegra().get("Valor inválido"));
+    }
+
+    @Test
+    void regraDeEntradaInvalidaIgnoraOsValores() {
+        assertEquals("Valor inválido", MetricasCarbono.regra(
+                new IllegalArgumentException("Valor inválido (até 2 casas decimais): 10.001")));
+        assertEquals("NumberFormatException", MetricasCarbono.regra(new NumberFormatException("x")));
+    }
+}
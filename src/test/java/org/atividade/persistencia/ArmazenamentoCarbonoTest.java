@@ -0,0 +1,60 @@
+package org.atividade.persistencia;
+
+import org.atividade.SistemaCarbono;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Segmentos fechados são reproduzidos por inteiro: um registro com defeito
+ * num deles interrompe a recuperação e a compactação, que não chega a apagar
+ * nenhum segmento.
+ */
+class ArmazenamentoCarbonoTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void segmentoFechadoCorrompidoNaoEReproduzidoPelaMetade() throws Exception {
+        Path fechado;
+        try (ArmazenamentoCarbono armazenamento = ArmazenamentoCarbono.abrir(diretorio)) {
+            SistemaCarbono sistema = SistemaCarbono.recuperar(armazenamento);
+            sistema.criarLote("L-1");
+            sistema.criarLote("L-2");
+            armazenamento.rotacionar();
+            sistema.criarLote("L-3");
+
+            fechado = segmentos().get(0);
+            corromperUltimoByte(fechado);
+            assertThrows(IOException.class, sistema::compactarJournal);
+        }
+        assertEquals(3, segmentos().size(), "nenhum segmento pode ter sido apagado");
+
+        try (ArmazenamentoCarbono armazenamento = ArmazenamentoCarbono.abrir(diretorio)) {
+            IOException erro = assertThrows(IOException.class, () -> SistemaCarbono.recuperar(armazenamento));
+            assertTrue(erro.getMessage().contains(fechado.getFileName().toString()), erro.getMessage());
+        }
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(p -> p.getFileName().toString().startsWith("journal-")).sorted().toList();
+        }
+    }
+
+    private static void corromperUltimoByte(Path arquivo) throws IOException {
+        byte[] bytes = Files.readAllBytes(arquivo);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(arquivo, bytes);
+    }
+}
@@ -0,0 +1,453 @@
+package org.atividade.persistencia;
+
+import org.atividade.SistemaCarbono;
+import org.atividade.entities.ArvoreGeradoraCredito;
+import org.atividade.entities.LoteCreditoCarbono;
+import org.atividade.entities.OrdemVenda;
+import org.atividade.entities.PessoaFisica;
+import org.atividade.entities.Proprietario;
+import org.atividade.entities.TransacaoCompraVenda;
+import org.atividade.exceptions.JournalInutilizadoException;
+import org.atividade.exceptions.RegraNegocioException;
+import org.atividade.indices.FiltroTransacoes;
+import org.atividade.utilities.StatusLote;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Group commit: escritas concorrentes no journal síncrono só retornam depois
+ * do fsync e todas voltam na reprodução. Só um registro com defeito no fim do
+ * arquivo é descartado; no meio, a abertura falha. Journals antigos com valores de
+ * mais de duas casas decimais continuam reproduzíveis; uma árvore com
+ * coordenada NaN interrompe a recuperação em vez de sumir do lote.
+ */
+class JournalOperacoesTest {
+    private static final int THREADS = 8;
+    private static final int CADASTROS_POR_THREAD = 200;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void escritasConcorrentesSincronasSaoTodasReproduzidas() throws Exception {
+        Path arquivo = diretorio.resolve("journal.log");
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            assertEquals(JournalOperacoes.Durabilidade.SINCRONA, journal.getDurabilidade());
+            SistemaCarbono sistema = SistemaCarbono.recuperar(journal);
+            cadastrarEmParalelo(sistema);
+        }
+
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            SistemaCarbono recuperado = SistemaCarbono.recuperar(journal);
+            assertEquals(THREADS * CADASTROS_POR_THREAD, recuperado.listarProprietarios().size());
+        }
+    }
+
+    @Test
+    void journalAssincronoSincronizaNoFechamento() throws Exception {
+        Path arquivo = diretorio.resolve("journal-assincrono.log");
+        try (JournalOperacoes journal = JournalOperacoes.abrirAssincrono(arquivo,
+                JournalOperacoes.REGISTROS_POR_FSYNC_PADRAO, JournalOperacoes.INTERVALO_FSYNC_PADRAO_MILLIS)) {
+            SistemaCarbono sistema = SistemaCarbono.recuperar(journal);
+            cadastrarEmParalelo(sistema);
+        }
+
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            SistemaCarbono recuperado = SistemaCarbono.recuperar(journal);
+            assertEquals(THREADS * CADASTROS_POR_THREAD, recuperado.listarProprietarios().size());
+        }
+    }
+
+    @Test
+    void registroAcimaDoLimiteERecusadoSemGravar() throws Exception {
+        Path arquivo = diretorio.resolve("journal-limite.log");
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            SistemaCarbono sistema = SistemaCarbono.recuperar(journal);
+            sistema.criarLote("ANTES");
+            long tamanho = Files.size(arquivo);
+
+            List<UUID> ids = new ArrayList<>();
+            for (int i = 0; i < 1_100_000; i++) ids.add(UUID.randomUUID()); // 16 bytes cada: mais de 16 MiB
+            assertThrows(IllegalArgumentException.class, () -> journal.registrarStatus(ids, StatusLote.BLOQUEADO));
+            assertEquals(tamanho, Files.size(arquivo));
+
+            sistema.criarLote("DEPOIS");
+        }
+
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            SistemaCarbono recuperado = SistemaCarbono.recuperar(journal);
+            assertTrue(recuperado.buscarLotePorCodigo("DEPOIS").isPresent());
+        }
+    }
+
+    @Test
+    void blocoDeVendasAcimaDoLimiteERecusadoAntesDeAplicar() throws Exception {
+        Path arquivo = diretorio.resolve("journal-bloco.log");
+        UUID idLote;
+        UUID idComprador;
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            SistemaCarbono sistema = SistemaCarbono.recuperar(journal);
+            Proprietario a = new PessoaFisica("A", "DOC-A");
+            Proprietario b = new PessoaFisica("B", "DOC-B");
+            sistema.cadastrarProprietario(a);
+            sistema.cadastrarProprietario(b);
+            idLote = sistema.criarLote("BLOCO").getId();
+            sistema.definirParticipacoesIniciais(idLote, Map.of(a.getId(), 1000));
+            idComprador = b.getId();
+            long tamanho = Files.size(arquivo);
+
+            List<OrdemVenda> ordens = new ArrayList<>();
+            for (int i = 0; i <= 100_000; i++) {
+                Proprietario vendedor = (i % 2 == 0) ? a : b;
+                Proprietario comprador = (i % 2 == 0) ? b : a;
+                ordens.add(new OrdemVenda(idLote, List.of(vendedor.getId()), comprador.getId(), BigDecimal.ONE));
+            }
+            assertThrows(RegraNegocioException.class, () -> sistema.venderLotes(ordens));
+            assertEquals(tamanho, Files.size(arquivo));
+
+            sistema.venderLotes(ordens.subList(0, 100_000 - 1));
+            sistema.criarLote("DEPOIS");
+        }
+
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            SistemaCarbono recuperado = SistemaCarbono.recuperar(journal);
+            assertTrue(recuperado.buscarLotePorCodigo("DEPOIS").isPresent());
+            assertEquals(idComprador, recuperado.listarParticipacoesAtuais(idLote).get(0).getIdProprietario());
+        }
+    }
+
+    @Test
+    void alteracaoDeStatusAcimaDoLimiteERecusadaAntesDeAplicar() throws Exception {
+        Path arquivo = diretorio.resolve("journal-status.log");
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            SistemaCarbono sistema = SistemaCarbono.recuperar(journal);
+            UUID idLote = sistema.criarLote("STATUS").getId();
+            long tamanho = Files.size(arquivo);
+
+            List<UUID> ids = new ArrayList<>();
+            ids.add(idLote);
+            for (int i = 0; i < 1_000_000; i++) ids.add(UUID.randomUUID());
+            assertThrows(RegraNegocioException.class, () -> sistema.alterarStatusLotes(ids, StatusLote.BLOQUEADO));
+            assertEquals(tamanho, Files.size(arquivo));
+            assertEquals(StatusLote.DISPONIVEL, sistema.buscarLotePorCodigo("STATUS").orElseThrow().getStatus());
+        }
+    }
+
+    @Test
+    void registroCorrompidoNoMeioImpedeAAbertura() throws Exception {
+        Path arquivo = diretorio.resolve("journal-corrompido.log");
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            SistemaCarbono sistema = SistemaCarbono.recuperar(journal);
+            for (int i = 0; i < 3; i++) sistema.criarLote("L-" + i);
+        }
+        byte[] bytes = Files.readAllBytes(arquivo);
+        int segundo = 8 + ByteBuffer.wrap(bytes).getInt(0);
+        bytes[segundo + 6] ^= 1; // corpo do segundo registro: CRC deixa de bater
+        Files.write(arquivo, bytes);
+
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            IOException erro = assertThrows(IOException.class, () -> SistemaCarbono.recuperar(journal));
+            assertTrue(erro.getMessage().contains("registro 2"), erro.getMessage());
+        }
+        // Nada foi truncado: o terceiro registro continua no arquivo.
+        assertEquals(bytes.length, Files.size(arquivo));
+    }
+
+    @Test
+    void registroParcialNoFimEDescartado() throws Exception {
+        Path arquivo = diretorio.resolve("journal-parcial.log");
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            SistemaCarbono sistema = SistemaCarbono.recuperar(journal);
+            for (int i = 0; i < 2; i++) sistema.criarLote("L-" + i);
+        }
+        long completo = Files.size(arquivo);
+
+        // Último registro com CRC errado: a escrita não chegou ao disco inteira.
+        byte[] bytes = Files.readAllBytes(arquivo);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(arquivo, bytes);
+        assertEquals(1, recuperarLotes(arquivo));
+        int primeiro = 8 + ByteBuffer.wrap(bytes).getInt(0);
+        assertEquals(primeiro, Files.size(arquivo));
+        assertTrue(primeiro < completo);
+
+        // Cabeçalho de um registro cujo corpo nunca foi escrito.
+        Files.write(arquivo, new byte[]{0, 0, 0, 100, 2}, StandardOpenOption.APPEND);
+        assertEquals(1, recuperarLotes(arquivo));
+        assertEquals(primeiro, Files.size(arquivo));
+
+        // Fim preenchido com zeros.
+        Files.write(arquivo, new byte[64], StandardOpenOption.APPEND);
+        assertEquals(1, recuperarLotes(arquivo));
+        assertEquals(primeiro, Files.size(arquivo));
+    }
+
+    private static int recuperarLotes(Path arquivo) throws Exception {
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            return SistemaCarbono.recuperar(journal).listarLotes().size();
+        }
+    }
+
+    @Test
+    void falhaNoFsyncInutilizaOJournalSemDesfazerOCadastro() throws Exception {
+        Path arquivo = diretorio.resolve("journal-fsync.log");
+        FileChannel canal = new CanalComFalhaNoFsync(FileChannel.open(arquivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        Proprietario p = new PessoaFisica("Gravada", "DOC-1");
+        try (JournalOperacoes journal = new JournalOperacoes(arquivo, canal,
+                JournalOperacoes.Durabilidade.SINCRONA, 1, 0)) {
+            SistemaCarbono sistema = SistemaCarbono.recuperar(journal);
+            assertThrows(JournalInutilizadoException.class, () -> sistema.cadastrarProprietario(p));
+            // O registro já está no arquivo: o documento continua reservado e nada mais é gravado.
+            assertThrows(RegraNegocioException.class,
+                    () -> sistema.cadastrarProprietario(new PessoaFisica("Outra", "DOC-1")));
+            assertThrows(IllegalStateException.class, () -> sistema.criarLote("DEPOIS"));
+            assertThrows(IOException.class, journal::close);
+        }
+
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            SistemaCarbono recuperado = SistemaCarbono.recuperar(journal);
+            assertEquals(p.getId(), recuperado.buscarProprietarioPorDocumento("DOC-1").orElseThrow().getId());
+            assertTrue(recuperado.listarLotes().isEmpty());
+        }
+    }
+
+    @Test
+    void vendaAntigaComMaisDeDuasCasasSoEArredondadaComAutorizacao() throws Exception {
+        Path arquivo = diretorio.resolve("journal-antigo.log");
+        UUID idLote;
+        UUID idVendedor;
+        UUID idComprador;
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            SistemaCarbono sistema = SistemaCarbono.recuperar(journal);
+            Proprietario vendedor = new PessoaFisica("Vendedora", "DOC-1");
+            Proprietario comprador = new PessoaFisica("Comprador", "DOC-2");
+            sistema.cadastrarProprietario(vendedor);
+            sistema.cadastrarProprietario(comprador);
+            LoteCreditoCarbono lote = sistema.criarLote("ANTIGO");
+            sistema.definirParticipacoesIniciais(lote.getId(), Map.of(vendedor.getId(), 1000));
+            idLote = lote.getId();
+            idVendedor = vendedor.getId();
+            idComprador = comprador.getId();
+        }
+
+        // Registro de venda como gravado antes dos centavos: valor com 3 casas decimais.
+        ByteArrayOutputStream corpo = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(corpo);
+        out.writeByte(5); // TIPO_VENDAS
+        out.writeInt(1);
+        CodificacaoBinaria.escreverUuid(out, UUID.randomUUID());
+        CodificacaoBinaria.escreverUuid(out, idLote);
+        out.writeByte(1);
+        CodificacaoBinaria.escreverUuid(out, idVendedor);
+        CodificacaoBinaria.escreverUuid(out, idComprador);
+        CodificacaoBinaria.escreverValor(out, new BigDecimal("10.125"));
+        CodificacaoBinaria.escreverData(out, LocalDateTime.now());
+        CodificacaoBinaria.escreverUuid(out, UUID.randomUUID());
+        out.writeInt(1000);
+        anexarRegistro(arquivo, corpo.toByteArray());
+
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            IOException erro = assertThrows(IOException.class, () -> SistemaCarbono.recuperar(journal));
+            assertTrue(erro.getMessage().contains("10.125"), erro.getMessage());
+        }
+
+        System.setProperty(CodificacaoBinaria.PROPRIEDADE_ARREDONDAR, "true");
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            SistemaCarbono recuperado = SistemaCarbono.recuperar(journal);
+            List<TransacaoCompraVenda> transacoes = recuperado
+                    .buscarTransacoes(LocalDateTime.MIN, LocalDateTime.MAX, FiltroTransacoes.TODAS).toList();
+            assertEquals(1, transacoes.size());
+            assertEquals(new BigDecimal("10.12"), transacoes.get(0).getValor());
+            assertEquals(idComprador, recuperado.listarParticipacoesAtuais(idLote).get(0).getIdProprietario());
+        } finally {
+            System.clearProperty(CodificacaoBinaria.PROPRIEDADE_ARREDONDAR);
+        }
+    }
+
+    @Test
+    void arvoreAntigaComCoordenadaNaNFalhaNaReproducao() throws Exception {
+        Path arquivo = diretorio.resolve("journal-nan.log");
+        UUID idLote;
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            SistemaCarbono sistema = SistemaCarbono.recuperar(journal);
+            idLote = sistema.criarLote("NAN").getId();
+            sistema.registrarArvore(idLote, new ArvoreGeradoraCredito("Ipê", -23.5, -46.6));
+        }
+
+        // Árvore gravada antes da checagem com Double.isFinite.
+        UUID idArvore = UUID.randomUUID();
+        ByteArrayOutputStream corpo = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(corpo);
+        out.writeByte(3); // TIPO_ARVORE
+        CodificacaoBinaria.escreverUuid(out, idLote);
+        CodificacaoBinaria.escreverUuid(out, idArvore);
+        out.writeUTF("Jatobá");
+        out.writeDouble(Double.NaN);
+        out.writeDouble(-46.6);
+        anexarRegistro(arquivo, corpo.toByteArray());
+        long tamanho = Files.size(arquivo);
+
+        try (JournalOperacoes journal = JournalOperacoes.abrir(arquivo)) {
+            IOException erro = assertThrows(IOException.class, () -> SistemaCarbono.recuperar(journal));
+            assertTrue(erro.getMessage().contains(idArvore.toString()), erro.getMessage());
+        }
+        // O registro confirmado continua no arquivo.
+        assertEquals(tamanho, Files.size(arquivo));
+    }
+
+    private static void anexarRegistro(Path arquivo, byte[] corpo) throws Exception {
+        CRC32 crc = new CRC32();
+        crc.update(corpo);
+        ByteBuffer registro = ByteBuffer.allocate(corpo.length + 8);
+        registro.putInt(corpo.length).put(corpo).putInt((int) crc.getValue());
+        Files.write(arquivo, registro.array(), StandardOpenOption.APPEND);
+    }
+
+    private static void cadastrarEmParalelo(SistemaCarbono sistema) throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                tarefas.add(pool.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < CADASTROS_POR_THREAD; i++) {
+                        String doc = thread + "-" + i;
+                        sistema.cadastrarProprietario(new PessoaFisica("Proprietário " + doc, "DOC-" + doc));
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) tarefa.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Canal de arquivo real cujo fsync sempre falha. */
+    private static final class CanalComFalhaNoFsync extends FileChannel {
+        private final FileChannel real;
+
+        CanalComFalhaNoFsync(FileChannel real) {
+            this.real = real;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            throw new IOException("fsync falhou");
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return real.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return real.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return real.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return real.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return real.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            real.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return real.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            real.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return real.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return real.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return real.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return real.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return real.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return real.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return real.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            real.close();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.atividade.servidor;
+
+import org.atividade.SistemaCarbono;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Servidor real numa porta livre do loopback, com vários clientes HTTP
+ * concorrentes registrando árvores, vendendo o mesmo lote e lendo relatório
+ * e métricas ao mesmo tempo.
+ */
+class ServidorCarbonoTest {
+    private static final int CLIENTES = 8;
+    private static final int REQUISICOES_POR_CLIENTE = 100;
+
+    private SistemaCarbono sistema;
+    private ServidorCarbono servidor;
+    private ExecutorService executorCliente;
+    private HttpClient http;
+    private String base;
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        sistema = new SistemaCarbono();
+        servidor = ServidorCarbono.iniciar(sistema, 0, 8);
+        executorCliente = Executors.newFixedThreadPool(CLIENTES);
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executorCliente).build();
+        base = "http://" + servidor.getHost().getHostAddress() + ":" + servidor.getPorta();
+    }
+
+    @AfterEach
+    void parar() {
+        servidor.close();
+        executorCliente.shutdownNow();
+    }
+
+    @Test
+    void escutaSoNoLoopbackPorPadrao() {
+        assertTrue(servidor.getHost().isLoopbackAddress());
+        assertTrue(servidor.getPorta() > 0);
+    }
+
+    @Test
+    void clientesConcorrentesNoMesmoLote() throws Exception {
+        List<String> donos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            donos.add(campo(enviar("POST", "/proprietarios",
+                    "{\"tipo\":\"PF\",\"nome\":\"Dono " + i + "\",\"documento\":\"DOC-" + i + "\"}", 201), "id"));
+        }
+        String lote = campo(enviar("POST", "/lotes", "{\"codigo\":\"HTTP-1\"}", 201), "id");
+        enviar("POST", "/lotes/" + lote + "/participacoes",
+                "{\"participacoes\":{\"" + donos.get(0) + "\":1000}}", 200);
+
+        AtomicInteger vendas = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTES);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int c = 0; c < CLIENTES; c++) {
+                int cliente = c;
+                tarefas.add(pool.submit(() -> {
+                    largada.await();
+                    ThreadLocalRandom r = ThreadLocalRandom.current();
+                    for (int i = 0; i < REQUISICOES_POR_CLIENTE; i++) {
+                        switch (cliente % 4) {
+                            case 0 -> enviar("POST", "/lotes/" + lote + "/arvores",
+                                    "{\"especie\":\"Ipê\",\"latitude\":" + (r.nextDouble() * 10 - 20)
+                                            + ",\"longitude\":" + (r.nextDouble() * 10 - 50) + "}", 201);
+                            case 1 -> {
+                                // Vende com a versão lida: 409 se outro cliente vendeu antes.
+                                Map<?, ?> atual = json(enviar("GET", "/lotes/" + lote + "/participacoes", null, 200));
+                                List<?> participacoes = (List<?>) atual.get("participacoes");
+                                String vendedor = (String) ((Map<?, ?>) participacoes.get(0)).get("proprietario");
+                                String comprador = donos.get((donos.indexOf(vendedor) + 1 + r.nextInt(2)) % donos.size());
+                                HttpResponse<String> resposta = requisicao("POST", "/lotes/" + lote + "/vendas",
+                                        "{\"vendedores\":[\"" + vendedor + "\"],\"comprador\":\"" + comprador
+                                                + "\",\"valor\":10.50,\"versao\":" + atual.get("versao") + "}");
+                                if (resposta.statusCode() == 200) vendas.incrementAndGet();
+                                else if (resposta.statusCode() == 409 || resposta.statusCode() == 422) conflitos.incrementAndGet();
+                                else throw new AssertionError(resposta.statusCode() + " " + resposta.body());
+                            }
+                            case 2 -> json(enviar("GET", "/lotes/" + lote + "/relatorio?formato=json", null, 200));
+                            default -> {
+                                enviar("GET", "/metricas", null, 200);
+                                json(enviar("GET", "/lotes?limite=10", null, 200));
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) tarefa.get(120, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int arvoresEsperadas = REQUISICOES_POR_CLIENTE * (int) IntStream.range(0, CLIENTES)
+                .filter(c -> c % 4 == 0).count();
+        Map<?, ?> relatorio = json(enviar("GET", "/lotes/" + lote + "/relatorio?formato=json", null, 200));
+        assertEquals(arvoresEsperadas, ((List<?>) relatorio.get("arvores")).size());
+        assertEquals(vendas.get(), ((List<?>) relatorio.get("transacoes")).size());
+        assertTrue(vendas.get() > 0);
+        assertEquals(REQUISICOES_POR_CLIENTE * IntStream.range(0, CLIENTES).filter(c -> c % 4 == 1).count(),
+                vendas.get() + conflitos.get());
+
+        Map<?, ?> finais = json(enviar("GET", "/lotes/" + lote + "/participacoes", null, 200));
+        List<?> atuais = (List<?>) finais.get("participacoes");
+        assertEquals(1, atuais.size());
+        assertEquals(new BigDecimal(1000), ((Map<?, ?>) atuais.get(0)).get("creditos"));
+        assertEquals(2 + vendas.get() + arvoresEsperadas, ((BigDecimal) finais.get("versao")).longValue());
+    }
+
+    private HttpResponse<String> requisicao(String metodo, String caminho, String corpo) throws Exception {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(base + caminho)).timeout(Duration.ofSeconds(30));
+        if (corpo == null) b.method(metodo, HttpRequest.BodyPublishers.noBody());
+        else b.method(metodo, HttpRequest.BodyPublishers.ofString(corpo)).header("Content-Type", "application/json");
+        return http.send(b.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String enviar(String metodo, String caminho, String corpo, int statusEsperado) throws Exception {
+        HttpResponse<String> resposta = requisicao(metodo, caminho, corpo);
+        assertEquals(statusEsperado, resposta.statusCode(), metodo + " " + caminho + ": " + resposta.body());
+        return resposta.body();
+    }
+
+    private static Map<?, ?> json(String corpo) {
+        return (Map<?, ?>) Json.ler(corpo);
+    }
+
+    private static String campo(String corpo, String nome) {
+        return (String) json(corpo).get(nome);
+    }
+}